@@ -0,0 +1,191 @@
+package boardinghouse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// ApartmentManager at each dataset size: lookup, rent-range and find-as-you-type queries, CSV
+// parsing, add/delete, single vs batched edits, the "available only" bitmap against a scan, full
+// and incremental save, load, and rendering one screen of the table.
+// Operations that rewrite or read the whole dataset run single-shot; the rest report ns/op.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ApartmentBenchmarks {
+    private static final int RENT_PAGE = 100; // rows fetched per rent-range query
+    private static final int BATCH_EDITS = 100; // rent changes per op in the batch benchmarks
+    private static final int FIND_LIMIT = 1_000; // rows shown for a find-as-you-type query
+    private static final String[] FIND_QUERIES = {"a", "a1", "a12", "a123", "al", "alic", "alcie", "smtih", "okafor a1", "carmen reye", "zzz"};
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private File file;
+    private ApartmentManager manager;
+    private String[] csv;
+    private String[] probes;
+    private int op; // running operation index, for walking the probes
+
+    @Setup
+    public void setUp() throws IOException {
+        List<Apartment> data = Datasets.apartments(size, Datasets.DEFAULT_SEED);
+        csv = new String[Math.min(size, 4096)];
+        for (int i = 0; i < csv.length; i++) csv[i] = data.get(i).toCsvString();
+        file = Datasets.scratchFile("bench-apartments");
+        manager = new ApartmentManager(file.getPath());
+        manager.addApartments(data);
+        manager.compactApartments();
+        manager.buildFinder();
+        probes = Datasets.probes(size, Datasets::apartmentNumber);
+    }
+
+    private String nextProbe() {
+        return probes[op++ & (probes.length - 1)];
+    }
+
+    @Benchmark
+    public boolean find() {
+        return manager.findApartmentByNumber(nextProbe()).isPresent();
+    }
+
+    // A page of the cheapest available units in a 10-wide rent band; rents span 800..1499.
+    @Benchmark
+    public int rentRange() {
+        double from = 800 + op++ % 690;
+        return manager.findApartmentsByRent(from, from + 10, true, null, RENT_PAGE).records.size();
+    }
+
+    // Prefixes of tenant names and numbers, some misspelt.
+    @Benchmark
+    public int findAsYouType() {
+        return manager.findApartments(FIND_QUERIES[op++ % FIND_QUERIES.length], FIND_LIMIT).records.size();
+    }
+
+    @Benchmark
+    public Apartment fromCsvString() {
+        return Apartment.fromCsvString(csv[op++ % csv.length]);
+    }
+
+    @Benchmark
+    public boolean addDelete() {
+        String number = "NEW" + op++;
+        manager.addApartment(new Apartment(number, "Bench Tenant", 900, true, ""));
+        return manager.deleteApartment(number);
+    }
+
+    // BATCH_EDITS rent changes, each committed on its own.
+    @Benchmark
+    @OperationsPerInvocation(BATCH_EDITS)
+    public int rentEditsSingle() {
+        int changed = 0;
+        for (int i = 0; i < BATCH_EDITS; i++) {
+            changed += manager.adjustRents(Collections.singletonList(nextProbe()), 0.1).changedKeys.size();
+        }
+        return changed;
+    }
+
+    // The same BATCH_EDITS rent changes as one batch.
+    @Benchmark
+    @OperationsPerInvocation(BATCH_EDITS)
+    public int rentEditsBatch() {
+        List<String> numbers = new ArrayList<>(BATCH_EDITS);
+        for (int i = 0; i < BATCH_EDITS; i++) numbers.add(nextProbe());
+        return manager.adjustRents(numbers, 0.1).changedKeys.size();
+    }
+
+    @Benchmark
+    public int countAvailable() {
+        return manager.countAvailableApartments();
+    }
+
+    // Every vacant unit from the bitmap, against availableScan below.
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 10)
+    public int availableList() {
+        return manager.getAvailableApartments().size();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 10)
+    public int availableScan() {
+        int free = 0;
+        for (Apartment apt : manager.getAllApartments()) {
+            if (!apt.isOccupied()) free++;
+        }
+        return free;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long save() {
+        manager.compactApartments();
+        return file.length();
+    }
+
+    // A typical session's edits, then a save: only the journal is flushed unless enough is dirty.
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long saveAfterEdits() {
+        for (int i = 0; i < Datasets.EDITS_PER_SAVE; i++) {
+            Apartment apt = manager.findApartmentByNumber(nextProbe()).get();
+            apt.setRent(apt.getRent() + 1);
+            manager.updateApartment(apt);
+        }
+        manager.saveApartments();
+        return file.length();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int load() {
+        return new ApartmentManager(file.getPath()).getAllApartments().size();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long renderTable() {
+        RecordTableModel<Apartment> model = new RecordTableModel<Apartment>("Apt No", "Tenant", "Rent", "Status", "Document Info") {
+            @Override protected String keyOf(Apartment apt) { return apt.getApartmentNumber(); }
+            @Override protected Object valueAt(Apartment apt, int column) {
+                switch (column) {
+                    case 0: return apt.getApartmentNumber();
+                    case 1: return apt.getTenantName();
+                    case 2: return String.format("%.2f", apt.getRent());
+                    case 3: return apt.isOccupied() ? "Occupied" : "Available";
+                    default: return apt.hasDocument() ? "Yes" : "No";
+                }
+            }
+        };
+        model.setRecords(manager.getAllApartments());
+        return Datasets.renderVisibleRows(model);
+    }
+}
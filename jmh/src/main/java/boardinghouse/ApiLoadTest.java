@@ -0,0 +1,168 @@
+package boardinghouse;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Closed-loop load test for the REST API: each client sends its next request as soon as the
+// previous one answers, and the harness reports throughput and latency percentiles.
+// The mix is 80% apartment lookups, 10% spot lookups and 10% single-day spot reservations.
+// Without --url it starts an in-process server over generated data (see Datasets).
+//
+// Run with: gradle :jmh:harness -Pmain=ApiLoadTest [-PmainArgs='--url http://host:8080 --user admin --password adminpass']
+//           [--clients 64] [--seconds 10] [--records 100000] [--auth token|basic]
+// With --auth token (the default) the harness logs in once via POST /api/session and sends the
+// Bearer token; --auth basic sends the password with every request instead.
+public class ApiLoadTest {
+    public static void main(String[] args) throws Exception {
+        String url = null, user = "admin", password = "adminpass";
+        int clients = 64, seconds = 10, records = 100_000;
+        String auth = "token";
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--url": url = args[++i]; break;
+                case "--user": user = args[++i]; break;
+                case "--password": password = args[++i]; break;
+                case "--clients": clients = Integer.parseInt(args[++i]); break;
+                case "--seconds": seconds = Integer.parseInt(args[++i]); break;
+                case "--records": records = Integer.parseInt(args[++i]); break;
+                case "--auth": auth = args[++i]; break;
+                default:
+                    System.err.println("Unknown argument: " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        ApiServer embedded = null;
+        if (url == null) {
+            ApartmentManager apartments = new ApartmentManager(Datasets.scratchFile("load-apartments").getPath());
+            ParkingLotManager spots = new ParkingLotManager(Datasets.scratchFile("load-parking").getPath());
+            UserManager users = new UserManager(Datasets.scratchFile("load-users").getPath());
+            for (Apartment apt : Datasets.apartments(records, Datasets.DEFAULT_SEED)) apartments.addApartment(apt);
+            for (ParkingLot spot : Datasets.parkingLots(records, Datasets.DEFAULT_SEED)) spots.addSpot(spot);
+            embedded = new ApiServer(apartments, spots, users);
+            embedded.start(0);
+            url = "http://localhost:" + embedded.getPort();
+            System.out.printf("In-process server on %s with %,d apartments and spots%n", url, records);
+        }
+
+        String authorization = "Basic " + Base64.getEncoder().encodeToString((user + ":" + password).getBytes(StandardCharsets.UTF_8));
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+        if ("token".equals(auth)) {
+            HttpResponse<String> login = client.send(HttpRequest.newBuilder(URI.create(url + "/api/session"))
+                    .header("Authorization", authorization).POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+            if (login.statusCode() != 201) throw new IllegalStateException("Login failed: " + login.statusCode() + " " + login.body());
+            authorization = "Bearer " + Json.getString(Json.parseObject(login.body()), "token");
+        }
+        String base = url;
+        int keySpace = records;
+
+        System.out.println("Warming up...");
+        run(client, base, authorization, clients, Math.max(1, seconds / 3), keySpace);
+        Stats stats = run(client, base, authorization, clients, seconds, keySpace);
+
+        long[] latencies = stats.latencies();
+        Arrays.sort(latencies);
+        System.out.printf(Locale.ROOT, "auth=%s  clients=%d  duration=%ds  requests=%,d  errors=%,d  throughput=%,.0f req/s%n",
+                auth, clients, seconds, latencies.length, stats.errors.get(), latencies.length / (double) seconds);
+        System.out.printf(Locale.ROOT, "latency  p50=%.2f ms  p90=%.2f ms  p99=%.2f ms  p99.9=%.2f ms  max=%.2f ms%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+                percentile(latencies, 0.999), latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1e6);
+        if (embedded != null) embedded.stop();
+        System.exit(0);
+    }
+
+    private static Stats run(HttpClient client, String base, String authorization, int clients, int seconds, int keySpace) throws Exception {
+        Stats stats = new Stats(clients);
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                int clientId = c;
+                futures.add(workers.submit(() -> {
+                    SplittableRandom random = new SplittableRandom(clientId);
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = nextRequest(random, base, authorization, keySpace);
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                            // 409 is an expected outcome of racing reservations, not an error.
+                            if (response.statusCode() >= 400 && response.statusCode() != 409) stats.errors.incrementAndGet();
+                        } catch (Exception e) {
+                            stats.errors.incrementAndGet();
+                        }
+                        stats.record(clientId, System.nanoTime() - start);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) future.get();
+        }
+        return stats;
+    }
+
+    private static HttpRequest nextRequest(SplittableRandom random, String base, String authorization, int keySpace) {
+        int roll = random.nextInt(10);
+        int key = random.nextInt(keySpace);
+        HttpRequest.Builder builder = HttpRequest.newBuilder().header("Authorization", authorization).timeout(Duration.ofSeconds(30));
+        if (roll < 8) {
+            return builder.uri(URI.create(base + "/api/apartments/" + Datasets.apartmentNumber(key))).GET().build();
+        }
+        if (roll == 8) {
+            return builder.uri(URI.create(base + "/api/parking/" + Datasets.spotNumber(key))).GET().build();
+        }
+        String day = LocalDate.now().plusDays(random.nextInt(365)).toString();
+        return builder.uri(URI.create(base + "/api/parking/" + Datasets.spotNumber(key) + "/reservations"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"dates\":\"" + day + "\"}"))
+                .build();
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+
+    // Per-client latency buffers, so recording never contends between clients.
+    private static final class Stats {
+        final AtomicLong errors = new AtomicLong();
+        private final long[][] samples;
+        private final int[] counts;
+
+        Stats(int clients) {
+            samples = new long[clients][1024];
+            counts = new int[clients];
+        }
+
+        void record(int client, long nanos) {
+            if (counts[client] == samples[client].length) samples[client] = Arrays.copyOf(samples[client], counts[client] * 2);
+            samples[client][counts[client]++] = nanos;
+        }
+
+        long[] latencies() {
+            int total = 0;
+            for (int count : counts) total += count;
+            long[] all = new long[total];
+            int at = 0;
+            for (int c = 0; c < samples.length; c++) {
+                System.arraycopy(samples[c], 0, all, at, counts[c]);
+                at += counts[c];
+            }
+            return all;
+        }
+    }
+}
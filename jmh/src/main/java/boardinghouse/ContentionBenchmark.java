@@ -0,0 +1,109 @@
+package boardinghouse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Throughput of a shared ApartmentManager under concurrent readers and writers.
+// "mixed" runs three readers against one writer. update and indexRefresh are writers only and
+// run on every core; compare them with a single thread to see how writes scale:
+//   gradle :jmh:jmh -PjmhArgs='ContentionBenchmark.update -t 1'
+// indexRefresh changes records and refreshes the four write-path indexes directly, without the
+// journal, so it isolates their cost from the log append every manager write also pays.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ContentionBenchmark {
+    @Param({"100000"})
+    public int size;
+
+    private ApartmentManager manager;
+    private Apartment[] records; // detached copies, for indexRefresh
+    private AvailabilityIndex<Apartment> vacancies;
+    private ApartmentStatistics statistics;
+    private RentIndex rents;
+    private TenantIndex<Apartment> tenants;
+
+    // Each thread walks its own random sequence of records.
+    @State(Scope.Thread)
+    public static class Cursor {
+        final SplittableRandom random = new SplittableRandom(ThreadLocalRandom.current().nextLong());
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        List<Apartment> data = Datasets.apartments(size, Datasets.DEFAULT_SEED);
+        File file = Datasets.scratchFile("bench-contention");
+        manager = new ApartmentManager(file.getPath());
+        manager.addApartments(data);
+
+        records = Datasets.apartments(size, Datasets.DEFAULT_SEED).toArray(new Apartment[0]);
+        List<Apartment> all = Arrays.asList(records);
+        vacancies = new AvailabilityIndex<>(Apartment::getApartmentNumber, apt -> !apt.isOccupied());
+        statistics = new ApartmentStatistics();
+        rents = new RentIndex();
+        tenants = new TenantIndex<>(Apartment::getApartmentNumber, apt -> Arrays.asList(apt.getTenantName()));
+        vacancies.rebuild(all);
+        statistics.rebuild(all);
+        rents.rebuild(all);
+        tenants.rebuild(all);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public boolean read(Cursor cursor) {
+        return manager.findApartmentByNumber(Datasets.apartmentNumber(cursor.random.nextInt(size))).isPresent();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public boolean write(Cursor cursor) {
+        return update(cursor);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean update(Cursor cursor) {
+        int i = cursor.random.nextInt(size);
+        boolean occupied = cursor.random.nextBoolean();
+        return manager.updateApartment(new Apartment(Datasets.apartmentNumber(i), occupied ? "Tenant " + (i & 1023) : "",
+                900 + cursor.random.nextInt(600), occupied, ""));
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean indexRefresh(Cursor cursor) {
+        Apartment apt = records[cursor.random.nextInt(size)];
+        boolean occupied = cursor.random.nextBoolean();
+        boolean changed = apt.update(occupied ? "Tenant " + cursor.random.nextInt(1024) : "", 900 + cursor.random.nextInt(600), occupied, "");
+        vacancies.refresh(apt);
+        statistics.refresh(apt);
+        rents.refresh(apt);
+        tenants.refresh(apt);
+        return changed;
+    }
+}
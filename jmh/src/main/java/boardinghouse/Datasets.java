@@ -0,0 +1,107 @@
+package boardinghouse;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+// Deterministic dataset generators shared by the benchmarks. The same size and seed always
+// produce the same records, so results from different releases are comparable.
+final class Datasets {
+    static final long DEFAULT_SEED = 42L;
+    static final int EDITS_PER_SAVE = 10; // a typical session's edits before logout
+    static final int VISIBLE_ROWS = 40; // roughly one screen of table rows
+
+    private static final String[] FIRST_NAMES = {"Alice", "Bob", "Carmen", "Dmitri", "Eve", "Farah", "Gus", "Hana"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Reyes", "Ivanov", "Okafor", "Tanaka", "Berg", "Khan"};
+
+    private Datasets() {
+    }
+
+    // About two thirds occupied; every fourth unit carries a short lease note.
+    static List<Apartment> apartments(int count, long seed) {
+        Random random = new Random(seed);
+        List<Apartment> apartments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            boolean occupied = random.nextInt(3) != 0;
+            String doc = i % 4 == 0 ? "Lease signed.\nDeposit received for unit " + apartmentNumber(i) + "." : "";
+            apartments.add(new Apartment(apartmentNumber(i), occupied ? tenantName(random) : "",
+                    800 + random.nextInt(700), occupied, doc));
+        }
+        return apartments;
+    }
+
+    // About a third of the spots hold a one- to three-day reservation within the next month.
+    static List<ParkingLot> parkingLots(int count, long seed) {
+        Random random = new Random(seed);
+        LocalDate today = LocalDate.now();
+        List<ParkingLot> spots = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (random.nextInt(3) == 0) {
+                LocalDate start = today.plusDays(random.nextInt(30));
+                String dates = start + Reservation.RANGE_SEPARATOR + start.plusDays(random.nextInt(3));
+                spots.add(new ParkingLot(spotNumber(i), true, tenantName(random), dates));
+            } else {
+                spots.add(new ParkingLot(spotNumber(i), false, null, null));
+            }
+        }
+        return spots;
+    }
+
+    // One administrator per hundred users; passwords are derivable via password(i).
+    // Stored hashes use HASH_ITERATIONS, since hashing a million users at full cost takes hours;
+    // benchmarks of the slow path re-hash their own users with Passwords.ITERATIONS.
+    static List<User> users(int count, long seed) {
+        Random random = new Random(seed);
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(new User(username(i), Passwords.hash(password(i), HASH_ITERATIONS), random.nextInt(100) == 0 ? "admin" : "regular"));
+        }
+        return users;
+    }
+
+    static String apartmentNumber(int i) { return "A" + i; }
+    static String spotNumber(int i) { return "S" + i; }
+    static String username(int i) { return "user" + i; }
+    static String password(int i) { return "pw-" + i; }
+
+    static final int HASH_ITERATIONS = 1;
+
+    // A path for a manager's snapshot that does not exist yet; snapshot, journal and blobs are removed on exit.
+    static File scratchFile(String prefix) throws IOException {
+        File file = File.createTempFile(prefix, ".dat");
+        file.delete();
+        file.deleteOnExit();
+        new File(file.getPath().replace(".dat", ".journal")).deleteOnExit();
+        new File(file.getPath().replace(".dat", ".blobs")).deleteOnExit();
+        return file;
+    }
+
+    // Mixed-case keys spread over the dataset; length is a power of two for cheap wrapping.
+    static String[] probes(int size, IntFunction<String> keyOf) {
+        Random random = new Random(DEFAULT_SEED);
+        String[] probes = new String[4096];
+        for (int i = 0; i < probes.length; i++) probes[i] = keyOf.apply(random.nextInt(size)).toLowerCase(Locale.ROOT);
+        return probes;
+    }
+
+    // Reads every cell of the first screen of rows, as the table does when first painted.
+    static long renderVisibleRows(RecordTableModel<?> model) {
+        long chars = 0;
+        int rows = Math.min(VISIBLE_ROWS, model.getRowCount());
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < model.getColumnCount(); column++) {
+                chars += String.valueOf(model.getValueAt(row, column)).length();
+            }
+        }
+        return chars;
+    }
+
+    private static String tenantName(Random random) {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    }
+}
@@ -0,0 +1,125 @@
+package boardinghouse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// ParkingLotManager at each dataset size: lookup, free-on-these-days pages, CSV parsing,
+// add/delete, full and incremental save, load, and rendering one screen of the table.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ParkingBenchmarks {
+    private static final int FREE_PAGE = 100; // rows fetched per free-spot query
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private File file;
+    private ParkingLotManager manager;
+    private String[] csv;
+    private String[] probes;
+    private long today;
+    private int op; // running operation index, for walking the probes
+
+    @Setup
+    public void setUp() throws IOException {
+        List<ParkingLot> data = Datasets.parkingLots(size, Datasets.DEFAULT_SEED);
+        csv = new String[Math.min(size, 4096)];
+        for (int i = 0; i < csv.length; i++) csv[i] = data.get(i).toCsvString();
+        file = Datasets.scratchFile("bench-parking");
+        manager = new ParkingLotManager(file.getPath());
+        manager.addSpots(data);
+        manager.compactParkingLots();
+        probes = Datasets.probes(size, Datasets::spotNumber);
+        today = LocalDate.now().toEpochDay();
+    }
+
+    private String nextProbe() {
+        return probes[op++ & (probes.length - 1)];
+    }
+
+    @Benchmark
+    public boolean find() {
+        return manager.findSpotByNumber(nextProbe()).isPresent();
+    }
+
+    // A page of spots free for a one- to three-day stay within the month the bookings cover.
+    @Benchmark
+    public int freeSpots() {
+        long from = today + op++ % 30;
+        return manager.findFreeSpots(from, from + op % 3, 0, FREE_PAGE).size();
+    }
+
+    @Benchmark
+    public ParkingLot fromCsvString() {
+        return ParkingLot.fromCsvString(csv[op++ % csv.length]);
+    }
+
+    @Benchmark
+    public boolean addDelete() {
+        String number = "NEW" + op++;
+        manager.addSpot(new ParkingLot(number, false, null, null));
+        return manager.deleteSpot(number);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long save() {
+        manager.compactParkingLots();
+        return file.length();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long saveAfterEdits() {
+        for (int i = 0; i < Datasets.EDITS_PER_SAVE; i++) manager.cancelReservation(nextProbe());
+        manager.saveParkingLots();
+        return file.length();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int load() {
+        return new ParkingLotManager(file.getPath()).getAllParkingLots().size();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long renderTable() {
+        RecordTableModel<ParkingLot> model = new RecordTableModel<ParkingLot>("Spot No", "Reserved", "Reserved By", "Reservation Date") {
+            @Override protected String keyOf(ParkingLot spot) { return spot.getSpotNumber(); }
+            @Override protected Object valueAt(ParkingLot spot, int column) {
+                switch (column) {
+                    case 0: return spot.getSpotNumber();
+                    case 1: return spot.isReserved() ? "Yes" : "No";
+                    case 2: return spot.getReservedByTenantName() != null ? spot.getReservedByTenantName() : "N/A";
+                    default: return spot.getReservationDate() != null ? spot.getReservationDate() : "N/A";
+                }
+            }
+        };
+        model.setRecords(manager.getAllParkingLots());
+        return Datasets.renderVisibleRows(model);
+    }
+}
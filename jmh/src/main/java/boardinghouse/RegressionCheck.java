@@ -0,0 +1,65 @@
+package boardinghouse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Compares two JMH JSON result files (-rf json) and lists every benchmark whose score got worse
+// by more than the threshold. Exits with status 1 when there is at least one regression.
+//
+// Run with: gradle :jmh:regressionCheck -Pbaseline=old.json [-Pcurrent=new.json] [-Pthreshold=0.20]
+public final class RegressionCheck {
+    // One result entry: the benchmark name, its parameters (if any), its mode, and the primary score.
+    private static final Pattern ENTRY = Pattern.compile(
+            "\"benchmark\"\\s*:\\s*\"([^\"]+)\".*?\"mode\"\\s*:\\s*\"([^\"]+)\".*?(?:\"params\"\\s*:\\s*\\{([^}]*)\\}.*?)?"
+                    + "\"primaryMetric\"\\s*:\\s*\\{\\s*\"score\"\\s*:\\s*([-0-9.eE]+)", Pattern.DOTALL);
+
+    private RegressionCheck() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: RegressionCheck <baseline.json> <current.json> [threshold]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 0.20;
+        Map<String, Double> baseline = read(args[0]);
+        Map<String, Double> current = read(args[1]);
+
+        int regressions = 0;
+        for (Map.Entry<String, Double> e : current.entrySet()) {
+            Double before = baseline.get(e.getKey());
+            if (before == null || before <= 0) continue;
+            // Every mode the benchmarks use reports time per operation, so higher is worse.
+            double change = (e.getValue() - before) / before;
+            if (change > threshold) {
+                regressions++;
+                System.out.printf(Locale.ROOT, "REGRESSION %-60s %,.3f -> %,.3f (+%.0f%%)%n",
+                        e.getKey(), before, e.getValue(), change * 100);
+            }
+        }
+        System.out.println(regressions == 0 ? "No regressions against " + args[0] : regressions + " regression(s) against " + args[0]);
+        if (regressions > 0) System.exit(1);
+    }
+
+    // Benchmark name plus parameters, e.g. "boardinghouse.ApartmentBenchmarks.find size=1000", to score.
+    private static Map<String, Double> read(String file) throws IOException {
+        String json = new String(Files.readAllBytes(Paths.get(file)), StandardCharsets.UTF_8);
+        Map<String, Double> scores = new LinkedHashMap<>();
+        // Results are a top-level array of objects; split on the benchmark key so one entry's
+        // optional params cannot be confused with the next one's.
+        for (String result : json.split("(?=\\{\\s*\"jmhVersion\")")) {
+            Matcher m = ENTRY.matcher(result);
+            if (!m.find()) continue;
+            String params = m.group(3) == null ? "" : " " + m.group(3).replaceAll("[\"\\s]", "").replace(':', '=');
+            scores.put(m.group(1) + params + " " + m.group(2), Double.parseDouble(m.group(4)));
+        }
+        return scores;
+    }
+}
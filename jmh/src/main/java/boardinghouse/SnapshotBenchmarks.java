@@ -0,0 +1,71 @@
+package boardinghouse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Loading the legacy CSV snapshot against the memory-mapped binary snapshot.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SnapshotBenchmarks {
+    @Param({"100000", "1000000"})
+    public int size;
+
+    private File csv;
+    private File bin;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<Apartment> apartments = Datasets.apartments(size, Datasets.DEFAULT_SEED);
+        csv = File.createTempFile("bench-apartments", ".csv");
+        bin = File.createTempFile("bench-apartments", ".bin");
+        csv.deleteOnExit();
+        bin.deleteOnExit();
+        try (PrintWriter writer = new PrintWriter(new FileWriter(csv))) {
+            for (Apartment apt : apartments) writer.println(apt.toCsvString());
+        }
+        BinarySnapshot.write(bin, apartments, (out, apt) -> apt.writeTo(out));
+    }
+
+    @Benchmark
+    public int loadCsv() throws IOException {
+        List<Apartment> loaded = new ArrayList<>(size);
+        try (BufferedReader reader = new BufferedReader(new FileReader(csv))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Apartment apt = Apartment.fromCsvString(line);
+                if (apt != null) loaded.add(apt);
+            }
+        }
+        return loaded.size();
+    }
+
+    @Benchmark
+    public int loadBinary() throws IOException {
+        List<Apartment> loaded = new ArrayList<>(size);
+        BinarySnapshot.read(bin, in -> Apartment.readFrom(in, null), loaded::add);
+        return loaded.size();
+    }
+}
@@ -0,0 +1,111 @@
+package boardinghouse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// UserManager at each dataset size: cached and full-cost authentication, add/delete, full and
+// incremental save, and load.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class UserBenchmarks {
+    private static final int COLD_LOGINS = 4; // users re-hashed at full cost for authenticateCold
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private File file;
+    private UserManager manager;
+    private int[] probes;
+    private int[] cold;
+    private String passwordHash;
+    private int op; // running operation index, for walking the probes
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Datasets.scratchFile("bench-users");
+        manager = new UserManager(file.getPath());
+        for (User user : Datasets.users(size, Datasets.DEFAULT_SEED)) manager.addUserWithHash(user);
+        manager.compactUsers();
+        probes = new int[4096];
+        Random random = new Random(Datasets.DEFAULT_SEED);
+        for (int i = 0; i < probes.length; i++) probes[i] = random.nextInt(size);
+        // updateUser hashes with the full Passwords.ITERATIONS.
+        cold = new int[COLD_LOGINS];
+        for (int i = 0; i < cold.length; i++) {
+            cold[i] = probes[i];
+            manager.updateUser(new User(Datasets.username(cold[i]), Datasets.password(cold[i]), "regular"));
+        }
+        passwordHash = Passwords.hash("pw", Datasets.HASH_ITERATIONS);
+    }
+
+    private int nextProbe() {
+        return probes[op++ & (probes.length - 1)];
+    }
+
+    // After warmup every probe has been verified once, so this is the credential cache path.
+    @Benchmark
+    public String authenticate() {
+        int i = nextProbe();
+        return manager.authenticate(Datasets.username(i), Datasets.password(i));
+    }
+
+    // A full-cost PBKDF2 check on every call.
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public String authenticateCold() {
+        manager.clearCredentialCache();
+        int i = cold[op++ % cold.length];
+        return manager.authenticate(Datasets.username(i), Datasets.password(i));
+    }
+
+    @Benchmark
+    public boolean addDelete() {
+        String name = "new-user-" + op++;
+        manager.addUserWithHash(new User(name, passwordHash, "regular"));
+        return manager.deleteUser(name);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long save() {
+        manager.compactUsers();
+        return file.length();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long saveAfterEdits() {
+        for (int i = 0; i < Datasets.EDITS_PER_SAVE; i++) {
+            manager.updateRole(Datasets.username(nextProbe()), "regular");
+        }
+        manager.saveUsers();
+        return file.length();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int load() {
+        return new UserManager(file.getPath()).getAllUsers().size();
+    }
+}
@@ -0,0 +1,263 @@
+package boardinghouse;
+
+import java.io.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Represents an Apartment object with its properties.
+// The mutable fields live in an immutable State that is swapped with compare-and-set,
+// so readers always see a consistent record and bookings need no lock.
+// Once the apartment belongs to a manager its document body lives in the manager's BlobStore and
+// the record only keeps the body's handle and a has-content bit; the text is read on demand.
+class Apartment implements Serializable {
+    private String apartmentNumber;
+    private final AtomicReference<State> state;
+    private volatile transient BlobStore blobs; // set by storeDocument
+
+    public Apartment(String apartmentNumber, String tenantName, double rent, boolean occupied, String documentContent) {
+        this.apartmentNumber = apartmentNumber;
+        this.state = new AtomicReference<>(State.inline(tenantName, rent, occupied, documentContent, 0L, false));
+    }
+
+    private Apartment(String apartmentNumber, State state, BlobStore blobs) {
+        this.apartmentNumber = apartmentNumber;
+        this.state = new AtomicReference<>(state);
+        this.blobs = blobs;
+    }
+
+    // Getters & Setters
+    public String getApartmentNumber() { return apartmentNumber; }
+    public String getTenantName() { return state.get().tenantName; }
+    public double getRent() { return state.get().rent; }
+    public boolean isOccupied() { return state.get().occupied; }
+    public String getDocumentContent() { return documentOf(state.get()); }
+    public boolean hasDocument() { return state.get().hasDocument; }
+    public long getVersion() { return state.get().version; }
+    public boolean isRemoved() { return state.get().removed; }
+    public void setTenantName(String tenantName) { update(s -> s.with(tenantName, s.rent, s.occupied)); }
+    public void setRent(double rent) { update(s -> s.with(s.tenantName, rent, s.occupied)); }
+    public void setOccupied(boolean occupied) { update(s -> s.with(s.tenantName, s.rent, occupied)); }
+    public void setDocumentContent(String documentContent) {
+        update(s -> State.inline(s.tenantName, s.rent, s.occupied, documentContent, s.version + 1, false));
+    }
+
+    // Detached copy of the apartment as it is now, for change events. It shares the immutable
+    // state, so it costs one small object and the document is only read if asked for.
+    Apartment snapshot() {
+        return new Apartment(apartmentNumber, state.get(), blobs);
+    }
+
+    // Handle of the stored document body, or null when there is none or it is still in memory.
+    BlobStore.Handle getDocumentHandle() { return state.get().documentHandle; }
+
+    // Replaces every mutable field in one atomic step. Returns false if the apartment was removed.
+    boolean update(String tenantName, double rent, boolean occupied, String documentContent) {
+        return update(s -> State.inline(tenantName, rent, occupied, documentContent, s.version + 1, false));
+    }
+
+    private boolean update(java.util.function.UnaryOperator<State> change) {
+        while (true) {
+            State current = state.get();
+            if (current.removed) return false;
+            if (state.compareAndSet(current, change.apply(current))) return true;
+        }
+    }
+
+    // Moves an in-memory document body into the store, leaving only its handle on the heap.
+    // Called by the owning manager; the version does not change since the content does not.
+    void storeDocument(BlobStore store) {
+        blobs = store;
+        while (true) {
+            State current = state.get();
+            if (current.inlineDocument == null) return;
+            BlobStore.Handle handle = current.inlineDocument.isEmpty() ? null : store.put(current.inlineDocument);
+            if (handle == null && !current.inlineDocument.isEmpty()) return; // write failed; keep it in memory
+            try {
+                if (state.compareAndSet(current, current.withHandle(handle))) return;
+            } finally {
+                store.unpin(handle); // adopted, or superseded by a newer state
+            }
+        }
+    }
+
+    private String documentOf(State s) {
+        if (s.documentHandle == null) return s.inlineDocument != null ? s.inlineDocument : "";
+        String text = blobs != null ? blobs.get(s.documentHandle) : null;
+        return text != null ? text : "";
+    }
+
+    // Atomically books the apartment for a tenant. Exactly one of any number of racing callers
+    // gets true; everyone else sees the apartment already occupied (or removed) and gets false.
+    boolean claim(String tenantName) {
+        while (true) {
+            State current = state.get();
+            if (current.removed || current.occupied) return false;
+            if (state.compareAndSet(current, current.with(tenantName, current.rent, true))) return true;
+        }
+    }
+
+    // Terminal state set by the manager on delete so late claims cannot resurrect the record.
+    void markRemoved() {
+        while (true) {
+            State current = state.get();
+            if (current.removed) return;
+            if (state.compareAndSet(current, current.removed())) return;
+        }
+    }
+
+    @Override
+    public String toString() {
+        State s = state.get();
+        String status = s.occupied ? "Occupied" : "Available";
+        String contentInfo = s.hasDocument ? "Content: Yes" : "Content: No";
+        return String.format("Apt No: %s | Tenant: %s | Rent: $%.2f | Status: %s | %s",
+                apartmentNumber, s.tenantName, s.rent, status, contentInfo);
+    }
+
+    public String toCsvString() {
+        return toCsvString(state.get());
+    }
+
+    // CSV line for the current state with the document text inline, or null once the apartment
+    // has been removed; used for exports.
+    String toExportCsv() {
+        State s = state.get();
+        return s.removed ? null : toCsvString(s);
+    }
+
+    // Journal payload (a Journal.PUT_REF entry) for the current state, or null once the apartment
+    // has been removed. A stored document is logged as its blob handle, so an edit costs a line,
+    // not another copy of the text: "<csv fields>,#<has content 0|1><handle>". A body still in
+    // memory is logged as "=<text>", and no document as an empty field.
+    String toJournalEntry() {
+        State s = state.get();
+        if (s.removed) return null;
+        String document;
+        if (s.documentHandle != null) {
+            document = "#" + (s.hasDocument ? '1' : '0') + s.documentHandle;
+        } else if (s.inlineDocument != null && !s.inlineDocument.isEmpty()) {
+            document = "=" + s.inlineDocument.replace("\n", "\\n").replace("\r", "");
+        } else {
+            document = "";
+        }
+        return String.join(",", apartmentNumber, s.tenantName, String.valueOf(s.rent), String.valueOf(s.occupied), document);
+    }
+
+    // Reads a Journal.PUT_REF payload; handles resolve against blobs. Null if it is malformed.
+    static Apartment fromJournalEntry(String entry, BlobStore blobs) {
+        String[] parts = entry.split(",", 5);
+        if (parts.length != 5) return null;
+        try {
+            double rent = Double.parseDouble(parts[2]);
+            boolean occupied = Boolean.parseBoolean(parts[3]);
+            String document = parts[4];
+            if (document.startsWith("#") && document.length() == 34) {
+                BlobStore.Handle handle = new BlobStore.Handle(Long.parseUnsignedLong(document.substring(2, 18), 16),
+                        Long.parseUnsignedLong(document.substring(18), 16));
+                return new Apartment(parts[0], new State(parts[1], rent, occupied, null, handle, document.charAt(1) == '1', 0L, false), blobs);
+            }
+            String text = document.startsWith("=") ? document.substring(1).replace("\\n", "\n") : "";
+            return new Apartment(parts[0], parts[1], rent, occupied, text);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private String toCsvString(State s) {
+        String safeDocumentContent = documentOf(s).replace("\n", "\\n").replace("\r", "");
+        return String.join(",", apartmentNumber, s.tenantName, String.valueOf(s.rent),
+                String.valueOf(s.occupied), safeDocumentContent);
+    }
+
+    // Snapshot v3 writes the document as a blob handle when it has been stored, inline otherwise.
+    public void writeTo(DataOutputStream out) throws IOException {
+        State s = state.get();
+        BinarySnapshot.writeString(out, apartmentNumber);
+        BinarySnapshot.writeString(out, s.tenantName);
+        out.writeDouble(s.rent);
+        out.writeBoolean(s.occupied);
+        if (s.documentHandle != null) {
+            out.writeByte(DOCUMENT_HANDLE);
+            out.writeBoolean(s.hasDocument);
+            out.writeLong(s.documentHandle.high);
+            out.writeLong(s.documentHandle.low);
+        } else if (s.inlineDocument != null && !s.inlineDocument.isEmpty()) {
+            out.writeByte(DOCUMENT_INLINE);
+            BinarySnapshot.writeString(out, s.inlineDocument);
+        } else {
+            out.writeByte(DOCUMENT_NONE);
+        }
+    }
+
+    // Handles in the snapshot resolve against blobs; older snapshots carry the text inline.
+    public static Apartment readFrom(BinarySnapshot.Cursor in, BlobStore blobs) {
+        String number = in.readString();
+        String tenant = in.readString();
+        double rent = in.readDouble();
+        boolean occupied = in.readBoolean();
+        if (in.getVersion() < 3) return new Apartment(number, tenant, rent, occupied, in.readString());
+        byte kind = in.readByte();
+        if (kind == DOCUMENT_HANDLE) {
+            boolean hasDocument = in.readBoolean();
+            BlobStore.Handle handle = new BlobStore.Handle(in.readLong(), in.readLong());
+            return new Apartment(number, new State(tenant, rent, occupied, null, handle, hasDocument, 0L, false), blobs);
+        }
+        return new Apartment(number, tenant, rent, occupied, kind == DOCUMENT_INLINE ? in.readString() : "");
+    }
+
+    public static Apartment fromCsvString(String csv) {
+        String[] parts = csv.split(",", 5);
+        if (parts.length != 5) return null;
+        try {
+            return new Apartment(parts[0], parts[1], Double.parseDouble(parts[2]), Boolean.parseBoolean(parts[3]), parts[4].replace("\\n", "\n"));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static final byte DOCUMENT_NONE = 0;
+    private static final byte DOCUMENT_HANDLE = 1;
+    private static final byte DOCUMENT_INLINE = 2;
+
+    // The document is either inline text (not yet stored) or a blob handle, never both.
+    private static final class State implements Serializable {
+        private static final long serialVersionUID = 1L;
+        final String tenantName;
+        final double rent;
+        final boolean occupied;
+        final String inlineDocument;
+        final BlobStore.Handle documentHandle;
+        final boolean hasDocument;
+        final long version;
+        final boolean removed;
+
+        State(String tenantName, double rent, boolean occupied, String inlineDocument,
+              BlobStore.Handle documentHandle, boolean hasDocument, long version, boolean removed) {
+            this.tenantName = tenantName;
+            this.rent = rent;
+            this.occupied = occupied;
+            this.inlineDocument = inlineDocument;
+            this.documentHandle = documentHandle;
+            this.hasDocument = hasDocument;
+            this.version = version;
+            this.removed = removed;
+        }
+
+        static State inline(String tenantName, double rent, boolean occupied, String document, long version, boolean removed) {
+            String text = document != null ? document : "";
+            return new State(tenantName, rent, occupied, text, null, !text.trim().isEmpty(), version, removed);
+        }
+
+        // Same document, new tenant/rent/occupancy, next version.
+        State with(String tenantName, double rent, boolean occupied) {
+            return new State(tenantName, rent, occupied, inlineDocument, documentHandle, hasDocument, version + 1, removed);
+        }
+
+        State withHandle(BlobStore.Handle handle) {
+            return new State(tenantName, rent, occupied, null, handle, hasDocument, version, removed);
+        }
+
+        State removed() {
+            return new State(tenantName, rent, occupied, inlineDocument, documentHandle, hasDocument, version + 1, true);
+        }
+    }
+}
@@ -0,0 +1,1666 @@
+package boardinghouse;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.*;
+import java.time.LocalDate; // For date handling, though we'll start with String for simplicity
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * The main GUI class for the Apartment Management System.
+ * This class should be public to be the main entry point.
+ */
+class ApartmentManagementGUI extends JFrame {
+    private ApartmentManager apartmentManager;
+    private UserManager userManager;
+    private ParkingLotManager parkingLotManager; // NEW: Parking Lot Manager
+    private final transient Session session; // permissions are checked against its bitmask
+    private String currentUsername;
+
+    // GUI Components
+    private JTabbedPane mainTabbedPane;
+    private JTextField aptNumberField, tenantNameField, rentField, userUsernameField;
+    private JPasswordField userPasswordField;
+    private JCheckBox occupiedCheckBox, availableApartmentsOnlyCheckBox;
+    private JTextArea documentContentArea;
+    private JTextField documentSearchField;
+    private static final int DOCUMENT_SEARCH_LIMIT = 500; // rows shown for a document search
+    private JTextField rentFromField, rentToField;
+    private JButton nextRentPageButton;
+    private String rentFilterCursor; // where the next page of the rent filter starts; null at the end
+    private static final int RENT_FILTER_PAGE_SIZE = 500;
+    private static final int FIND_LIMIT = 1_000; // rows shown for a find-as-you-type query
+    private static final int FIND_DEBOUNCE_MILLIS = 150;
+    private JComboBox<String> userRoleComboBox;
+    private JButton addButton, updateButton, deleteButton, listApartmentsButton, bookApartmentButton;
+    private JButton addUserButton, updateUserButton, deleteUserButton, listUsersButton;
+    private JTable apartmentTable, userTable;
+    private RecordTableModel<Apartment> apartmentTableModel;
+    private RecordTableModel<User> userTableModel;
+    private JLabel apartmentMessageLabel, userMessageLabel;
+
+    // NEW: Parking Lot GUI Components
+    private JTextField spotNumberField, reservedByTenantNameField, reservationDateField;
+    private JCheckBox isReservedCheckBox, availableSpotsOnlyCheckBox;
+    private JButton addSpotButton, reserveSpotButton, cancelReservationButton, deleteSpotButton, refreshParkingListButton;
+    private JTable parkingTable;
+    private RecordTableModel<ParkingLot> parkingTableModel;
+    private JLabel parkingMessageLabel;
+
+    // Background load/save state
+    private static final int LOAD_CHUNK_SIZE = 5_000;
+    private JProgressBar progressBar;
+    private JButton logoutButton;
+    private boolean busy;
+    private final transient Map<AbstractButton, Boolean> suspendedButtons = new HashMap<>();
+
+    // Change events from the managers keep the tables, dashboard and tenant tab current. Events that
+    // arrive while the initial load is still filling the tables wait until it is done.
+    private final transient List<ChangeBus.Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private boolean loadingData;
+    private final transient List<ChangeBus.Change<Apartment>> deferredApartmentChanges = new ArrayList<>();
+    private final transient List<ChangeBus.Change<ParkingLot>> deferredParkingChanges = new ArrayList<>();
+    private transient Runnable refreshDashboard;
+    private transient Runnable refreshTenantPanel;
+    private JPanel tenantPanel;
+
+    public ApartmentManagementGUI(Session session, UserManager userManager) {
+        this.session = session;
+        this.currentUsername = session.username;
+        this.userManager = userManager;
+        // Apartment and parking managers come from the shared DataRepository via loadDataInBackground()
+
+        setTitle("Apartment Management System - Logged in as: " + currentUsername + " (" + session.role + ")");
+        setSize(1000, 700);
+        setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE); // Changed for custom close handling
+        setLocationRelativeTo(null);
+        setLayout(new BorderLayout());
+
+        // Custom window closing behavior
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                // Delegate to the logout logic for consistency
+                performLogout();
+            }
+        });
+
+        // --- Header Panel (for title and logout button) ---
+        JPanel headerPanel = new JPanel(new BorderLayout());
+        JLabel titleLabel = new JLabel("Apartment Management System", SwingConstants.CENTER);
+        titleLabel.setFont(new Font("Arial", Font.BOLD, 18));
+        headerPanel.add(titleLabel, BorderLayout.CENTER);
+
+        logoutButton = new JButton("Log Out");
+        logoutButton.addActionListener(e -> performLogout());
+
+        JPanel logoutPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT)); // Align button to the right
+        logoutPanel.add(logoutButton);
+        headerPanel.add(logoutPanel, BorderLayout.EAST);
+        progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        progressBar.setVisible(false);
+        headerPanel.add(progressBar, BorderLayout.SOUTH);
+        headerPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10)); // Padding for header
+        add(headerPanel, BorderLayout.NORTH); // Add header to the top of the frame
+
+        // --- Main Tabbed Pane ---
+        mainTabbedPane = new JTabbedPane();
+        mainTabbedPane.addTab("Apartment Management", createApartmentManagementPanel());
+        mainTabbedPane.addTab("Parking Management", createParkingManagementPanel()); // NEW: Add Parking tab
+
+        mainTabbedPane.addTab("My Units & Spots", createTenantPanel());
+
+        if (session.can(Permissions.MANAGE_USERS)) {
+            mainTabbedPane.addTab("User Management", createUserManagementPanel());
+        }
+        if (session.can(Permissions.MANAGE_APARTMENTS)) {
+            mainTabbedPane.addTab("Dashboard", createDashboardPanel());
+        }
+
+        add(mainTabbedPane, BorderLayout.CENTER); // Main content (tabs) in the center
+
+        // Users are already in memory from the login screen; the rest streams in from disk.
+        if (session.can(Permissions.MANAGE_USERS)) {
+            subscriptions.add(userManager.events().subscribeOnEdt(this::onUserChanges));
+            listAllUsers();
+        }
+        loadDataInBackground();
+    }
+
+    @Override
+    public void dispose() {
+        for (ChangeBus.Subscription subscription : subscriptions) subscription.cancel();
+        subscriptions.clear();
+        super.dispose();
+    }
+
+    // Reads apartments and parking spots on a worker thread and fills the tables chunk by chunk.
+    // Each manager is subscribed to before its snapshot is taken, so no change falls between the two.
+    private void loadDataInBackground() {
+        setBusy(true, "Loading apartments...");
+        loadingData = true;
+        List<ChangeBus.Subscription> loaderSubscriptions = new CopyOnWriteArrayList<>();
+        SwingWorker<Void, Runnable> loader = new SwingWorker<Void, Runnable>() {
+            @Override
+            protected Void doInBackground() {
+                ApartmentManager apartments = DataRepository.get().apartments();
+                publish(() -> apartmentManager = apartments);
+                subscribe(apartments.events().subscribeOnEdt(ApartmentManagementGUI.this::onApartmentChanges));
+                publishInChunks(apartments.getAllApartments(), apartmentTableModel::recordsAppended);
+                setProgress(50);
+                publish(() -> progressBar.setString("Loading parking spots..."));
+
+                ParkingLotManager parking = DataRepository.get().parkingLots();
+                publish(() -> parkingLotManager = parking);
+                subscribe(parking.events().subscribeOnEdt(ApartmentManagementGUI.this::onParkingChanges));
+                publishInChunks(parking.getAllParkingLots(), parkingTableModel::recordsAppended);
+                setProgress(100);
+                return null;
+            }
+
+            private void subscribe(ChangeBus.Subscription subscription) {
+                loaderSubscriptions.add(subscription);
+                subscriptions.add(subscription);
+            }
+
+            private <T> void publishInChunks(List<T> records, Consumer<List<T>> sink) {
+                for (int from = 0; from < records.size(); from += LOAD_CHUNK_SIZE) {
+                    List<T> chunk = records.subList(from, Math.min(records.size(), from + LOAD_CHUNK_SIZE));
+                    publish(() -> sink.accept(chunk));
+                }
+            }
+
+            @Override
+            protected void process(List<Runnable> steps) {
+                steps.forEach(Runnable::run);
+            }
+
+            @Override
+            protected void done() {
+                loadingData = false;
+                try {
+                    get();
+                } catch (InterruptedException | ExecutionException ex) {
+                    loadFailed(ex, loaderSubscriptions);
+                    return;
+                }
+                setBusy(false, null);
+                // Changes that raced the snapshot are already in it; applying them again is harmless.
+                onApartmentChanges(new ArrayList<>(deferredApartmentChanges));
+                onParkingChanges(new ArrayList<>(deferredParkingChanges));
+                deferredApartmentChanges.clear();
+                deferredParkingChanges.clear();
+                displayApartmentMessage("Loaded " + apartmentTableModel.getRowCount() + " apartments.");
+                displayParkingMessage("Loaded " + parkingTableModel.getRowCount() + " parking spots.");
+                buildFindersInBackground();
+            }
+        };
+        loader.addPropertyChangeListener(e -> {
+            if ("progress".equals(e.getPropertyName())) progressBar.setValue((Integer) e.getNewValue());
+        });
+        loader.execute();
+    }
+
+    // Every action needs both managers, so after a failed load the action buttons stay suspended
+    // and only logout works. The partial load is undone, so a retry starts from empty tables.
+    private void loadFailed(Exception ex, List<ChangeBus.Subscription> loaderSubscriptions) {
+        for (ChangeBus.Subscription subscription : loaderSubscriptions) {
+            subscription.cancel();
+            subscriptions.remove(subscription);
+        }
+        deferredApartmentChanges.clear();
+        deferredParkingChanges.clear();
+        apartmentTableModel.setRecords(new ArrayList<>());
+        parkingTableModel.setRecords(new ArrayList<>());
+        busy = false;
+        progressBar.setVisible(false);
+        setCursor(Cursor.getDefaultCursor());
+        logoutButton.setEnabled(true);
+        displayApartmentMessage("Data could not be loaded.");
+        displayParkingMessage("Data could not be loaded.");
+        int retry = JOptionPane.showConfirmDialog(this, "Failed to load data: " + ex.getMessage() + "\nTry again?",
+                "Load Error", JOptionPane.YES_NO_OPTION, JOptionPane.ERROR_MESSAGE);
+        if (retry == JOptionPane.YES_OPTION) {
+            setBusy(false, null); // restore the buttons; loading suspends them again
+            loadDataInBackground();
+        }
+    }
+
+    // Change handlers; they run on the EDT, at most once per frame per manager.
+    private void onApartmentChanges(List<ChangeBus.Change<Apartment>> changes) {
+        if (loadingData) {
+            deferredApartmentChanges.addAll(changes);
+            return;
+        }
+        if (changes.isEmpty()) return;
+        apartmentTableModel.applyChanges(changes, apt -> !availableApartmentsOnlyCheckBox.isSelected() || !apt.isOccupied());
+        refreshSummaries();
+    }
+
+    private void onParkingChanges(List<ChangeBus.Change<ParkingLot>> changes) {
+        if (loadingData) {
+            deferredParkingChanges.addAll(changes);
+            return;
+        }
+        if (changes.isEmpty()) return;
+        parkingTableModel.applyChanges(changes, spot -> !availableSpotsOnlyCheckBox.isSelected() || !spot.isReserved());
+        refreshSummaries();
+    }
+
+    private void onUserChanges(List<ChangeBus.Change<User>> changes) {
+        userTableModel.applyChanges(changes, user -> true);
+    }
+
+    private void refreshSummaries() {
+        if (refreshDashboard != null) refreshDashboard.run();
+        if (refreshTenantPanel != null && mainTabbedPane.getSelectedComponent() == tenantPanel) refreshTenantPanel.run();
+    }
+
+    // Builds the find-as-you-type indexes once the records are in, so the first keystroke in a
+    // find field doesn't pay for indexing.
+    private void buildFindersInBackground() {
+        ApartmentManager apartments = apartmentManager;
+        ParkingLotManager parking = parkingLotManager;
+        boolean includeUsers = session.can(Permissions.MANAGE_USERS);
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() {
+                apartments.buildFinder();
+                parking.buildFinder();
+                if (includeUsers) userManager.buildFinder();
+                return null;
+            }
+        }.execute();
+    }
+
+    // Writes all snapshots on a worker thread, then runs afterSave or, if the save failed,
+    // onFailure on the EDT. A manager that never loaded has nothing to save and is skipped.
+    private void saveInBackground(Runnable afterSave, Consumer<Exception> onFailure) {
+        setBusy(true, "Saving apartments...");
+        boolean includeUsers = session.can(Permissions.MANAGE_USERS);
+        ApartmentManager apartments = apartmentManager;
+        ParkingLotManager parking = parkingLotManager;
+        SwingWorker<Void, String> saver = new SwingWorker<Void, String>() {
+            @Override
+            protected Void doInBackground() {
+                if (apartments != null) apartments.saveApartments();
+                setProgress(includeUsers ? 33 : 50);
+                publish("Saving parking spots...");
+                if (parking != null) parking.saveParkingLots(); // NEW: Save parking data
+                if (includeUsers) {
+                    setProgress(66);
+                    publish("Saving users...");
+                    userManager.saveUsers();
+                }
+                setProgress(100);
+                return null;
+            }
+
+            @Override
+            protected void process(List<String> stages) {
+                progressBar.setString(stages.get(stages.size() - 1));
+            }
+
+            @Override
+            protected void done() {
+                setBusy(false, null);
+                try {
+                    get();
+                } catch (InterruptedException | ExecutionException ex) {
+                    onFailure.accept(ex);
+                    return;
+                }
+                afterSave.run();
+            }
+        };
+        saver.addPropertyChangeListener(e -> {
+            if ("progress".equals(e.getPropertyName())) progressBar.setValue((Integer) e.getNewValue());
+        });
+        saver.execute();
+    }
+
+    // Shows the progress bar and disables every action button while a load or save is running.
+    // Buttons are restored to the state they had before, so role-based disabling is preserved.
+    private void setBusy(boolean busy, String message) {
+        this.busy = busy;
+        progressBar.setVisible(busy);
+        progressBar.setValue(0);
+        progressBar.setString(message);
+        if (busy) {
+            suspendButtons(mainTabbedPane);
+            suspendedButtons.put(logoutButton, logoutButton.isEnabled());
+            logoutButton.setEnabled(false);
+            setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        } else {
+            suspendedButtons.forEach(AbstractButton::setEnabled);
+            suspendedButtons.clear();
+            setCursor(Cursor.getDefaultCursor());
+        }
+    }
+
+    private void suspendButtons(Container container) {
+        for (Component child : container.getComponents()) {
+            if (child instanceof AbstractButton) {
+                AbstractButton button = (AbstractButton) child;
+                suspendedButtons.put(button, button.isEnabled());
+                button.setEnabled(false);
+            } else if (child instanceof Container) {
+                suspendButtons((Container) child);
+            }
+        }
+    }
+
+    // Every edit is already journaled and autosaved, so there is nothing to choose: logging out
+    // flushes whatever autosave has not written yet and waits for it before closing the session.
+    // If that save fails (e.g. the disk is full) the user may still log out, losing what was not
+    // written, rather than being stuck in the window.
+    private void performLogout() {
+        if (busy) return; // Window close while loading or saving; wait for it to finish
+        int confirm = JOptionPane.showConfirmDialog(ApartmentManagementGUI.this,
+                "Log out?", "Log Out", JOptionPane.OK_CANCEL_OPTION);
+        if (confirm != JOptionPane.OK_OPTION) return;
+        saveInBackground(this::closeSession, ex -> {
+            Object[] options = {"Log Out Without Saving", "Stay Logged In"};
+            int choice = JOptionPane.showOptionDialog(this,
+                    "Failed to save data: " + ex.getMessage() + "\nChanges that were not saved will be lost if you log out.",
+                    "Save Error", JOptionPane.DEFAULT_OPTION, JOptionPane.ERROR_MESSAGE, null, options, options[1]);
+            if (choice == 0) closeSession();
+        });
+    }
+
+    private void closeSession() {
+        SessionManager.get().close(session.token);
+        dispose(); // Close current GUI
+        SwingUtilities.invokeLater(() -> new LoginScreen().setVisible(true)); // Open login screen
+    }
+
+
+    private JPanel createApartmentManagementPanel() {
+        JPanel panel = new JPanel(new BorderLayout(15, 15));
+        panel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+
+        // Create a container for the top section (details input + document content + message)
+        JPanel topSectionPanel = new JPanel(new BorderLayout(10, 10)); // Use BorderLayout for top section
+
+        // Top form panel
+        JPanel detailsInputPanel = new JPanel(new GridLayout(4, 2, 10, 10));
+        detailsInputPanel.setBorder(BorderFactory.createTitledBorder("Apartment Details"));
+        aptNumberField = new JTextField(10);
+        tenantNameField = new JTextField(20);
+        rentField = new JTextField(10);
+        occupiedCheckBox = new JCheckBox("Occupied");
+
+        // Add components to the details input panel
+        detailsInputPanel.add(new JLabel("Apartment Number:"));
+        detailsInputPanel.add(aptNumberField);
+        detailsInputPanel.add(new JLabel("Tenant Name:"));
+        detailsInputPanel.add(tenantNameField);
+        detailsInputPanel.add(new JLabel("Rent:"));
+        detailsInputPanel.add(rentField);
+
+        // Create a separate panel for the occupied checkbox to control its layout
+        // Add a top border to push the content down slightly
+        JPanel occupiedPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        occupiedPanel.setBorder(BorderFactory.createEmptyBorder(5, 0, 0, 0)); // Top padding of 5 pixels
+        occupiedPanel.add(occupiedCheckBox);
+
+        JLabel statusLabel = new JLabel("Status:");
+        statusLabel.setBorder(BorderFactory.createEmptyBorder(5, 0, 0, 0)); // Top padding for the label too
+
+        detailsInputPanel.add(statusLabel);
+        detailsInputPanel.add(occupiedPanel); // Add the panel with the checkbox
+
+        topSectionPanel.add(detailsInputPanel, BorderLayout.NORTH); // Add detailsInputPanel to topSectionPanel's NORTH
+
+        // Center text area
+        JPanel centerPanel = new JPanel(new BorderLayout(10, 10)); // This was the previous centerPanel
+        documentContentArea = new JTextArea(8, 30);
+        documentContentArea.setLineWrap(true);
+        documentContentArea.setWrapStyleWord(true);
+        JScrollPane docScrollPane = new JScrollPane(documentContentArea);
+        docScrollPane.setBorder(BorderFactory.createTitledBorder("Apartment Document Content"));
+        centerPanel.add(docScrollPane, BorderLayout.CENTER);
+        apartmentMessageLabel = new JLabel("System messages will appear here.", SwingConstants.CENTER);
+        apartmentMessageLabel.setForeground(Color.BLUE);
+        centerPanel.add(apartmentMessageLabel, BorderLayout.SOUTH);
+
+        topSectionPanel.add(centerPanel, BorderLayout.CENTER); // Add this centerPanel to topSectionPanel's CENTER
+
+        panel.add(topSectionPanel, BorderLayout.NORTH); // Add the combined topSectionPanel to main panel's NORTH
+
+
+        // Bottom panel with table and buttons
+        JPanel bottomPanel = new JPanel(new BorderLayout(10, 10));
+
+        // Full-text search over the apartment documents
+        JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 0));
+        documentSearchField = new JTextField(30);
+        JButton searchDocumentsButton = new JButton("Search Documents");
+        searchPanel.add(new JLabel("Search documents:"));
+        searchPanel.add(documentSearchField);
+        searchPanel.add(searchDocumentsButton);
+
+        // Rent range filter, served a page at a time from the rent index
+        rentFromField = new JTextField(7);
+        rentToField = new JTextField(7);
+        JButton filterByRentButton = new JButton("Filter by Rent");
+        nextRentPageButton = new JButton("Next Page");
+        nextRentPageButton.setEnabled(false);
+        searchPanel.add(new JLabel("Rent from:"));
+        searchPanel.add(rentFromField);
+        searchPanel.add(new JLabel("to:"));
+        searchPanel.add(rentToField);
+        searchPanel.add(filterByRentButton);
+        searchPanel.add(nextRentPageButton);
+        documentSearchField.addActionListener(e -> searchApartmentDocuments());
+        searchDocumentsButton.addActionListener(e -> searchApartmentDocuments());
+        rentFromField.addActionListener(e -> filterApartmentsByRent(null));
+        rentToField.addActionListener(e -> filterApartmentsByRent(null));
+        filterByRentButton.addActionListener(e -> filterApartmentsByRent(null));
+        nextRentPageButton.addActionListener(e -> filterApartmentsByRent(rentFilterCursor));
+
+        apartmentTableModel = new RecordTableModel<Apartment>("Apt No", "Tenant", "Rent", "Status", "Document Info") {
+            @Override protected String keyOf(Apartment apt) { return apt.getApartmentNumber(); }
+            @Override protected Object valueAt(Apartment apt, int column) {
+                switch (column) {
+                    case 0: return apt.getApartmentNumber();
+                    case 1: return apt.getTenantName();
+                    case 2: return String.format("%.2f", apt.getRent());
+                    case 3: return apt.isOccupied() ? "Occupied" : "Available";
+                    default: return apt.hasDocument() ? "Yes" : "No";
+                }
+            }
+        };
+        apartmentTable = new JTable(apartmentTableModel);
+        apartmentTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        JScrollPane listScrollPane = new JScrollPane(apartmentTable);
+        listScrollPane.setBorder(BorderFactory.createTitledBorder("Apartment List"));
+        bottomPanel.add(listScrollPane, BorderLayout.CENTER); // Table will now take center space of this bottom panel
+
+        // Find-as-you-type over numbers and tenants, above the document and rent filters
+        JPanel filtersPanel = new JPanel(new GridLayout(2, 1, 0, 5));
+        filtersPanel.add(findPanel(createFindField(() -> {
+            ApartmentManager manager = apartmentManager;
+            if (manager == null || loadingData) return null;
+            endRentFilter();
+            return query -> manager.findApartments(query, FIND_LIMIT);
+        }, apartmentTableModel, this::listAllApartments, this::displayApartmentMessage), "Find apartment or tenant:"));
+        filtersPanel.add(searchPanel);
+        bottomPanel.add(filtersPanel, BorderLayout.NORTH);
+
+        JPanel bottomButtonsPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 15, 10));
+        addButton = new JButton("Add Apartment");
+        updateButton = new JButton("Update Apartment");
+        deleteButton = new JButton("Delete Apartment");
+        listApartmentsButton = new JButton("Refresh List");
+        bookApartmentButton = new JButton("Book Apartment");
+        JButton clearApartmentFieldsButton = new JButton("Clear Fields");
+        JButton adjustRentButton = new JButton("Adjust Rent...");
+        JButton importApartmentsButton = new JButton("Import...");
+        JButton exportApartmentsButton = new JButton("Export...");
+        availableApartmentsOnlyCheckBox = new JCheckBox("Show available only");
+
+        bottomButtonsPanel.add(addButton);
+        bottomButtonsPanel.add(updateButton);
+        bottomButtonsPanel.add(deleteButton);
+        bottomButtonsPanel.add(listApartmentsButton);
+        if (session.can(Permissions.BOOK_APARTMENT)) {
+            bottomButtonsPanel.add(bookApartmentButton);
+        }
+        bottomButtonsPanel.add(clearApartmentFieldsButton);
+        if (session.can(Permissions.MANAGE_APARTMENTS)) {
+            bottomButtonsPanel.add(adjustRentButton);
+            bottomButtonsPanel.add(importApartmentsButton);
+            bottomButtonsPanel.add(exportApartmentsButton);
+        }
+        bottomButtonsPanel.add(availableApartmentsOnlyCheckBox);
+        bottomPanel.add(bottomButtonsPanel, BorderLayout.SOUTH); // Buttons will be at the bottom of this bottom panel
+
+        panel.add(bottomPanel, BorderLayout.CENTER); // Main panel now has topSection in NORTH and bottomPanel (with table) in CENTER
+
+        // Action Listeners
+        addButton.addActionListener(e -> addApartment());
+        updateButton.addActionListener(e -> updateApartment());
+        deleteButton.addActionListener(e -> deleteApartment());
+        listApartmentsButton.addActionListener(e -> listAllApartments());
+        bookApartmentButton.addActionListener(e -> bookApartment());
+        clearApartmentFieldsButton.addActionListener(e -> clearApartmentFields());
+        adjustRentButton.addActionListener(e -> adjustListedRents());
+        importApartmentsButton.addActionListener(e -> importFile("apartments",
+                (file, progress) -> BulkTransfer.importApartments(file, apartmentManager, progress)));
+        exportApartmentsButton.addActionListener(e -> exportFile("apartments",
+                file -> BulkTransfer.exportApartments(file, apartmentManager)));
+        availableApartmentsOnlyCheckBox.addActionListener(e -> listAllApartments());
+        apartmentTable.getSelectionModel().addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting() && apartmentTable.getSelectedRow() != -1) {
+                loadApartmentDetailsFromTable();
+            }
+        });
+
+        // Permissions
+        if (!session.can(Permissions.MANAGE_APARTMENTS)) {
+            addButton.setEnabled(false);
+            updateButton.setEnabled(false);
+            deleteButton.setEnabled(false);
+            aptNumberField.setEditable(false);
+            rentField.setEditable(false);
+            occupiedCheckBox.setEnabled(false);
+            documentContentArea.setEditable(false);
+        }
+
+        return panel;
+    }
+
+    // Live occupancy, rent and parking figures. The managers keep the totals current on every
+    // change, so each refresh is a handful of O(1) reads no matter how many records there are.
+    // Change events trigger the refresh; the timer only catches the date rolling over.
+    private JPanel createDashboardPanel() {
+        JPanel panel = new JPanel(new BorderLayout(15, 15));
+        panel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+        JPanel figures = new JPanel(new GridLayout(1, 2, 15, 15));
+
+        JPanel apartmentFigures = new JPanel(new GridLayout(DASHBOARD_APARTMENT_ROWS.length, 2, 10, 10));
+        apartmentFigures.setBorder(BorderFactory.createTitledBorder("Apartments"));
+        JLabel[] apartmentValues = dashboardRows(apartmentFigures, DASHBOARD_APARTMENT_ROWS);
+        JPanel parkingFigures = new JPanel(new GridLayout(DASHBOARD_PARKING_ROWS.length, 2, 10, 10));
+        parkingFigures.setBorder(BorderFactory.createTitledBorder("Parking"));
+        JLabel[] parkingValues = dashboardRows(parkingFigures, DASHBOARD_PARKING_ROWS);
+        figures.add(apartmentFigures);
+        figures.add(parkingFigures);
+        panel.add(figures, BorderLayout.NORTH);
+
+        refreshDashboard = () -> {
+            if (apartmentManager != null) {
+                ApartmentStatistics.Summary a = apartmentManager.getStatistics();
+                apartmentValues[0].setText(String.format("%,d", a.units));
+                apartmentValues[1].setText(String.format("%,d", a.occupied));
+                apartmentValues[2].setText(String.format("%,d", a.units - a.occupied));
+                apartmentValues[3].setText(String.format("%.1f%%", a.occupancyRate() * 100));
+                apartmentValues[4].setText(String.format("%,.2f", a.totalRent));
+                apartmentValues[5].setText(String.format("%,.2f", a.occupiedRent));
+                apartmentValues[6].setText(a.units == 0 ? "-" : String.format("%,.2f / %,.2f", a.minRent, a.maxRent));
+            }
+            if (parkingLotManager != null) {
+                ParkingStatistics.Summary p = parkingLotManager.getStatistics();
+                long today = LocalDate.now().toEpochDay();
+                StringBuilder week = new StringBuilder();
+                for (int day = 0; day < 7; day++) {
+                    if (day > 0) week.append("  ");
+                    week.append(parkingLotManager.countSpotsBookedOn(today + day));
+                }
+                parkingValues[0].setText(String.format("%,d", p.spots));
+                parkingValues[1].setText(String.format("%,d", p.reservedSpots));
+                parkingValues[2].setText(String.format("%,d", p.spots - p.reservedSpots));
+                parkingValues[3].setText(String.format("%,d", p.reservations));
+                parkingValues[4].setText(String.format("%,d", parkingLotManager.countSpotsBookedOn(today)));
+                parkingValues[5].setText(week.toString());
+            }
+        };
+        Timer timer = new Timer(DASHBOARD_REFRESH_MILLIS, null);
+        timer.addActionListener(e -> {
+            if (!isDisplayable()) { // window closed
+                timer.stop();
+                return;
+            }
+            refreshDashboard.run();
+        });
+        timer.setInitialDelay(0);
+        timer.start();
+        return panel;
+    }
+
+    // The signed-in user's apartments and parking reservations, from the managers' tenant indexes,
+    // so it costs O(results) at any data size. Administrators may look up any tenant.
+    private JPanel createTenantPanel() {
+        JPanel panel = new JPanel(new BorderLayout(15, 15));
+        panel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+
+        JPanel lookupPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 0));
+        JTextField tenantField = new JTextField(currentUsername, 20);
+        tenantField.setEditable(session.can(Permissions.MANAGE_USERS));
+        JButton showButton = new JButton("Show");
+        JLabel summaryLabel = new JLabel(" ");
+        summaryLabel.setForeground(Color.BLUE);
+        lookupPanel.add(new JLabel("Tenant:"));
+        lookupPanel.add(tenantField);
+        lookupPanel.add(showButton);
+        lookupPanel.add(summaryLabel);
+        panel.add(lookupPanel, BorderLayout.NORTH);
+
+        RecordTableModel<Apartment> unitsModel = new RecordTableModel<Apartment>("Apt No", "Rent", "Status") {
+            @Override protected String keyOf(Apartment apt) { return apt.getApartmentNumber(); }
+            @Override protected Object valueAt(Apartment apt, int column) {
+                switch (column) {
+                    case 0: return apt.getApartmentNumber();
+                    case 1: return String.format("%.2f", apt.getRent());
+                    default: return apt.isOccupied() ? "Occupied" : "Available";
+                }
+            }
+        };
+        String[] shownTenant = {currentUsername};
+        RecordTableModel<ParkingLot> spotsModel = new RecordTableModel<ParkingLot>("Spot No", "Reservation Dates") {
+            @Override protected String keyOf(ParkingLot spot) { return spot.getSpotNumber(); }
+            @Override protected Object valueAt(ParkingLot spot, int column) {
+                if (column == 0) return spot.getSpotNumber();
+                StringBuilder dates = new StringBuilder();
+                for (Reservation r : spot.getCalendar()) {
+                    if (r.tenantName == null || !r.tenantName.equalsIgnoreCase(shownTenant[0])) continue;
+                    if (dates.length() > 0) dates.append(", ");
+                    dates.append(r.formatDates());
+                }
+                return dates.toString();
+            }
+        };
+        JPanel tables = new JPanel(new GridLayout(1, 2, 15, 15));
+        JScrollPane unitsScrollPane = new JScrollPane(new JTable(unitsModel));
+        unitsScrollPane.setBorder(BorderFactory.createTitledBorder("Apartments"));
+        JScrollPane spotsScrollPane = new JScrollPane(new JTable(spotsModel));
+        spotsScrollPane.setBorder(BorderFactory.createTitledBorder("Parking Reservations"));
+        tables.add(unitsScrollPane);
+        tables.add(spotsScrollPane);
+        panel.add(tables, BorderLayout.CENTER);
+
+        Runnable show = () -> {
+            if (apartmentManager == null || parkingLotManager == null) return; // still loading
+            String tenant = tenantField.getText().trim();
+            shownTenant[0] = tenant;
+            List<Apartment> units = apartmentManager.findApartmentsByTenant(tenant);
+            List<ParkingLot> spots = parkingLotManager.findSpotsByTenant(tenant);
+            unitsModel.setRecords(units);
+            spotsModel.setRecords(spots);
+            summaryLabel.setText(units.size() + " apartment(s), " + spots.size() + " parking spot(s) for " + tenant + ".");
+        };
+        showButton.addActionListener(e -> show.run());
+        tenantField.addActionListener(e -> show.run());
+        // Bookings happen on the other tabs, so re-read whenever this tab comes to the front,
+        // and on change events while it is in front (see refreshSummaries()).
+        mainTabbedPane.addChangeListener(e -> {
+            if (mainTabbedPane.getSelectedComponent() == panel) show.run();
+        });
+        tenantPanel = panel;
+        refreshTenantPanel = show;
+        return panel;
+    }
+
+    private static final int DASHBOARD_REFRESH_MILLIS = 60_000;
+    private static final String[] DASHBOARD_APARTMENT_ROWS = {"Units:", "Occupied:", "Vacant:", "Occupancy rate:",
+            "Monthly rent (all units):", "Monthly rent (occupied):", "Lowest / highest rent:"};
+    private static final String[] DASHBOARD_PARKING_ROWS = {"Spots:", "Spots with bookings:", "Spots without bookings:",
+            "Bookings:", "Spots booked today:", "Booked per day, next 7 days:"};
+
+    // Adds a caption and an empty value label per row; returns the value labels.
+    private static JLabel[] dashboardRows(JPanel panel, String[] captions) {
+        JLabel[] values = new JLabel[captions.length];
+        for (int i = 0; i < captions.length; i++) {
+            panel.add(new JLabel(captions[i]));
+            values[i] = new JLabel("-");
+            panel.add(values[i]);
+        }
+        return values;
+    }
+
+    private JPanel createUserManagementPanel() {
+        JPanel panel = new JPanel(new BorderLayout(15, 15));
+        panel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+
+        // New topSectionPanel for User Management
+        JPanel topSectionPanel = new JPanel(new BorderLayout(10, 10));
+
+        // Top Panel for User Details Input
+        JPanel inputPanel = new JPanel(new GridLayout(3, 2, 10, 10));
+        inputPanel.setBorder(BorderFactory.createTitledBorder("User Details"));
+        userUsernameField = new JTextField(15);
+        userPasswordField = new JPasswordField(15);
+        userRoleComboBox = new JComboBox<>(new String[]{"regular", "admin"});
+        inputPanel.add(new JLabel("Username:"));
+        inputPanel.add(userUsernameField);
+        inputPanel.add(new JLabel("Password:"));
+        inputPanel.add(userPasswordField);
+        inputPanel.add(new JLabel("Role:"));
+        inputPanel.add(userRoleComboBox);
+        topSectionPanel.add(inputPanel, BorderLayout.NORTH); // Add inputPanel to topSectionPanel's NORTH
+
+        // Center Panel for message Label
+        JPanel centerPanel = new JPanel(new BorderLayout(10, 10)); // This was the previous centerPanel
+        userMessageLabel = new JLabel("System messages for users will appear here.", SwingConstants.CENTER);
+        userMessageLabel.setForeground(Color.BLUE);
+        centerPanel.add(userMessageLabel, BorderLayout.CENTER);
+        topSectionPanel.add(centerPanel, BorderLayout.CENTER); // Add this centerPanel to topSectionPanel's CENTER
+
+        panel.add(topSectionPanel, BorderLayout.NORTH); // Add the combined topSectionPanel to main panel's NORTH
+
+        // Bottom Panel for the Table and action buttons
+        JPanel bottomPanel = new JPanel(new BorderLayout(10, 10));
+        userTableModel = new RecordTableModel<User>("Username", "Role") {
+            @Override protected String keyOf(User user) { return user.getUsername(); }
+            @Override protected Object valueAt(User user, int column) {
+                return column == 0 ? user.getUsername() : user.getRole();
+            }
+        };
+        userTable = new JTable(userTableModel);
+        userTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        JScrollPane scrollPane = new JScrollPane(userTable);
+        scrollPane.setBorder(BorderFactory.createTitledBorder("User List"));
+        bottomPanel.add(scrollPane, BorderLayout.CENTER);
+        bottomPanel.add(findPanel(createFindField(() -> query -> userManager.findUsers(query, FIND_LIMIT),
+                userTableModel, this::listAllUsers, this::displayUserMessage), "Find user:"), BorderLayout.NORTH);
+
+        JPanel bottomButtonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 15, 10));
+        addUserButton = new JButton("Add User");
+        updateUserButton = new JButton("Update User");
+        deleteUserButton = new JButton("Delete User");
+        listUsersButton = new JButton("Refresh List");
+        JButton clearUserFieldsButton = new JButton("Clear User Fields");
+
+        bottomButtonPanel.add(addUserButton);
+        bottomButtonPanel.add(updateUserButton);
+        bottomButtonPanel.add(deleteUserButton);
+        bottomButtonPanel.add(listUsersButton);
+        bottomButtonPanel.add(clearUserFieldsButton);
+        bottomPanel.add(bottomButtonPanel, BorderLayout.SOUTH);
+
+        panel.add(bottomPanel, BorderLayout.CENTER); // Main panel now has topSection in NORTH and bottomPanel (with table) in CENTER
+
+        // Action Listeners
+        addUserButton.addActionListener(e -> addUser());
+        clearUserFieldsButton.addActionListener(e -> clearUserFields());
+        updateUserButton.addActionListener(e -> updateUser());
+        deleteUserButton.addActionListener(e -> deleteUser());
+        listUsersButton.addActionListener(e -> listAllUsers());
+        userTable.getSelectionModel().addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting() && userTable.getSelectedRow() != -1) {
+                loadUserDetailsFromTable();
+            }
+        });
+
+        return panel;
+    }
+
+    // NEW: Method to create the Parking Management Panel
+    private JPanel createParkingManagementPanel() {
+        JPanel panel = new JPanel(new BorderLayout(15, 15));
+        panel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+
+        // Top section for input fields and message
+        JPanel topSectionPanel = new JPanel(new BorderLayout(10, 10));
+
+        // Input Panel for Parking Spot Details
+        JPanel detailsInputPanel = new JPanel(new GridLayout(4, 2, 10, 10));
+        detailsInputPanel.setBorder(BorderFactory.createTitledBorder("Parking Spot Details"));
+        spotNumberField = new JTextField(10);
+        reservedByTenantNameField = new JTextField(20);
+        reservationDateField = new JTextField(10); // Format:YYYY-MM-DD
+        isReservedCheckBox = new JCheckBox("Reserved");
+
+        detailsInputPanel.add(new JLabel("Spot Number:"));
+        detailsInputPanel.add(spotNumberField);
+        detailsInputPanel.add(new JLabel("Reserved By:"));
+        detailsInputPanel.add(reservedByTenantNameField);
+        detailsInputPanel.add(new JLabel("Reservation Date (YYYY-MM-DD[..YYYY-MM-DD]):"));
+        detailsInputPanel.add(reservationDateField);
+        detailsInputPanel.add(new JLabel("Status:"));
+        detailsInputPanel.add(isReservedCheckBox);
+
+        topSectionPanel.add(detailsInputPanel, BorderLayout.NORTH);
+
+        parkingMessageLabel = new JLabel("Parking system messages will appear here.", SwingConstants.CENTER);
+        parkingMessageLabel.setForeground(Color.BLUE);
+        topSectionPanel.add(parkingMessageLabel, BorderLayout.CENTER);
+
+        panel.add(topSectionPanel, BorderLayout.NORTH);
+
+        // Bottom section for table and buttons
+        JPanel bottomPanel = new JPanel(new BorderLayout(10, 10));
+
+        parkingTableModel = new RecordTableModel<ParkingLot>("Spot No", "Reserved", "Reserved By", "Reservation Date") {
+            @Override protected String keyOf(ParkingLot spot) { return spot.getSpotNumber(); }
+            @Override protected Object valueAt(ParkingLot spot, int column) {
+                switch (column) {
+                    case 0: return spot.getSpotNumber();
+                    case 1: return spot.isReserved() ? "Yes" : "No";
+                    case 2: {
+                        if (!spot.isReserved()) return "N/A";
+                        int more = spot.getReservations().size() - 1;
+                        return more > 0 ? spot.getReservedByTenantName() + " (+" + more + " more)" : spot.getReservedByTenantName();
+                    }
+                    default: return spot.getReservationDate() != null ? spot.getReservationDate() : "N/A";
+                }
+            }
+        };
+        parkingTable = new JTable(parkingTableModel);
+        parkingTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        JScrollPane listScrollPane = new JScrollPane(parkingTable);
+        listScrollPane.setBorder(BorderFactory.createTitledBorder("Parking Spot List"));
+        bottomPanel.add(listScrollPane, BorderLayout.CENTER);
+        bottomPanel.add(findPanel(createFindField(() -> {
+            ParkingLotManager manager = parkingLotManager;
+            return manager == null || loadingData ? null : query -> manager.findSpots(query, FIND_LIMIT);
+        }, parkingTableModel, this::listAllParkingLots, this::displayParkingMessage), "Find spot or tenant:"), BorderLayout.NORTH);
+
+        JPanel bottomButtonsPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 15, 10));
+        addSpotButton = new JButton("Add Spot");
+        reserveSpotButton = new JButton("Reserve Spot");
+        cancelReservationButton = new JButton("Cancel Reservation");
+        deleteSpotButton = new JButton("Delete Spot");
+        refreshParkingListButton = new JButton("Refresh List");
+        JButton findFreeSpotsButton = new JButton("Find Free Spots");
+        JButton clearParkingFieldsButton = new JButton("Clear Fields");
+        JButton releaseExpiredButton = new JButton("Release Expired");
+        JButton importSpotsButton = new JButton("Import...");
+        JButton exportSpotsButton = new JButton("Export...");
+        availableSpotsOnlyCheckBox = new JCheckBox("Show available only");
+
+        bottomButtonsPanel.add(addSpotButton);
+        bottomButtonsPanel.add(reserveSpotButton);
+        bottomButtonsPanel.add(cancelReservationButton);
+        bottomButtonsPanel.add(deleteSpotButton);
+        bottomButtonsPanel.add(refreshParkingListButton);
+        bottomButtonsPanel.add(findFreeSpotsButton);
+        bottomButtonsPanel.add(clearParkingFieldsButton);
+        if (session.can(Permissions.MANAGE_PARKING)) {
+            bottomButtonsPanel.add(releaseExpiredButton);
+            bottomButtonsPanel.add(importSpotsButton);
+            bottomButtonsPanel.add(exportSpotsButton);
+        }
+        bottomButtonsPanel.add(availableSpotsOnlyCheckBox);
+        bottomPanel.add(bottomButtonsPanel, BorderLayout.SOUTH);
+
+        panel.add(bottomPanel, BorderLayout.CENTER);
+
+        // Action Listeners
+        addSpotButton.addActionListener(e -> addParkingSpot());
+        reserveSpotButton.addActionListener(e -> reserveParkingSpot());
+        cancelReservationButton.addActionListener(e -> cancelParkingSpotReservation());
+        deleteSpotButton.addActionListener(e -> deleteParkingSpot());
+        refreshParkingListButton.addActionListener(e -> listAllParkingLots());
+        findFreeSpotsButton.addActionListener(e -> findFreeParkingSpots());
+        clearParkingFieldsButton.addActionListener(e -> clearParkingFields());
+        releaseExpiredButton.addActionListener(e -> releaseExpiredReservations());
+        importSpotsButton.addActionListener(e -> importFile("parking spots",
+                (file, progress) -> BulkTransfer.importParkingLots(file, parkingLotManager, progress)));
+        exportSpotsButton.addActionListener(e -> exportFile("parking spots",
+                file -> BulkTransfer.exportParkingLots(file, parkingLotManager)));
+        availableSpotsOnlyCheckBox.addActionListener(e -> listAllParkingLots());
+        parkingTable.getSelectionModel().addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting() && parkingTable.getSelectedRow() != -1) {
+                loadParkingDetailsFromTable();
+            }
+        });
+
+        // Permissions for Parking Lot Management
+        if (!session.can(Permissions.MANAGE_PARKING)) {
+            addSpotButton.setEnabled(false);
+            deleteSpotButton.setEnabled(false);
+            spotNumberField.setEditable(false);
+            // Regular users can reserve/cancel but usually for themselves, so disable direct editing of 'reserved by' for safety
+            reservedByTenantNameField.setEditable(false);
+            // reservationDateField.setEditable(false); // This will be enabled for input now
+            isReservedCheckBox.setEnabled(false); // Status is set by reserve/cancel actions, not direct check
+        }
+
+        return panel;
+    }
+
+
+    private void clearApartmentFields() {
+        aptNumberField.setText("");
+        tenantNameField.setText("");
+        rentField.setText("");
+        occupiedCheckBox.setSelected(false);
+        documentContentArea.setText("");
+        apartmentTable.clearSelection();
+        displayApartmentMessage("Apartment fields cleared.");
+    }
+
+    private void loadApartmentDetailsFromTable() {
+        int row = apartmentTable.getSelectedRow();
+        if (row >= 0) {
+            String aptNum = (String) apartmentTableModel.getValueAt(row, 0);
+            apartmentManager.findApartmentByNumber(aptNum).ifPresent(apt -> {
+                aptNumberField.setText(apt.getApartmentNumber());
+                tenantNameField.setText(apt.getTenantName());
+                rentField.setText(String.valueOf(apt.getRent()));
+                occupiedCheckBox.setSelected(apt.isOccupied());
+                documentContentArea.setText(apt.getDocumentContent());
+                displayApartmentMessage("Details for apartment " + aptNum + " loaded.");
+            });
+        }
+    }
+
+    // Changes the rent of every apartment in the table (the current filter or search) by a
+    // percentage, as one batch: all of them change or, if any can't, none do.
+    private void adjustListedRents() {
+        if (!session.can(Permissions.MANAGE_APARTMENTS)) {
+            displayApartmentMessage("Permission Denied: Only administrators can change rents.");
+            return;
+        }
+        int count = apartmentTableModel.getRowCount();
+        if (count == 0) {
+            displayApartmentMessage("No apartments listed.");
+            return;
+        }
+        String input = JOptionPane.showInputDialog(this, "Change the rent of the " + count + " listed apartment(s) by what percent? (e.g. 3 or -5)",
+                "Adjust Rent", JOptionPane.QUESTION_MESSAGE);
+        if (input == null || input.trim().isEmpty()) return;
+        double percent;
+        try {
+            percent = Double.parseDouble(input.trim());
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this, "Please enter a number.", "Input Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        List<String> numbers = new ArrayList<>(count);
+        for (int row = 0; row < count; row++) numbers.add(apartmentTableModel.getRecordAt(row).getApartmentNumber());
+        BatchResult result = apartmentManager.adjustRents(numbers, percent);
+        if (!result.committed) {
+            JOptionPane.showMessageDialog(this, "No rents were changed: " + result.error, "Adjust Rent Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        displayApartmentMessage("Rent of " + result.changedKeys.size() + " apartment(s) changed by " + input.trim() + "%.");
+    }
+
+    private void addApartment() {
+        if (!session.can(Permissions.MANAGE_APARTMENTS)) {
+            displayApartmentMessage("Permission Denied: Only administrators can add apartments.");
+            return;
+        }
+        try {
+            String aptNum = aptNumberField.getText().trim();
+            if (aptNum.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "Apartment Number cannot be empty.", "Input Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            Apartment newApt = new Apartment(aptNum, tenantNameField.getText().trim(), Double.parseDouble(rentField.getText().trim()), occupiedCheckBox.isSelected(), documentContentArea.getText());
+            if (apartmentManager.addApartment(newApt)) {
+                displayApartmentMessage("Apartment " + aptNum + " added successfully.");
+                clearApartmentFields();
+            } else {
+                JOptionPane.showMessageDialog(this, "Apartment " + aptNum + " already exists.", "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Invalid rent value.", "Input Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void updateApartment() {
+        if (!session.can(Permissions.MANAGE_APARTMENTS)) {
+            displayApartmentMessage("Permission Denied: Only administrators can update apartments.");
+            return;
+        }
+        try {
+            String aptNum = aptNumberField.getText().trim();
+            if (aptNum.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "Please select an apartment to update.", "Selection Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            Apartment updatedApt = new Apartment(aptNum, tenantNameField.getText().trim(), Double.parseDouble(rentField.getText().trim()), occupiedCheckBox.isSelected(), documentContentArea.getText());
+            if (apartmentManager.updateApartment(updatedApt)) {
+                displayApartmentMessage("Apartment " + aptNum + " updated successfully.");
+                clearApartmentFields();
+            } else {
+                JOptionPane.showMessageDialog(this, "Apartment " + aptNum + " not found for update.", "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Invalid rent value.", "Input Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void deleteApartment() {
+        if (!session.can(Permissions.MANAGE_APARTMENTS)) {
+            displayApartmentMessage("Permission Denied: Only administrators can delete apartments.");
+            return;
+        }
+        int row = apartmentTable.getSelectedRow();
+        if (row < 0) {
+            JOptionPane.showMessageDialog(this, "Please select an apartment to delete.", "Selection Error", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        String aptNum = (String) apartmentTableModel.getValueAt(row, 0);
+        int confirm = JOptionPane.showConfirmDialog(this, "Delete apartment " + aptNum + "?", "Confirm Deletion", JOptionPane.YES_NO_OPTION);
+        if (confirm == JOptionPane.YES_OPTION) {
+            if (apartmentManager.deleteApartment(aptNum)) {
+                displayApartmentMessage("Apartment " + aptNum + " deleted.");
+                clearApartmentFields();
+            }
+        }
+    }
+
+    private void bookApartment() {
+        if (!session.can(Permissions.BOOK_APARTMENT)) {
+            displayApartmentMessage("Permission Denied: Only regular users can book apartments.");
+            return;
+        }
+        int row = apartmentTable.getSelectedRow();
+        if (row < 0) {
+            JOptionPane.showMessageDialog(this, "Please select an available apartment to book.", "Selection Error", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        String aptNum = (String) apartmentTableModel.getValueAt(row, 0);
+        Optional<Apartment> aptOpt = apartmentManager.findApartmentByNumber(aptNum);
+        if (aptOpt.isPresent()) {
+            Apartment apt = aptOpt.get();
+            if (apt.isOccupied()) {
+                JOptionPane.showMessageDialog(this, "This apartment is already occupied.", "Booking Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            // For booking, automatically set tenant name to current username
+            String newTenantName = currentUsername;
+            if (newTenantName != null && !newTenantName.trim().isEmpty()) {
+                // Another session may have booked it since the check above; the manager decides atomically.
+                ClaimResult result = apartmentManager.bookApartment(aptNum, newTenantName.trim());
+                if (result == ClaimResult.WON) {
+                    displayApartmentMessage("Apartment " + aptNum + " booked successfully by " + newTenantName);
+                    clearApartmentFields();
+                } else if (result == ClaimResult.ALREADY_TAKEN) {
+                    JOptionPane.showMessageDialog(this, "This apartment was just booked by " + apt.getTenantName() + ".", "Booking Error", JOptionPane.ERROR_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(this, "Apartment " + aptNum + " no longer exists.", "Booking Error", JOptionPane.ERROR_MESSAGE);
+                }
+            } else {
+                JOptionPane.showMessageDialog(this, "Tenant name cannot be empty.", "Input Error", JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
+
+    private interface BulkImport {
+        BulkTransfer.Report run(File file, IntConsumer progress) throws IOException;
+    }
+
+    private interface BulkExport {
+        int run(File file) throws IOException;
+    }
+
+    private static final int IMPORT_ERRORS_SHOWN = 20;
+
+    // Streams a CSV or JSONL file into a manager on a worker thread. The table follows along through
+    // the change events, and bad rows are listed afterwards instead of stopping the import.
+    private void importFile(String what, BulkImport job) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Import " + what + " (CSV or JSONL)");
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        File file = chooser.getSelectedFile();
+        setBusy(true, "Importing " + what + "...");
+        progressBar.setIndeterminate(true);
+        new SwingWorker<BulkTransfer.Report, String>() {
+            @Override
+            protected BulkTransfer.Report doInBackground() throws IOException {
+                return job.run(file, imported -> publish("Imported " + imported + " " + what + "..."));
+            }
+
+            @Override
+            protected void process(List<String> stages) {
+                progressBar.setString(stages.get(stages.size() - 1));
+            }
+
+            @Override
+            protected void done() {
+                progressBar.setIndeterminate(false);
+                setBusy(false, null);
+                try {
+                    BulkTransfer.Report report = get();
+                    StringBuilder message = new StringBuilder("Imported " + report.imported + " " + what + " from " + file.getName() + ".");
+                    if (report.rejected > 0) {
+                        message.append("\n").append(report.rejected).append(" row(s) skipped:");
+                        for (int i = 0; i < Math.min(IMPORT_ERRORS_SHOWN, report.errors.size()); i++) {
+                            message.append("\n  ").append(report.errors.get(i));
+                        }
+                        if (report.rejected > IMPORT_ERRORS_SHOWN) message.append("\n  ...");
+                    }
+                    JOptionPane.showMessageDialog(ApartmentManagementGUI.this, message.toString(), "Import",
+                            report.rejected > 0 ? JOptionPane.WARNING_MESSAGE : JOptionPane.INFORMATION_MESSAGE);
+                } catch (InterruptedException | ExecutionException ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(ApartmentManagementGUI.this, "Import stopped: " + cause.getMessage()
+                            + "\nRows read before the failure were kept.", "Import Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
+    // Writes every record to a CSV or JSONL file (by extension) on a worker thread.
+    private void exportFile(String what, BulkExport job) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Export " + what + " (.csv or .jsonl)");
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        File file = chooser.getSelectedFile();
+        setBusy(true, "Exporting " + what + "...");
+        progressBar.setIndeterminate(true);
+        new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() throws IOException {
+                return job.run(file);
+            }
+
+            @Override
+            protected void done() {
+                progressBar.setIndeterminate(false);
+                setBusy(false, null);
+                try {
+                    JOptionPane.showMessageDialog(ApartmentManagementGUI.this, "Exported " + get() + " " + what + " to " + file.getName() + ".");
+                } catch (InterruptedException | ExecutionException ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(ApartmentManagementGUI.this, "Export failed: " + cause.getMessage(), "Export Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
+    private void listAllApartments() {
+        endRentFilter();
+        if (availableApartmentsOnlyCheckBox.isSelected()) {
+            apartmentTableModel.setRecords(apartmentManager.getAvailableApartments(), true);
+            displayApartmentMessage(apartmentManager.countAvailableApartments() + " apartment(s) available.");
+        } else {
+            apartmentTableModel.setRecords(apartmentManager.getAllApartments(), true);
+        }
+    }
+
+    // Shows the best-ranked apartments whose documents mention the query. The first search builds
+    // the index, so it runs off the EDT; an empty query goes back to the full list.
+    private void searchApartmentDocuments() {
+        String query = documentSearchField.getText().trim();
+        if (query.isEmpty()) {
+            listAllApartments();
+            return;
+        }
+        endRentFilter();
+        ApartmentManager manager = apartmentManager;
+        new SwingWorker<List<Apartment>, Void>() {
+            private long elapsedMillis;
+
+            @Override
+            protected List<Apartment> doInBackground() {
+                long start = System.nanoTime();
+                List<Apartment> matches = manager.searchDocuments(query, DOCUMENT_SEARCH_LIMIT);
+                elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+                return matches;
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    List<Apartment> matches = get();
+                    apartmentTableModel.setRecords(matches);
+                    displayApartmentMessage(matches.size() + " document match(es) for \"" + query + "\" in " + elapsedMillis + " ms. Use Refresh List to show all apartments.");
+                } catch (InterruptedException | ExecutionException e) {
+                    System.err.println("Error searching documents: " + e.getMessage());
+                    displayApartmentMessage("Document search failed.");
+                }
+            }
+        }.execute();
+    }
+
+    // Shows one page of apartments in the entered rent range, cheapest first, honouring "Show
+    // available only". An empty bound is open. Pass null for the first page, else rentFilterCursor.
+    private void filterApartmentsByRent(String cursor) {
+        double minRent, maxRent;
+        try {
+            String from = rentFromField.getText().trim();
+            String to = rentToField.getText().trim();
+            minRent = from.isEmpty() ? 0 : Double.parseDouble(from);
+            maxRent = to.isEmpty() ? Double.MAX_VALUE : Double.parseDouble(to);
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Invalid rent value.", "Input Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (minRent > maxRent) {
+            JOptionPane.showMessageDialog(this, "The lower rent must not exceed the upper rent.", "Input Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        boolean availableOnly = availableApartmentsOnlyCheckBox.isSelected();
+        long start = System.nanoTime();
+        RentIndex.Page page = apartmentManager.findApartmentsByRent(minRent, maxRent, availableOnly, cursor, RENT_FILTER_PAGE_SIZE);
+        double elapsedMillis = (System.nanoTime() - start) / 1e6;
+        apartmentTableModel.setRecords(page.records);
+        rentFilterCursor = page.nextCursor;
+        nextRentPageButton.setEnabled(rentFilterCursor != null);
+        displayApartmentMessage(String.format("%d%s apartment(s) by rent in %.2f ms%s", page.records.size(),
+                availableOnly ? " available" : "", elapsedMillis, rentFilterCursor != null ? "; Next Page shows more." : "."));
+    }
+
+    private void endRentFilter() {
+        rentFilterCursor = null;
+        nextRentPageButton.setEnabled(false);
+    }
+
+    // Find-as-you-type: every edit restarts a short timer, and once typing pauses the query runs on a
+    // worker thread and only the matching rows are pushed into the table. A result that arrives
+    // after a newer query was started is dropped. Clearing the field shows the full list again.
+    // finder is called on the EDT and returns null while the records are still loading.
+    private <T> JTextField createFindField(Supplier<Function<String, TrigramIndex.Result<T>>> finder,
+                                           RecordTableModel<T> model, Runnable showAll, Consumer<String> message) {
+        JTextField field = new JTextField(30);
+        int[] generation = {0};
+        Timer timer = new Timer(FIND_DEBOUNCE_MILLIS, e -> {
+            int current = ++generation[0];
+            String query = field.getText().trim();
+            Function<String, TrigramIndex.Result<T>> find = finder.get();
+            if (find == null) return;
+            if (query.isEmpty()) {
+                showAll.run();
+                return;
+            }
+            new SwingWorker<TrigramIndex.Result<T>, Void>() {
+                private long elapsedMicros;
+
+                @Override
+                protected TrigramIndex.Result<T> doInBackground() {
+                    long start = System.nanoTime();
+                    TrigramIndex.Result<T> result = find.apply(query);
+                    elapsedMicros = (System.nanoTime() - start) / 1_000;
+                    return result;
+                }
+
+                @Override
+                protected void done() {
+                    if (current != generation[0]) return; // superseded by a newer query
+                    try {
+                        TrigramIndex.Result<T> result = get();
+                        model.setRecords(result.records);
+                        message.accept(String.format("%s%d match(es) for \"%s\" in %.1f ms.", result.more ? "First " : "",
+                                result.records.size(), query, elapsedMicros / 1000.0));
+                    } catch (InterruptedException | ExecutionException ex) {
+                        System.err.println("Error finding records: " + ex.getMessage());
+                        message.accept("Find failed.");
+                    }
+                }
+            }.execute();
+        });
+        timer.setRepeats(false);
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { timer.restart(); }
+            @Override public void removeUpdate(DocumentEvent e) { timer.restart(); }
+            @Override public void changedUpdate(DocumentEvent e) { timer.restart(); }
+        });
+        return field;
+    }
+
+    private static JPanel findPanel(JTextField field, String caption) {
+        JPanel panel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 0));
+        panel.add(new JLabel(caption));
+        panel.add(field);
+        return panel;
+    }
+
+    private void displayApartmentMessage(String message) {
+        apartmentMessageLabel.setText(message);
+    }
+
+    private void clearUserFields() {
+        userUsernameField.setText("");
+        userPasswordField.setText("");
+        userRoleComboBox.setSelectedIndex(0);
+        userTable.clearSelection();
+        userUsernameField.setEditable(true);
+        displayUserMessage("User fields cleared.");
+    }
+
+    private void loadUserDetailsFromTable() {
+        int row = userTable.getSelectedRow();
+        if (row >= 0) {
+            String username = (String) userTableModel.getValueAt(row, 0);
+            userManager.findUserByUsername(username).ifPresent(user -> {
+                userUsernameField.setText(user.getUsername());
+                userPasswordField.setText(""); // Don't load password for security
+                userRoleComboBox.setSelectedItem(user.getRole());
+                userUsernameField.setEditable(false); // Username should not be editable for existing users
+                displayUserMessage("Details for user " + username + " loaded.");
+            });
+        }
+    }
+
+    private void addUser() {
+        String username = userUsernameField.getText().trim();
+        String password = new String(userPasswordField.getPassword()).trim();
+        if (username.isEmpty() || password.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Username and Password cannot be empty.", "Input Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        User newUser = new User(username, password, (String) userRoleComboBox.getSelectedItem());
+        changeUserInBackground("Adding user " + username + "...", () -> userManager.addUser(newUser), added -> {
+            if (added) {
+                displayUserMessage("User " + username + " added successfully.");
+                clearUserFields();
+            } else {
+                JOptionPane.showMessageDialog(this, "User " + username + " already exists.", "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+    }
+
+    private void updateUser() {
+        String username = userUsernameField.getText().trim();
+        if (username.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Please select a user to update.", "Selection Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        Optional<User> userOpt = userManager.findUserByUsername(username);
+        if (userOpt.isPresent()) {
+            String password = new String(userPasswordField.getPassword()).trim();
+            String role = (String) userRoleComboBox.getSelectedItem();
+            // Only update password if a new one is entered; otherwise only the role changes
+            Supplier<Boolean> update = password.isEmpty()
+                    ? () -> userManager.updateRole(username, role)
+                    : () -> userManager.updateUser(new User(username, password, role));
+            changeUserInBackground("Updating user " + username + "...", update, updated -> {
+                if (updated) {
+                    SessionManager.get().closeAll(username); // other logins must pick up the new password/role
+                    displayUserMessage("User " + username + " updated successfully.");
+                    clearUserFields();
+                } else {
+                    JOptionPane.showMessageDialog(this, "User " + username + " not found for update.", "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            });
+        }
+    }
+
+    // Adding a user or setting a password hashes it, which is deliberately slow, so the change
+    // runs on a worker thread with the actions disabled; its outcome is handled on the EDT.
+    private void changeUserInBackground(String message, Supplier<Boolean> change, Consumer<Boolean> onDone) {
+        setBusy(true, message);
+        new SwingWorker<Boolean, Void>() {
+            @Override
+            protected Boolean doInBackground() {
+                return change.get();
+            }
+
+            @Override
+            protected void done() {
+                setBusy(false, null);
+                try {
+                    onDone.accept(get());
+                } catch (InterruptedException | ExecutionException ex) {
+                    JOptionPane.showMessageDialog(ApartmentManagementGUI.this, "Failed to save user: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
+    private void deleteUser() {
+        int row = userTable.getSelectedRow();
+        if (row < 0) {
+            JOptionPane.showMessageDialog(this, "Please select a user to delete.", "Selection Error", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        String username = (String) userTableModel.getValueAt(row, 0);
+        if (username.equalsIgnoreCase(currentUsername)) {
+            JOptionPane.showMessageDialog(this, "You cannot delete your own account.", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        int confirm = JOptionPane.showConfirmDialog(this, "Delete user " + username + "?", "Confirm Deletion", JOptionPane.YES_NO_OPTION);
+        if (confirm == JOptionPane.YES_OPTION) {
+            if (userManager.deleteUser(username)) {
+                SessionManager.get().closeAll(username);
+                displayUserMessage("User " + username + " deleted.");
+                clearUserFields();
+            } else {
+                JOptionPane.showMessageDialog(this, "Failed to delete user " + username + ".", "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
+
+    private void listAllUsers() {
+        userTableModel.setRecords(userManager.getAllUsers(), true);
+        displayUserMessage("User list refreshed. Total users: " + userTableModel.getRowCount());
+    }
+
+    private void displayUserMessage(String message) {
+        userMessageLabel.setText(message);
+    }
+
+    // NEW: Parking Lot Management Methods
+    private void clearParkingFields() {
+        spotNumberField.setText("");
+        reservedByTenantNameField.setText("");
+        reservationDateField.setText("");
+        isReservedCheckBox.setSelected(false);
+        parkingTable.clearSelection();
+        spotNumberField.setEditable(true); // Re-enable for new entry
+        if (!session.can(Permissions.MANAGE_PARKING)) {
+            // Restore permissions for regular user after clearing
+            reservedByTenantNameField.setEditable(false);
+            // reservationDateField.setEditable(true); // Always editable for input when reserving
+            isReservedCheckBox.setEnabled(false);
+        } else { // Admin can edit all fields
+            reservedByTenantNameField.setEditable(true);
+            reservationDateField.setEditable(true);
+            isReservedCheckBox.setEnabled(true);
+        }
+        displayParkingMessage("Parking fields cleared.");
+    }
+
+    private void loadParkingDetailsFromTable() {
+        int row = parkingTable.getSelectedRow();
+        if (row >= 0) {
+            String spotNum = (String) parkingTableModel.getValueAt(row, 0);
+            parkingLotManager.findSpotByNumber(spotNum).ifPresent(spot -> {
+                spotNumberField.setText(spot.getSpotNumber());
+                isReservedCheckBox.setSelected(spot.isReserved());
+                reservedByTenantNameField.setText(spot.getReservedByTenantName() != null ? spot.getReservedByTenantName() : "");
+                reservationDateField.setText(spot.getReservationDate() != null ? spot.getReservationDate() : "");
+
+                spotNumberField.setEditable(false); // Can't edit spot number of existing spot
+
+                // Adjust permissions based on role
+                if (!session.can(Permissions.MANAGE_PARKING)) {
+                    reservedByTenantNameField.setEditable(false);
+                    // reservationDateField.setEditable(true); // This field is now for customer input
+                    isReservedCheckBox.setEnabled(false);
+                } else { // Admin can edit these fields for existing spots
+                    reservedByTenantNameField.setEditable(true);
+                    reservationDateField.setEditable(true);
+                    isReservedCheckBox.setEnabled(true);
+                }
+                displayParkingMessage("Details for spot " + spotNum + " loaded.");
+            });
+        }
+    }
+
+    private void addParkingSpot() {
+        if (!session.can(Permissions.MANAGE_PARKING)) {
+            displayParkingMessage("Permission Denied: Only administrators can add parking spots.");
+            return;
+        }
+        String spotNum = spotNumberField.getText().trim();
+        if (spotNum.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Spot Number cannot be empty.", "Input Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        // For adding, assume it's initially not reserved unless specified
+        boolean isReserved = isReservedCheckBox.isSelected();
+        String reservedBy = isReserved ? reservedByTenantNameField.getText().trim() : null;
+        String resDate = isReserved ? reservationDateField.getText().trim() : null;
+
+        if (isReserved && reservedBy.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Reserved By field cannot be empty if spot is reserved.", "Input Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (isReserved && resDate.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Reservation Date cannot be empty if spot is reserved.", "Input Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        // A single day or an inclusive range
+        if (isReserved && Reservation.parseRange(resDate) == null) {
+            JOptionPane.showMessageDialog(this, "Reservation Date must be YYYY-MM-DD or YYYY-MM-DD..YYYY-MM-DD.", "Input Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+
+        ParkingLot newSpot = new ParkingLot(spotNum, isReserved, reservedBy, resDate);
+        if (parkingLotManager.addSpot(newSpot)) {
+            displayParkingMessage("Parking spot " + spotNum + " added successfully.");
+            clearParkingFields();
+        } else {
+            JOptionPane.showMessageDialog(this, "Parking spot " + spotNum + " already exists.", "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void reserveParkingSpot() {
+        int row = parkingTable.getSelectedRow();
+        if (row < 0) {
+            JOptionPane.showMessageDialog(this, "Please select a parking spot to reserve.", "Selection Error", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        String spotNum = (String) parkingTableModel.getValueAt(row, 0);
+        Optional<ParkingLot> spotOpt = parkingLotManager.findSpotByNumber(spotNum);
+
+        if (spotOpt.isPresent()) {
+            ParkingLot spot = spotOpt.get();
+            String tenantToReserve = currentUsername; // Default to logged-in user
+            String reservationDateStr = "";
+
+            // Prompt for date input
+            reservationDateStr = JOptionPane.showInputDialog(this,
+                    "Enter reservation dates for spot " + spotNum + " (YYYY-MM-DD or YYYY-MM-DD..YYYY-MM-DD):",
+                    LocalDate.now().toString()); // Pre-fill with current date
+
+            if (reservationDateStr == null || reservationDateStr.trim().isEmpty()) {
+                // User cancelled or left empty
+                displayParkingMessage("Reservation cancelled by user.");
+                return;
+            }
+            reservationDateStr = reservationDateStr.trim();
+
+            // Validate date format
+            long[] range = Reservation.parseRange(reservationDateStr);
+            if (range == null) {
+                JOptionPane.showMessageDialog(this, "Reservation Date must be YYYY-MM-DD or YYYY-MM-DD..YYYY-MM-DD.", "Input Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+
+            ClaimResult result = parkingLotManager.claimSpot(spotNum, tenantToReserve, range[0], range[1]);
+            if (result == ClaimResult.WON) {
+                displayParkingMessage("Spot " + spotNum + " reserved by " + tenantToReserve + " for " + reservationDateStr + ".");
+                clearParkingFields();
+            } else if (result == ClaimResult.ALREADY_TAKEN) {
+                JOptionPane.showMessageDialog(this, "Spot " + spotNum + " is already booked for part of " + reservationDateStr + ".", "Reservation Error", JOptionPane.ERROR_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(this, "Failed to reserve spot " + spotNum + ".", "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
+
+    private void cancelParkingSpotReservation() {
+        int row = parkingTable.getSelectedRow();
+        if (row < 0) {
+            JOptionPane.showMessageDialog(this, "Please select a parking spot to cancel its reservation.", "Selection Error", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        String spotNum = (String) parkingTableModel.getValueAt(row, 0);
+        Optional<ParkingLot> spotOpt = parkingLotManager.findSpotByNumber(spotNum);
+
+        if (spotOpt.isPresent()) {
+            ParkingLot spot = spotOpt.get();
+            if (!spot.isReserved()) {
+                JOptionPane.showMessageDialog(this, "Spot " + spotNum + " is not currently reserved.", "Cancellation Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+
+            // Regular users can only cancel their own reservations; administrators clear the whole spot
+            boolean regular = !session.can(Permissions.CANCEL_ANY_RESERVATION);
+            if (regular && !spot.hasReservationFor(currentUsername)) {
+                JOptionPane.showMessageDialog(this, "Permission Denied: You can only cancel your own parking reservations.", "Permission Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+
+            String whose = regular ? "your reservations" : "all " + spot.getReservations().size() + " reservation(s)";
+            int confirm = JOptionPane.showConfirmDialog(this, "Cancel " + whose + " for spot " + spotNum + "?", "Confirm Cancellation", JOptionPane.YES_NO_OPTION);
+            if (confirm == JOptionPane.YES_OPTION) {
+                if (parkingLotManager.cancelReservation(spotNum, regular ? currentUsername : null)) {
+                    displayParkingMessage("Reservation for spot " + spotNum + " cancelled.");
+                    clearParkingFields();
+                } else {
+                    JOptionPane.showMessageDialog(this, "Failed to cancel reservation for spot " + spotNum + ".", "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }
+    }
+
+    private void deleteParkingSpot() {
+        if (!session.can(Permissions.MANAGE_PARKING)) {
+            displayParkingMessage("Permission Denied: Only administrators can delete parking spots.");
+            return;
+        }
+        int row = parkingTable.getSelectedRow();
+        if (row < 0) {
+            JOptionPane.showMessageDialog(this, "Please select a parking spot to delete.", "Selection Error", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        String spotNum = (String) parkingTableModel.getValueAt(row, 0);
+        int confirm = JOptionPane.showConfirmDialog(this, "Delete parking spot " + spotNum + "?", "Confirm Deletion", JOptionPane.YES_NO_OPTION);
+        if (confirm == JOptionPane.YES_OPTION) {
+            if (parkingLotManager.deleteSpot(spotNum)) {
+                displayParkingMessage("Parking spot " + spotNum + " deleted.");
+                clearParkingFields();
+            }
+        }
+    }
+
+    // Drops every reservation that ended before today in one batch; the table follows the one event list.
+    private void releaseExpiredReservations() {
+        if (!session.can(Permissions.MANAGE_PARKING)) {
+            displayParkingMessage("Permission Denied: Only administrators can release reservations.");
+            return;
+        }
+        BatchResult result = parkingLotManager.releaseExpiredReservations(LocalDate.now().toEpochDay());
+        if (!result.committed) {
+            JOptionPane.showMessageDialog(this, "Nothing was released: " + result.error, "Release Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        displayParkingMessage("Released expired reservations on " + result.changedKeys.size() + " spot(s).");
+    }
+
+    private void listAllParkingLots() {
+        if (availableSpotsOnlyCheckBox.isSelected()) {
+            parkingTableModel.setRecords(parkingLotManager.getUnreservedSpots(), true);
+            displayParkingMessage(parkingLotManager.countUnreservedSpots() + " spot(s) without reservations.");
+        } else {
+            parkingTableModel.setRecords(parkingLotManager.getAllParkingLots(), true);
+        }
+    }
+
+    // Narrows the table to spots with no booking anywhere in the entered period.
+    private void findFreeParkingSpots() {
+        String input = JOptionPane.showInputDialog(this,
+                "Find spots free for (YYYY-MM-DD or YYYY-MM-DD..YYYY-MM-DD):",
+                LocalDate.now().toString());
+        if (input == null || input.trim().isEmpty()) return;
+        long[] range = Reservation.parseRange(input);
+        if (range == null) {
+            JOptionPane.showMessageDialog(this, "Dates must be YYYY-MM-DD or YYYY-MM-DD..YYYY-MM-DD.", "Input Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        List<ParkingLot> free = parkingLotManager.findFreeSpots(range[0], range[1]);
+        parkingTableModel.setRecords(free);
+        displayParkingMessage(free.size() + " spot(s) free for " + input.trim() + ". Use Refresh List to show all spots.");
+    }
+
+    private void displayParkingMessage(String message) {
+        parkingMessageLabel.setText(message);
+    }
+
+
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && "--server".equals(args[0])) {
+            ApiServer.main(Arrays.copyOfRange(args, 1, args.length)); // headless REST mode, no Swing
+            return;
+        }
+        // Ensures the Swing GUI is created and updated on the Event Dispatch Thread
+        SwingUtilities.invokeLater(() -> new LoginScreen().setVisible(true));
+    }
+}
@@ -0,0 +1,591 @@
+package boardinghouse;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.function.DoubleUnaryOperator;
+
+// Manages a collection of Apartment objects.
+// Safe to share between threads: reads are lock-free and each write locks only its key's stripe.
+class ApartmentManager {
+    // Keyed by normalized apartment number; insertion order is kept for listing.
+    private final RecordStore<Apartment> apartments = new RecordStore<>();
+    // Vacancy bitmap kept in step with every change below; backs the "available only" queries.
+    private final AvailabilityIndex<Apartment> vacancies = new AvailabilityIndex<>(Apartment::getApartmentNumber, apt -> !apt.isOccupied());
+    // Full-text index over documentContent, built on the first search.
+    private final DocumentIndex documents = new DocumentIndex();
+    // Occupancy and rent totals, maintained alongside the vacancy bitmap.
+    private final ApartmentStatistics statistics = new ApartmentStatistics();
+    // Apartments sorted by rent, for rent-range filters; maintained with the vacancy bitmap.
+    private final RentIndex rents = new RentIndex();
+    // Tenant name -> apartments, so a tenant's units are found without a scan.
+    private final TenantIndex<Apartment> tenants = new TenantIndex<>(Apartment::getApartmentNumber, apt -> Arrays.asList(apt.getTenantName()));
+    // Trigram index over number and tenant for find-as-you-type, built on the first search.
+    private final TrigramIndex<Apartment> finder = new TrigramIndex<>(Apartment::getApartmentNumber,
+            apt -> Arrays.asList(apt.getApartmentNumber(), apt.getTenantName()));
+    private static final String FILE_NAME = "apartments.dat";
+    private final String fileName;
+    // Document bodies, so the snapshot and the heap only carry their handles.
+    private final BlobStore blobs;
+    private final Journal journal;
+    private final ChangeTracker changes = new ChangeTracker();
+    private final ChangeBus<Apartment> events = new ChangeBus<>();
+    private volatile FileStamp snapshotStamp;
+    // Held while this manager renames its own snapshot into place and records its stamp, so the
+    // staleness check never mistakes our own install for someone else's.
+    private final Object stampLock = new Object();
+    private final Object saveLock = new Object();
+
+    public ApartmentManager() {
+        this(FILE_NAME);
+    }
+
+    ApartmentManager(String fileName) {
+        this.fileName = fileName;
+        this.blobs = new BlobStore(fileName);
+        this.journal = new Journal(fileName, blobs::force); // entries may name blobs; those go to disk first
+        blobs.open();
+        boolean legacyFormat = loadApartments();
+        journal.replay(this::applyJournalEntry);
+        if (legacyFormat) compactApartments(); // one-time migration of a CSV snapshot to the binary format
+        if (apartments.isEmpty()) {
+            Apartment seed = new Apartment("101", "Steph Curry", 20000.00, true, "Arriving soon.");
+            seed.storeDocument(blobs);
+            apartments.putIfAbsent(seed.getApartmentNumber(), seed);
+            changes.markDirty(seed.getApartmentNumber()); // not journaled; the first save writes it
+        }
+        vacancies.rebuild(apartments.values());
+        statistics.rebuild(apartments.values());
+        rents.rebuild(apartments.values());
+        tenants.rebuild(apartments.values());
+    }
+
+    public boolean addApartment(Apartment apartment) {
+        if (!insert(apartment)) return false;
+        events.publish(ChangeBus.added(apartment.getApartmentNumber(), apartment));
+        compactIfNeeded();
+        return true;
+    }
+
+    // Adds a batch, compacting at most once at the end. Returns the apartments whose number was taken.
+    public List<Apartment> addApartments(List<Apartment> batch) {
+        List<Apartment> refused = new ArrayList<>();
+        List<ChangeBus.Change<Apartment>> added = new ArrayList<>(batch.size());
+        for (Apartment apartment : batch) {
+            if (insert(apartment)) added.add(ChangeBus.added(apartment.getApartmentNumber(), apartment));
+            else refused.add(apartment);
+        }
+        events.publish(added);
+        compactIfNeeded();
+        return refused;
+    }
+
+    private boolean insert(Apartment apartment) {
+        Lock lock = apartments.lockFor(apartment.getApartmentNumber());
+        lock.lock();
+        try {
+            if (!insertLocked(apartment)) return false;
+            journal.append(Journal.PUT_REF, apartment::toJournalEntry);
+        } finally {
+            lock.unlock();
+        }
+        return true;
+    }
+
+    // The *Locked helpers expect the caller to hold the record's stripe lock and to journal the change.
+    private boolean insertLocked(Apartment apartment) {
+        if (!apartments.putIfAbsent(apartment.getApartmentNumber(), apartment)) return false;
+        vacancies.put(apartment);
+        statistics.put(apartment);
+        rents.put(apartment);
+        tenants.put(apartment);
+        finder.put(apartment);
+        if (documents.isBuilt()) documents.put(apartment.getApartmentNumber(), apartment.getDocumentContent());
+        changes.markDirty(apartment.getApartmentNumber());
+        apartment.storeDocument(blobs);
+        return true;
+    }
+
+    // Brings the indexes up to date after existing was changed in place.
+    private void changedLocked(Apartment existing, BlobStore.Handle previousDocument) {
+        changes.markDirty(existing.getApartmentNumber());
+        existing.storeDocument(blobs);
+        vacancies.refresh(existing);
+        statistics.refresh(existing);
+        rents.refresh(existing);
+        tenants.refresh(existing);
+        finder.refresh(existing);
+        // Equal handles mean equal text, so only a changed body is re-tokenized.
+        BlobStore.Handle document = existing.getDocumentHandle();
+        if (documents.isBuilt() && (document == null || !document.equals(previousDocument))) {
+            documents.put(existing.getApartmentNumber(), existing.getDocumentContent());
+        }
+    }
+
+    private Apartment deleteLocked(String apartmentNumber) {
+        Apartment removed = apartments.remove(apartmentNumber);
+        if (removed == null) return null;
+        removed.markRemoved();
+        vacancies.remove(apartmentNumber);
+        statistics.remove(apartmentNumber);
+        rents.remove(apartmentNumber);
+        tenants.remove(apartmentNumber);
+        finder.remove(apartmentNumber);
+        documents.remove(apartmentNumber);
+        changes.markDirty(removed.getApartmentNumber());
+        return removed;
+    }
+
+    public Optional<Apartment> findApartmentByNumber(String apartmentNumber) {
+        return Optional.ofNullable(apartments.get(apartmentNumber));
+    }
+
+    public boolean updateApartment(Apartment updatedApartment) {
+        Lock lock = apartments.lockFor(updatedApartment.getApartmentNumber());
+        Apartment before;
+        Apartment existing;
+        lock.lock();
+        try {
+            existing = apartments.get(updatedApartment.getApartmentNumber());
+            if (existing == null) return false;
+            before = events.hasSubscribers() ? existing.snapshot() : null;
+            BlobStore.Handle previousDocument = existing.getDocumentHandle();
+            existing.update(updatedApartment.getTenantName(), updatedApartment.getRent(),
+                    updatedApartment.isOccupied(), updatedApartment.getDocumentContent());
+            changedLocked(existing, previousDocument); // stores the document, so the entry logs its handle
+            journal.append(Journal.PUT_REF, existing::toJournalEntry);
+        } finally {
+            lock.unlock();
+        }
+        events.publish(ChangeBus.updated(existing.getApartmentNumber(), before, existing));
+        compactIfNeeded();
+        return true;
+    }
+
+    public boolean deleteApartment(String apartmentNumber) {
+        if (apartmentNumber == null) return false;
+        Lock lock = apartments.lockFor(apartmentNumber);
+        Apartment removed;
+        lock.lock();
+        try {
+            removed = deleteLocked(apartmentNumber);
+            if (removed == null) return false;
+            journal.append(Journal.DELETE, removed.getApartmentNumber());
+        } finally {
+            lock.unlock();
+        }
+        events.publish(ChangeBus.removed(removed.getApartmentNumber(), removed)); // detached now, so it is its own copy
+        compactIfNeeded();
+        return true;
+    }
+
+    // Lock-free booking: the apartment's state is claimed with compare-and-set, so when several
+    // tenants race for the same unit exactly one gets WON and the rest get ALREADY_TAKEN.
+    public ClaimResult bookApartment(String apartmentNumber, String tenantName) {
+        Apartment apt = apartments.get(apartmentNumber);
+        if (apt == null) return ClaimResult.NOT_FOUND;
+        Apartment before = events.hasSubscribers() ? apt.snapshot() : null;
+        if (!apt.claim(tenantName)) return apt.isRemoved() ? ClaimResult.NOT_FOUND : ClaimResult.ALREADY_TAKEN;
+        vacancies.refresh(apt);
+        statistics.refresh(apt);
+        rents.refresh(apt);
+        tenants.refresh(apt);
+        finder.refresh(apt);
+        journal.append(Journal.PUT_REF, apt::toJournalEntry);
+        changes.markDirty(apt.getApartmentNumber());
+        events.publish(ChangeBus.updated(apt.getApartmentNumber(), before, apt));
+        compactIfNeeded();
+        return ClaimResult.WON;
+    }
+
+    // Starts a batch: stage any number of changes, then commit() applies all of them or none.
+    public Batch batch() {
+        return new Batch();
+    }
+
+    // Multiplies the rent of each listed apartment by (1 + percent / 100), rounded to cents,
+    // as one batch. Unknown numbers reject the whole batch.
+    public BatchResult adjustRents(Collection<String> apartmentNumbers, double percent) {
+        double factor = 1 + percent / 100;
+        Batch batch = batch();
+        for (String number : apartmentNumbers) batch.adjustRent(number, rent -> Math.round(rent * factor * 100) / 100.0);
+        return batch.commit();
+    }
+
+    // Changes staged against this manager and applied together. commit() locks every stripe the
+    // batch touches, checks each change against the state left by the ones before it, and only
+    // then applies them, so a rejected batch leaves nothing behind. The whole batch is journaled
+    // as one unit (replay applies all of it or none) and compaction is considered once.
+    final class Batch {
+        private final List<Staged> staged = new ArrayList<>();
+        private boolean done;
+
+        public Batch add(Apartment apartment) {
+            return stage(new Staged(Staged.ADD, apartment.getApartmentNumber(), apartment, null));
+        }
+
+        public Batch update(Apartment updatedApartment) {
+            return stage(new Staged(Staged.UPDATE, updatedApartment.getApartmentNumber(), updatedApartment, null));
+        }
+
+        public Batch delete(String apartmentNumber) {
+            return stage(new Staged(Staged.DELETE, apartmentNumber, null, null));
+        }
+
+        public Batch setRent(String apartmentNumber, double rent) {
+            return adjustRent(apartmentNumber, current -> rent);
+        }
+
+        // The new rent is computed from the rent the apartment has at that point in the batch.
+        public Batch adjustRent(String apartmentNumber, DoubleUnaryOperator change) {
+            return stage(new Staged(Staged.RENT, apartmentNumber, null, change));
+        }
+
+        public int size() {
+            return staged.size();
+        }
+
+        // Drops everything staged; the managers' state was never touched.
+        public void rollback() {
+            staged.clear();
+            done = true;
+        }
+
+        public BatchResult commit() {
+            if (done) throw new IllegalStateException("Batch already committed or rolled back");
+            done = true;
+            if (staged.isEmpty()) return BatchResult.committed(new ArrayList<>());
+            List<String> keys = new ArrayList<>(staged.size());
+            for (Staged change : staged) keys.add(change.key);
+            Set<String> changed = new LinkedHashSet<>();
+            List<ChangeBus.Change<Apartment>> published = new ArrayList<>(staged.size());
+            List<Lock> locks = apartments.lockAll(keys);
+            try {
+                BatchResult rejected = validate();
+                if (rejected != null) return rejected;
+                // Nothing below can fail: every change was checked while the stripes were held.
+                List<Journal.Entry> log = new ArrayList<>(staged.size());
+                for (Staged change : staged) {
+                    changed.add(change.key);
+                    if (change.kind == Staged.ADD) {
+                        insertLocked(change.apartment);
+                        log.add(new Journal.Entry(Journal.PUT_REF, change.apartment::toJournalEntry));
+                        published.add(ChangeBus.added(change.key, change.apartment));
+                    } else if (change.kind == Staged.DELETE) {
+                        Apartment removed = deleteLocked(change.key);
+                        log.add(new Journal.Entry(Journal.DELETE, removed::getApartmentNumber));
+                        published.add(ChangeBus.removed(change.key, removed));
+                    } else if (change.kind == Staged.UPDATE) {
+                        Apartment existing = apartments.get(change.key);
+                        published.add(ChangeBus.updated(change.key, events.hasSubscribers() ? existing.snapshot() : null, existing));
+                        BlobStore.Handle previousDocument = existing.getDocumentHandle();
+                        existing.update(change.apartment.getTenantName(), change.apartment.getRent(),
+                                change.apartment.isOccupied(), change.apartment.getDocumentContent());
+                        changedLocked(existing, previousDocument);
+                        log.add(new Journal.Entry(Journal.PUT_REF, existing::toJournalEntry));
+                    } else {
+                        // Only the rent moves, so only the indexes that read it need refreshing.
+                        Apartment existing = apartments.get(change.key);
+                        published.add(ChangeBus.updated(change.key, events.hasSubscribers() ? existing.snapshot() : null, existing));
+                        existing.setRent(change.newRent);
+                        rents.refresh(existing);
+                        statistics.refresh(existing);
+                        changes.markDirty(existing.getApartmentNumber());
+                        log.add(new Journal.Entry(Journal.PUT_REF, existing::toJournalEntry));
+                    }
+                }
+                journal.appendAll(log);
+            } finally {
+                for (Lock lock : locks) lock.unlock();
+            }
+            events.publish(published);
+            compactIfNeeded();
+            return BatchResult.committed(new ArrayList<>(changed));
+        }
+
+        // Replays the batch against which numbers exist and what their rents are, without
+        // changing anything. Returns the first rejection, or null if every change applies.
+        private BatchResult validate() {
+            Map<String, Double> rentOf = new HashMap<>(); // normalized number -> rent, null once deleted
+            for (int i = 0; i < staged.size(); i++) {
+                Staged change = staged.get(i);
+                if (change.key == null || change.key.trim().isEmpty()) return BatchResult.rejected(i, "Apartment number is required.");
+                String key = Keys.normalize(change.key);
+                if (!rentOf.containsKey(key)) {
+                    Apartment current = apartments.get(key);
+                    rentOf.put(key, current == null ? null : current.getRent());
+                }
+                Double rent = rentOf.get(key);
+                if (change.kind == Staged.ADD) {
+                    if (rent != null) return BatchResult.rejected(i, "Apartment " + change.key + " already exists.");
+                    rentOf.put(key, change.apartment.getRent());
+                } else if (rent == null) {
+                    return BatchResult.rejected(i, "Apartment " + change.key + " not found.");
+                } else if (change.kind == Staged.DELETE) {
+                    rentOf.put(key, null);
+                } else if (change.kind == Staged.UPDATE) {
+                    rentOf.put(key, change.apartment.getRent());
+                } else {
+                    double newRent = change.rentChange.applyAsDouble(rent);
+                    if (newRent < 0 || Double.isNaN(newRent) || Double.isInfinite(newRent)) {
+                        return BatchResult.rejected(i, "Invalid rent for apartment " + change.key + ".");
+                    }
+                    change.newRent = newRent;
+                    rentOf.put(key, newRent);
+                }
+            }
+            return null;
+        }
+
+        private Batch stage(Staged change) {
+            if (done) throw new IllegalStateException("Batch already committed or rolled back");
+            staged.add(change);
+            return this;
+        }
+    }
+
+    private static final class Staged {
+        static final char ADD = 'A', UPDATE = 'U', DELETE = 'D', RENT = 'R';
+
+        final char kind;
+        final String key;
+        final Apartment apartment;           // ADD, UPDATE
+        final DoubleUnaryOperator rentChange; // RENT
+        double newRent;                      // RENT, resolved by validate()
+
+        Staged(char kind, String key, Apartment apartment, DoubleUnaryOperator rentChange) {
+            this.kind = kind;
+            this.key = key;
+            this.apartment = apartment;
+            this.rentChange = rentChange;
+        }
+    }
+
+    public List<Apartment> getAllApartments() {
+        return apartments.snapshot();
+    }
+
+    // Live, read-only view in listing order, for walking every apartment without copying the list.
+    Collection<Apartment> apartmentsView() {
+        return apartments.values();
+    }
+
+    // Listing order, starting after the first offset apartments.
+    public List<Apartment> getApartments(int offset, int limit) {
+        return apartments.page(offset, limit);
+    }
+
+    // Vacant units straight from the bitmap, without touching occupied ones.
+    public List<Apartment> getAvailableApartments() {
+        return vacancies.listFree();
+    }
+
+    public List<Apartment> getAvailableApartments(int offset, int limit) {
+        return vacancies.listFree(offset, limit);
+    }
+
+    // Apartments whose documents mention any of the query's words, best match first.
+    public List<Apartment> searchDocuments(String query, int limit) {
+        if (!documents.isBuilt()) documents.build(apartments.values(), Apartment::getApartmentNumber, Apartment::getDocumentContent);
+        List<Apartment> matches = new ArrayList<>();
+        for (DocumentIndex.Hit hit : documents.search(query, limit)) {
+            Apartment apt = apartments.get(hit.key);
+            if (apt != null) matches.add(apt);
+        }
+        return matches;
+    }
+
+    // Apartments renting for minRent..maxRent inclusive, cheapest first (ties by number), one page
+    // at a time: pass null for the first page, then the previous page's nextCursor.
+    public RentIndex.Page findApartmentsByRent(double minRent, double maxRent, boolean availableOnly, String cursor, int limit) {
+        return rents.query(minRent, maxRent, availableOnly, cursor, limit);
+    }
+
+    // Apartments whose number or tenant starts with the query's words, tolerating typos; see TrigramIndex.
+    public TrigramIndex.Result<Apartment> findApartments(String query, int limit) {
+        buildFinder();
+        return finder.search(query, limit);
+    }
+
+    // Builds the find-as-you-type index now instead of on the first search.
+    void buildFinder() {
+        if (!finder.isBuilt()) finder.build(apartments.values());
+    }
+
+    // Apartments whose tenant is tenantName, ignoring case; O(results).
+    public List<Apartment> findApartmentsByTenant(String tenantName) {
+        return tenants.find(tenantName);
+    }
+
+    public ApartmentStatistics.Summary getStatistics() {
+        return statistics.summary();
+    }
+
+    public int countAvailableApartments() {
+        return vacancies.countFree();
+    }
+
+    public Optional<Apartment> findFirstAvailableApartment() {
+        return Optional.ofNullable(vacancies.nextFree(0));
+    }
+
+    // Saves only what changed since the last save: nothing when apartments are untouched, otherwise
+    // the journaled edits, so the cost follows the number of edits. The snapshot is rewritten only
+    // once enough records are dirty (or the journal is long) that replay would cost more.
+    public void saveApartments() {
+        if (!changes.hasUnsavedChanges()) return;
+        long mark = changes.changeCount();
+        if (changes.shouldRewrite(apartments.size(), journal.size())) {
+            compactApartments();
+        } else {
+            journal.flush();
+            changes.markSaved(mark);
+        }
+    }
+
+    // Writes a full snapshot and folds the journal into it. Writers are never blocked: every
+    // change that might be missing from the snapshot was journaled after the checkpoint, so it
+    // survives the truncation, and replaying it over the snapshot is idempotent.
+    void compactApartments() {
+        synchronized (saveLock) {
+            long mark = changes.changeCount();
+            Journal.Checkpoint checkpoint = journal.checkpoint();
+            File tmp = new File(fileName + ".tmp");
+            blobs.force(); // the snapshot must never reference a body that is not on disk
+            try {
+                BinarySnapshot.write(tmp, apartments.values(), (out, apt) -> apt.writeTo(out));
+            } catch (IOException e) {
+                System.err.println("Error saving apartments: " + e.getMessage());
+                return;
+            }
+            File target = new File(fileName);
+            boolean installed;
+            synchronized (stampLock) {
+                installed = Journal.installSnapshot(tmp, target);
+                if (installed) snapshotStamp = FileStamp.of(target);
+            }
+            if (installed) {
+                journal.truncate(checkpoint);
+                changes.markSnapshotted(mark);
+                // A body no record holds now is at most named by entries that later ones supersede,
+                // so it can go. Bodies stored while the handles are listed are kept by the mark.
+                blobs.mark();
+                List<BlobStore.Handle> live = new ArrayList<>(apartments.size());
+                for (Apartment apt : apartments.values()) live.add(apt.getDocumentHandle());
+                blobs.compact(live);
+            }
+        }
+    }
+
+    // True when the snapshot file was changed on disk since this manager last read or wrote it.
+    boolean isSnapshotStale() {
+        synchronized (stampLock) {
+            return !FileStamp.of(new File(fileName)).equals(snapshotStamp);
+        }
+    }
+
+    // Re-reads the snapshot, blobs and journal into this same manager after someone else replaced
+    // the snapshot on disk, so every session and the API server holding it keep working on live
+    // data and a journal that still writes. Writers wait on their stripes while the records are
+    // swapped; the old records are marked removed first, so a lock-free booking that still reaches
+    // one fails instead of changing a dropped copy. Views get the swap as removes and adds.
+    void reloadApartments() {
+        List<ChangeBus.Change<Apartment>> published = new ArrayList<>();
+        boolean legacyFormat;
+        synchronized (saveLock) {
+            List<Lock> locks = apartments.lockAll();
+            try {
+                for (Apartment apt : apartments.values()) {
+                    apt.markRemoved();
+                    finder.remove(apt.getApartmentNumber());
+                    documents.remove(apt.getApartmentNumber());
+                    published.add(ChangeBus.removed(apt.getApartmentNumber(), apt));
+                }
+                apartments.clear();
+                journal.flush();
+                blobs.open();
+                legacyFormat = loadApartments();
+                journal.replay(this::applyJournalEntry);
+                vacancies.rebuild(apartments.values());
+                statistics.rebuild(apartments.values());
+                rents.rebuild(apartments.values());
+                tenants.rebuild(apartments.values());
+                for (Apartment apt : apartments.values()) {
+                    finder.put(apt);
+                    if (documents.isBuilt()) documents.put(apt.getApartmentNumber(), apt.getDocumentContent());
+                    published.add(ChangeBus.added(apt.getApartmentNumber(), apt));
+                }
+            } finally {
+                for (Lock lock : locks) lock.unlock();
+            }
+        }
+        if (legacyFormat) compactApartments();
+        events.publish(published);
+    }
+
+    // Mutation counter and dirty records since the last save/snapshot; see Autosave.
+    ChangeTracker getChangeTracker() {
+        return changes;
+    }
+
+    // Added, updated and removed apartments, as they happen; see ChangeBus.
+    ChangeBus<Apartment> events() {
+        return events;
+    }
+
+    // Called after releasing the key lock; compaction takes every stripe.
+    private void compactIfNeeded() {
+        if (journal.size() >= Journal.COMPACT_THRESHOLD) compactApartments();
+    }
+
+    private void applyJournalEntry(char op, String payload) {
+        if (op == Journal.PUT || op == Journal.PUT_REF) {
+            Apartment apt = op == Journal.PUT ? Apartment.fromCsvString(payload) : Apartment.fromJournalEntry(payload, blobs);
+            if (apt != null) {
+                apt.storeDocument(blobs);
+                apartments.put(apt.getApartmentNumber(), apt);
+            }
+        } else if (op == Journal.DELETE) {
+            apartments.remove(payload);
+        }
+    }
+
+    // Returns true when the snapshot was still in the legacy CSV format.
+    private boolean loadApartments() {
+        File file = new File(fileName);
+        snapshotStamp = FileStamp.of(file);
+        if (!file.exists()) return false;
+        if (BinarySnapshot.isBinary(file)) {
+            try {
+                BinarySnapshot.read(file, in -> Apartment.readFrom(in, blobs), apt -> {
+                    apt.storeDocument(blobs); // moves bodies of pre-v3 snapshots out of the heap
+                    apartments.putIfAbsent(apt.getApartmentNumber(), apt);
+                });
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Error loading apartments: " + e.getMessage());
+            }
+            return false;
+        }
+        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Apartment apt = Apartment.fromCsvString(line);
+                if (apt == null) continue;
+                apt.storeDocument(blobs);
+                apartments.putIfAbsent(apt.getApartmentNumber(), apt);
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading apartments: " + e.getMessage());
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,137 @@
+package boardinghouse;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Running occupancy and rent figures for ApartmentManager, kept current on every change so the
+// dashboard never scans. As in AvailabilityIndex, the values each apartment last contributed are
+// remembered and swapped for its current state inside the apartment's ConcurrentHashMap.compute,
+// so whichever refresh runs last after a lock-free booking sees the latest state, and changes to
+// different apartments never wait for each other.
+// Rents are summed in cents in LongAdders to keep the totals exact; min/max come from a sorted
+// multiset. A summary taken while writers run may mix figures from just before and after a change.
+final class ApartmentStatistics {
+    private volatile Totals totals = new Totals();
+
+    // Figures at one instant.
+    static final class Summary {
+        final int units;
+        final int occupied;
+        final double totalRent;    // all units, per month
+        final double occupiedRent; // rent actually due from occupied units, per month
+        final double minRent;
+        final double maxRent;
+
+        Summary(int units, int occupied, double totalRent, double occupiedRent, double minRent, double maxRent) {
+            this.units = units;
+            this.occupied = occupied;
+            this.totalRent = totalRent;
+            this.occupiedRent = occupiedRent;
+            this.minRent = minRent;
+            this.maxRent = maxRent;
+        }
+
+        double occupancyRate() {
+            return units == 0 ? 0 : (double) occupied / units;
+        }
+    }
+
+    // Publishes empty totals before filling them; see AvailabilityIndex.rebuild.
+    void rebuild(Collection<Apartment> all) {
+        Totals fresh = new Totals();
+        totals = fresh;
+        for (Apartment apt : all) put(fresh, apt);
+    }
+
+    // Adds an apartment, or replaces what an existing key contributed.
+    void put(Apartment apt) {
+        put(totals, apt);
+    }
+
+    private static void put(Totals t, Apartment apt) {
+        t.counted.compute(Keys.normalize(apt.getApartmentNumber()), (key, before) -> {
+            t.uncount(before);
+            return t.count(new Counted(apt));
+        });
+    }
+
+    // Re-reads an apartment's state after it changed. Apartments no longer counted are ignored.
+    void refresh(Apartment apt) {
+        String key = Keys.normalize(apt.getApartmentNumber());
+        Totals t = totals;
+        while (true) {
+            refresh(t, key, apt);
+            Totals latest = totals;
+            if (latest == t) return;
+            t = latest; // rebuilt meanwhile
+        }
+    }
+
+    private static void refresh(Totals t, String key, Apartment apt) {
+        t.counted.computeIfPresent(key, (k, before) -> {
+            if (before.apartment != apt) return before;
+            t.uncount(before);
+            return t.count(new Counted(apt));
+        });
+    }
+
+    void remove(String apartmentNumber) {
+        Totals t = totals;
+        t.counted.computeIfPresent(Keys.normalize(apartmentNumber), (key, before) -> {
+            t.uncount(before);
+            return null;
+        });
+    }
+
+    Summary summary() {
+        Totals t = totals;
+        Map.Entry<Long, Integer> min = t.rents.firstEntry();
+        Map.Entry<Long, Integer> max = t.rents.lastEntry();
+        return new Summary(t.counted.size(), t.occupied.intValue(), t.rentCents.sum() / 100.0,
+                t.occupiedRentCents.sum() / 100.0, min == null ? 0 : min.getKey() / 100.0, max == null ? 0 : max.getKey() / 100.0);
+    }
+
+    // The figures of one generation; rebuild() starts a new one.
+    private static final class Totals {
+        final ConcurrentHashMap<String, Counted> counted = new ConcurrentHashMap<>();
+        final ConcurrentSkipListMap<Long, Integer> rents = new ConcurrentSkipListMap<>(); // rent in cents -> number of units
+        final LongAdder occupied = new LongAdder();
+        final LongAdder rentCents = new LongAdder();
+        final LongAdder occupiedRentCents = new LongAdder();
+
+        Counted count(Counted c) {
+            rentCents.add(c.rentCents);
+            rents.merge(c.rentCents, 1, Integer::sum);
+            if (c.occupied) {
+                occupied.increment();
+                occupiedRentCents.add(c.rentCents);
+            }
+            return c;
+        }
+
+        void uncount(Counted c) {
+            if (c == null) return;
+            rentCents.add(-c.rentCents);
+            rents.merge(c.rentCents, -1, (n, minus) -> n + minus == 0 ? null : n + minus);
+            if (c.occupied) {
+                occupied.decrement();
+                occupiedRentCents.add(-c.rentCents);
+            }
+        }
+    }
+
+    private static final class Counted {
+        final Apartment apartment;
+        final long rentCents;
+        final boolean occupied;
+
+        Counted(Apartment apt) {
+            this.apartment = apt;
+            this.rentCents = Math.round(apt.getRent() * 100);
+            this.occupied = apt.isOccupied();
+        }
+    }
+}
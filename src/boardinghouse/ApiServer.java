@@ -0,0 +1,523 @@
+package boardinghouse;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+// Headless REST/JSON front end over the same managers the Swing GUI uses.
+// Every request runs on its own virtual thread, so thousands of slow kiosk connections cost
+// no platform threads; the managers are already safe for concurrent callers.
+// Requests authenticate with HTTP Basic against the user store, or with a session token from
+// POST /api/session sent as "Authorization: Bearer <token>", which skips the password hash.
+// Either way the caller gets the same permission bits as in the GUI (see Permissions):
+// administrators manage records, regular users book and reserve for themselves.
+//
+//   POST   /api/session (Basic) -> {"token": ...}    DELETE /api/session (Bearer)
+//   GET    /api/me                  the caller plus their apartments and parking spots
+//   GET    /api/apartments[?available=true][&offset=&limit=]   POST /api/apartments (admin)
+//   GET    /api/apartments?minRent=&maxRent=[&available=true][&cursor=&limit=]   cheapest first;
+//          the next page's cursor comes back in the X-Next-Cursor header
+//   GET    /api/apartments?tenant=  GET /api/parking?tenant=   one tenant's records, any case
+//   GET    /api/apartments/{no}     PUT/DELETE /api/apartments/{no} (admin)
+//   POST   /api/apartments/{no}/book
+//   GET    /api/parking[?available=true | ?free=YYYY-MM-DD[..YYYY-MM-DD]]   POST /api/parking (admin)
+//   GET    /api/parking/{spot}      DELETE /api/parking/{spot} (admin)
+//   POST   /api/parking/{spot}/reservations {"dates": "..."}   DELETE /api/parking/{spot}/reservations
+//   GET    /api/users (admin)       POST /api/users (admin)     DELETE /api/users/{name} (admin)
+//
+// Start with: gradle run --args='--server [port]'
+class ApiServer {
+    static final int DEFAULT_PORT = Integer.getInteger("boarding.server.port", 8080);
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    // Largest request body read; anything bigger is a 413 before it is buffered or parsed.
+    private static final int MAX_BODY_BYTES = Integer.getInteger("boarding.server.maxBodyBytes", 1 << 20);
+
+    private final ApartmentManager apartments;
+    private final ParkingLotManager parkingLots;
+    private final UserManager users;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    // Serves the process-wide datasets from DataRepository, looked up once here: the lookup is
+    // synchronized and stats the snapshot file, so doing it per request would serialize every
+    // virtual thread on one monitor. Holding them is safe, since the repository reloads a manager
+    // in place rather than replacing it.
+    ApiServer() {
+        this(DataRepository.get().apartments(), DataRepository.get().parkingLots(), DataRepository.get().users());
+    }
+
+    ApiServer(ApartmentManager apartments, ParkingLotManager parkingLots, UserManager users) {
+        this.apartments = apartments;
+        this.parkingLots = parkingLots;
+        this.users = users;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        ApiServer api = new ApiServer();
+        api.start(port);
+        System.out.println("Boarding house API listening on http://localhost:" + api.getPort() + "/api/");
+    }
+
+    // Port 0 picks a free port; see getPort().
+    void start(int port) throws IOException {
+        // Headers and body go out as separate writes; without TCP_NODELAY each small response
+        // waits ~40 ms for the client's delayed ACK. Read once, when the first server is created.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress(port), 1024);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/api/", this::handle);
+        server.start();
+    }
+
+    void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) {
+        try {
+            Session session = authenticate(exchange);
+            if (session == null) {
+                exchange.getResponseHeaders().set("WWW-Authenticate", "Basic realm=\"boarding-house\"");
+                send(exchange, 401, error("Authentication required"));
+                return;
+            }
+            Request request = new Request(exchange, session);
+            switch (request.segment(0)) {
+                case "me":
+                    request.requireMethod("GET");
+                    send(exchange, 200, "{\"username\":" + Json.quote(request.username) + ",\"role\":" + Json.quote(session.role)
+                            + ",\"apartments\":" + array(apartments.findApartmentsByTenant(request.username), ApiServer::apartmentJson)
+                            + ",\"parking\":" + array(parkingLots.findSpotsByTenant(request.username), ApiServer::spotJson) + "}");
+                    break;
+                case "session": handleSession(request); break;
+                case "apartments": handleApartments(request); break;
+                case "parking": handleParking(request); break;
+                case "users": handleUsers(request); break;
+                default: throw new HttpError(404, "Unknown resource");
+            }
+        } catch (HttpError e) {
+            send(exchange, e.status, error(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            send(exchange, 400, error(e.getMessage()));
+        } catch (RuntimeException | IOException e) {
+            System.err.println("Error handling " + exchange.getRequestMethod() + " " + exchange.getRequestURI() + ": " + e);
+            send(exchange, 500, error("Internal error"));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // Basic credentials open a session and get its token; a Bearer caller can end its session.
+    private void handleSession(Request request) {
+        if (request.is("POST")) {
+            if (request.session.token != null) throw new HttpError(409, "Already using a session token");
+            Session opened = SessionManager.get().open(request.username, request.session.role);
+            request.send(201, "{\"token\":" + Json.quote(opened.token) + ",\"username\":" + Json.quote(opened.username)
+                    + ",\"role\":" + Json.quote(opened.role) + ",\"expiresInSeconds\":" + SessionManager.TTL_MILLIS / 1000 + "}");
+            return;
+        }
+        request.requireMethod("DELETE");
+        if (request.session.token == null) throw new IllegalArgumentException("No session token presented");
+        SessionManager.get().close(request.session.token);
+        request.send(204, null);
+    }
+
+    // A Bearer token's live session, or a one-request session for valid Basic credentials.
+    private Session authenticate(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header != null && header.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            return SessionManager.get().find(header.substring(7).trim());
+        }
+        String[] credentials = basicCredentials(exchange);
+        if (credentials == null) return null;
+        UserManager manager = users;
+        String role = manager.authenticate(credentials[0], credentials[1]);
+        if (role == null) return null;
+        String username = manager.findUserByUsername(credentials[0]).map(User::getUsername).orElse(credentials[0]);
+        return new Session(null, username, role);
+    }
+
+    private void handleApartments(Request request) throws IOException {
+        ApartmentManager manager = apartments;
+        String number = request.segment(1);
+        if (number.isEmpty()) {
+            if (request.is("GET")) {
+                int offset = request.intParam("offset", 0), limit = request.pageSize();
+                boolean available = "true".equals(request.param("available"));
+                if (request.param("tenant") != null) {
+                    List<Apartment> matches = manager.findApartmentsByTenant(request.param("tenant"));
+                    request.send(200, array(matches.subList(Math.min(offset, matches.size()), Math.min(offset + limit, matches.size())), ApiServer::apartmentJson));
+                    return;
+                }
+                if (request.param("minRent") != null || request.param("maxRent") != null) {
+                    RentIndex.Page page = manager.findApartmentsByRent(request.doubleParam("minRent", 0),
+                            request.doubleParam("maxRent", Double.MAX_VALUE), available, request.param("cursor"), limit);
+                    if (page.nextCursor != null) request.exchange.getResponseHeaders().set("X-Next-Cursor", page.nextCursor);
+                    request.send(200, array(page.records, ApiServer::apartmentJson));
+                    return;
+                }
+                List<Apartment> page = available
+                        ? manager.getAvailableApartments(offset, limit)
+                        : manager.getApartments(offset, limit);
+                request.send(200, array(page, ApiServer::apartmentJson));
+            } else {
+                request.requireMethod("POST");
+                request.require(Permissions.MANAGE_APARTMENTS);
+                Apartment apt = apartmentFromBody(request.body(), null);
+                if (!manager.addApartment(apt)) throw new HttpError(409, "Apartment " + apt.getApartmentNumber() + " already exists");
+                request.send(201, apartmentJson(apt));
+            }
+            return;
+        }
+        if ("book".equals(request.segment(2))) {
+            request.requireMethod("POST");
+            request.require(Permissions.BOOK_APARTMENT);
+            switch (manager.bookApartment(number, request.username)) {
+                case WON: request.send(200, apartmentJson(manager.findApartmentByNumber(number).orElseThrow(() -> new HttpError(404, "Apartment not found")))); return;
+                case ALREADY_TAKEN: throw new HttpError(409, "Apartment " + number + " is already occupied");
+                default: throw new HttpError(404, "Apartment not found");
+            }
+        }
+        if (!request.segment(2).isEmpty()) throw new HttpError(404, "Unknown resource");
+        switch (request.method) {
+            case "GET": {
+                Apartment apt = manager.findApartmentByNumber(number).orElseThrow(() -> new HttpError(404, "Apartment not found"));
+                String json = apartmentJson(apt);
+                request.send(200, json.substring(0, json.length() - 1) + ",\"document\":" + Json.quote(apt.getDocumentContent()) + "}");
+                break;
+            }
+            case "PUT": {
+                request.require(Permissions.MANAGE_APARTMENTS);
+                Apartment apt = apartmentFromBody(request.body(), number);
+                if (!manager.updateApartment(apt)) throw new HttpError(404, "Apartment not found");
+                request.send(200, apartmentJson(manager.findApartmentByNumber(number).orElse(apt)));
+                break;
+            }
+            case "DELETE":
+                request.require(Permissions.MANAGE_APARTMENTS);
+                if (!manager.deleteApartment(number)) throw new HttpError(404, "Apartment not found");
+                request.send(204, null);
+                break;
+            default: throw new HttpError(405, "Method not allowed");
+        }
+    }
+
+    private void handleParking(Request request) throws IOException {
+        ParkingLotManager manager = parkingLots;
+        String spotNumber = request.segment(1);
+        if (spotNumber.isEmpty()) {
+            if (request.is("GET")) {
+                int offset = request.intParam("offset", 0), limit = request.pageSize();
+                List<ParkingLot> page;
+                if (request.param("tenant") != null) {
+                    List<ParkingLot> matches = manager.findSpotsByTenant(request.param("tenant"));
+                    page = matches.subList(Math.min(offset, matches.size()), Math.min(offset + limit, matches.size()));
+                } else if (request.param("free") != null) {
+                    long[] range = parseDates(request.param("free"));
+                    page = manager.findFreeSpots(range[0], range[1], offset, limit);
+                } else if ("true".equals(request.param("available"))) {
+                    page = manager.getUnreservedSpots(offset, limit);
+                } else {
+                    page = manager.getParkingLots(offset, limit);
+                }
+                request.send(200, array(page, ApiServer::spotJson));
+            } else {
+                request.requireMethod("POST");
+                request.require(Permissions.MANAGE_PARKING);
+                String number = Json.getString(request.body(), "spot");
+                if (number == null || number.trim().isEmpty()) throw new IllegalArgumentException("Missing \"spot\"");
+                ParkingLot spot = new ParkingLot(number.trim(), false, null, null);
+                if (!manager.addSpot(spot)) throw new HttpError(409, "Parking spot " + number + " already exists");
+                request.send(201, spotJson(spot));
+            }
+            return;
+        }
+        if ("reservations".equals(request.segment(2))) {
+            if (request.is("POST")) {
+                request.require(Permissions.RESERVE_PARKING);
+                long[] range = parseDates(Json.getString(request.body(), "dates"));
+                switch (manager.claimSpot(spotNumber, request.username, range[0], range[1])) {
+                    case WON: request.send(201, spotJson(spot(manager, spotNumber))); return;
+                    case ALREADY_TAKEN: throw new HttpError(409, "Spot " + spotNumber + " is already booked for part of that period");
+                    default: throw new HttpError(404, "Parking spot not found");
+                }
+            }
+            request.requireMethod("DELETE");
+            // Regular users cancel their own bookings; administrators clear the spot.
+            if (!manager.cancelReservation(spotNumber, request.can(Permissions.CANCEL_ANY_RESERVATION) ? null : request.username)) {
+                throw new HttpError(404, "No matching reservation");
+            }
+            request.send(204, null);
+            return;
+        }
+        if (!request.segment(2).isEmpty()) throw new HttpError(404, "Unknown resource");
+        if (request.is("GET")) {
+            request.send(200, spotJson(spot(manager, spotNumber)));
+        } else {
+            request.requireMethod("DELETE");
+            request.require(Permissions.MANAGE_PARKING);
+            if (!manager.deleteSpot(spotNumber)) throw new HttpError(404, "Parking spot not found");
+            request.send(204, null);
+        }
+    }
+
+    private void handleUsers(Request request) throws IOException {
+        request.require(Permissions.MANAGE_USERS);
+        UserManager manager = users;
+        String username = request.segment(1);
+        if (username.isEmpty()) {
+            if (request.is("GET")) {
+                request.send(200, array(manager.getUsers(request.intParam("offset", 0), request.pageSize()), ApiServer::userJson));
+            } else {
+                request.requireMethod("POST");
+                Map<String, Object> body = request.body();
+                String name = Json.getString(body, "username");
+                String password = Json.getString(body, "password");
+                String role = Optional.ofNullable(Json.getString(body, "role")).orElse("regular");
+                if (name == null || name.trim().isEmpty() || password == null || password.isEmpty()) {
+                    throw new IllegalArgumentException("\"username\" and \"password\" are required");
+                }
+                if (!"admin".equals(role) && !"regular".equals(role)) throw new IllegalArgumentException("Unknown role " + role);
+                User user = new User(name.trim(), password, role);
+                if (!manager.addUser(user)) throw new HttpError(409, "User " + name + " already exists");
+                request.send(201, userJson(user));
+            }
+            return;
+        }
+        request.requireMethod("DELETE");
+        if (username.equalsIgnoreCase(request.username)) throw new HttpError(409, "You cannot delete your own account");
+        if (!manager.deleteUser(username)) throw new HttpError(404, "User not found");
+        SessionManager.get().closeAll(username);
+        request.send(204, null);
+    }
+
+    // {username, password} from an HTTP Basic header, or null when absent or malformed.
+    private static String[] basicCredentials(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.regionMatches(true, 0, "Basic ", 0, 6)) return null;
+        String credentials;
+        try {
+            credentials = new String(Base64.getDecoder().decode(header.substring(6).trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        int colon = credentials.indexOf(':');
+        if (colon < 0) return null;
+        return new String[]{credentials.substring(0, colon), credentials.substring(colon + 1)};
+    }
+
+    private static ParkingLot spot(ParkingLotManager manager, String spotNumber) {
+        return manager.findSpotByNumber(spotNumber).orElseThrow(() -> new HttpError(404, "Parking spot not found"));
+    }
+
+    private static long[] parseDates(String text) {
+        long[] range = Reservation.parseRange(text);
+        if (range == null) throw new IllegalArgumentException("Dates must be YYYY-MM-DD or YYYY-MM-DD..YYYY-MM-DD");
+        return range;
+    }
+
+    // Same checks as a bulk import row (see BulkTransfer); a bad body is a 400.
+    private static Apartment apartmentFromBody(Map<String, Object> body, String pathNumber) {
+        String number = pathNumber != null ? pathNumber : Json.getString(body, "number");
+        Object rent = body.get("rent");
+        if (rent == null) throw new IllegalArgumentException("Missing \"rent\"");
+        String tenant = Optional.ofNullable(Json.getString(body, "tenant")).orElse("");
+        return BulkTransfer.newApartment(number, tenant, BulkTransfer.parseRent(rent.toString()),
+                Json.getBoolean(body, "occupied", !tenant.trim().isEmpty()),
+                Optional.ofNullable(Json.getString(body, "document")).orElse(""));
+    }
+
+    static String apartmentJson(Apartment apt) {
+        return "{\"number\":" + Json.quote(apt.getApartmentNumber())
+                + ",\"tenant\":" + Json.quote(apt.getTenantName())
+                + ",\"rent\":" + apt.getRent()
+                + ",\"occupied\":" + apt.isOccupied()
+                + ",\"hasDocument\":" + apt.hasDocument() + "}";
+    }
+
+    static String spotJson(ParkingLot spot) {
+        StringBuilder json = new StringBuilder("{\"spot\":").append(Json.quote(spot.getSpotNumber()))
+                .append(",\"reserved\":").append(spot.isReserved())
+                .append(",\"reservations\":[");
+        List<Reservation> reservations = spot.getReservations();
+        for (int i = 0; i < reservations.size(); i++) {
+            Reservation r = reservations.get(i);
+            if (i > 0) json.append(',');
+            json.append("{\"tenant\":").append(Json.quote(r.getTenantName()))
+                    .append(",\"from\":").append(Json.quote(r.getStartDate().toString()))
+                    .append(",\"to\":").append(Json.quote(r.getEndDate().toString())).append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+    static String userJson(User user) {
+        return "{\"username\":" + Json.quote(user.getUsername()) + ",\"role\":" + Json.quote(user.getRole()) + "}";
+    }
+
+    private static <T> String array(List<T> records, Function<T, String> toJson) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < records.size(); i++) {
+            if (i > 0) json.append(',');
+            json.append(toJson.apply(records.get(i)));
+        }
+        return json.append(']').toString();
+    }
+
+    private static String error(String message) {
+        return "{\"error\":" + Json.quote(message) + "}";
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) {
+        try {
+            if (json == null) {
+                exchange.sendResponseHeaders(status, -1);
+                return;
+            }
+            byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing response: " + e.getMessage()); // client went away
+        }
+    }
+
+    // One parsed request: method, path segments below /api/, query parameters and the caller.
+    private static final class Request {
+        final HttpExchange exchange;
+        final String method;
+        final Session session;
+        final String username;
+        private final String[] segments;
+        private final Map<String, String> params = new HashMap<>();
+
+        Request(HttpExchange exchange, Session session) {
+            this.exchange = exchange;
+            this.method = exchange.getRequestMethod().toUpperCase(Locale.ROOT);
+            this.session = session;
+            this.username = session.username;
+            String path = exchange.getRequestURI().getRawPath().substring("/api/".length());
+            this.segments = path.split("/");
+            for (int i = 0; i < segments.length; i++) segments[i] = URLDecoder.decode(segments[i], StandardCharsets.UTF_8);
+            String query = exchange.getRequestURI().getRawQuery();
+            if (query != null) {
+                for (String pair : query.split("&")) {
+                    int eq = pair.indexOf('=');
+                    if (eq > 0) {
+                        params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                                URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+                    }
+                }
+            }
+        }
+
+        String segment(int index) {
+            return index < segments.length ? segments[index] : "";
+        }
+
+        String param(String name) {
+            return params.get(name);
+        }
+
+        int intParam(String name, int fallback) {
+            String value = params.get(name);
+            if (value == null) return fallback;
+            try {
+                return Math.max(0, Integer.parseInt(value));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid " + name + ": " + value);
+            }
+        }
+
+        double doubleParam(String name, double fallback) {
+            String value = params.get(name);
+            if (value == null) return fallback;
+            try {
+                return Math.max(0, Double.parseDouble(value));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid " + name + ": " + value);
+            }
+        }
+
+        int pageSize() {
+            return Math.min(MAX_PAGE_SIZE, Math.max(1, intParam("limit", DEFAULT_PAGE_SIZE)));
+        }
+
+        boolean is(String expected) {
+            return method.equals(expected);
+        }
+
+        boolean can(int permission) {
+            return session.can(permission);
+        }
+
+        void requireMethod(String expected) {
+            if (!is(expected)) throw new HttpError(405, "Method not allowed");
+        }
+
+        void require(int permission) {
+            if (!session.can(permission)) throw new HttpError(403, "Not permitted for the " + session.role + " role");
+        }
+
+        Map<String, Object> body() throws IOException {
+            String declared = exchange.getRequestHeaders().getFirst("Content-Length");
+            if (declared != null) {
+                try {
+                    if (Long.parseLong(declared.trim()) > MAX_BODY_BYTES) throw tooLarge();
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid Content-Length: " + declared);
+                }
+            }
+            try (InputStream in = exchange.getRequestBody()) {
+                byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1); // chunked bodies have no length up front
+                if (bytes.length > MAX_BODY_BYTES) throw tooLarge();
+                String text = new String(bytes, StandardCharsets.UTF_8).trim();
+                if (text.isEmpty()) throw new IllegalArgumentException("Request body required");
+                return Json.parseObject(text);
+            }
+        }
+
+        private static HttpError tooLarge() {
+            return new HttpError(413, "Request body larger than " + MAX_BODY_BYTES + " bytes");
+        }
+
+        void send(int status, String json) {
+            ApiServer.send(exchange, status, json);
+        }
+    }
+
+    private static final class HttpError extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        final int status;
+
+        HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package boardinghouse;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Debounced background saving for one manager.
+// Every change (reported through the manager's ChangeTracker) pushes the next save back by the
+// debounce interval, so a burst of edits becomes one save once the burst settles; under
+// a steady stream of edits a save still happens at least every maxDelay.
+// The save itself is the manager's incremental save: it flushes the journal, so its cost follows
+// the number of edits, and only rewrites the snapshot once the manager's ChangeTracker says enough
+// is dirty. It runs on a daemon thread, never the EDT.
+final class Autosave {
+    // Quiet period after the last change before saving. 0 or less disables autosave.
+    static final long DEBOUNCE_MILLIS = Long.getLong("boarding.autosave.debounceMillis", 2_000L);
+    // Longest a change waits for a save while edits keep coming.
+    static final long MAX_DELAY_MILLIS = Long.getLong("boarding.autosave.maxDelayMillis", 30_000L);
+
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "autosave");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final String name;
+    private final ChangeTracker changes;
+    private final Runnable save;
+    private volatile long lastChangeNanos;
+    private long firstChangeNanos; // guarded by this
+    private boolean scheduled;     // guarded by this
+
+    private Autosave(String name, ChangeTracker changes, Runnable save) {
+        this.name = name;
+        this.changes = changes;
+        this.save = save;
+    }
+
+    // Starts saving the manager behind changes with save for the life of the process; returns null
+    // when autosave is disabled.
+    static Autosave start(String name, ChangeTracker changes, Runnable save) {
+        if (DEBOUNCE_MILLIS <= 0) return null;
+        Autosave autosave = new Autosave(name, changes, save);
+        changes.setListener(autosave::changed);
+        if (changes.hasUnsavedChanges()) autosave.changed();
+        return autosave;
+    }
+
+    // Called on the writer's thread, under its record lock: only records the time and makes sure
+    // one timer is pending, so bursts cost a volatile write per edit instead of a reschedule.
+    private void changed() {
+        long now = System.nanoTime();
+        lastChangeNanos = now;
+        synchronized (this) {
+            if (scheduled) return;
+            scheduled = true;
+            firstChangeNanos = now;
+        }
+        SCHEDULER.schedule(this::tick, DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void tick() {
+        long now = System.nanoTime();
+        synchronized (this) {
+            long quietAt = lastChangeNanos + TimeUnit.MILLISECONDS.toNanos(DEBOUNCE_MILLIS);
+            long deadline = firstChangeNanos + TimeUnit.MILLISECONDS.toNanos(MAX_DELAY_MILLIS);
+            long wait = Math.min(quietAt, deadline) - now;
+            if (wait > 0) {
+                SCHEDULER.schedule(this::tick, wait, TimeUnit.NANOSECONDS);
+                return;
+            }
+            scheduled = false;
+        }
+        if (!changes.hasUnsavedChanges()) return;
+        try {
+            save.run();
+        } catch (RuntimeException e) {
+            System.err.println("Autosave of " + name + " failed: " + e.getMessage());
+        }
+    }
+}
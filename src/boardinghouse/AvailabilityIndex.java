@@ -0,0 +1,204 @@
+package boardinghouse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// Bitmap of which records are currently free (vacant apartments, unreserved spots).
+// Every record gets a dense slot; bit i of the bitmap is set while slot i is free, so
+// "next free" / "list free" skip 64 taken records per step and "count free" is a counter kept
+// as bits flip. A million records fit in 128 KB of bits.
+// Writers never take an index-wide lock: a record's slot is changed inside its key's
+// ConcurrentHashMap.compute, bits flip by compare-and-set, and the free count is a LongAdder, so
+// writers to different records run in parallel. Records change state lock-free (compare-and-set),
+// so refresh() re-reads the record's state inside that compute: whichever refresh of a record
+// runs last sees its latest state and wins. Queries read without locking and may miss a change
+// that is still in flight.
+final class AvailabilityIndex<T> {
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK_SLOTS = 1 << CHUNK_BITS; // slots per chunk; chunks never move
+    private static final int CHUNK_WORDS = CHUNK_SLOTS >>> 6;
+
+    private final Function<T, String> keyOf;
+    private final Predicate<T> isFree;
+    private volatile Slots slots = new Slots(0);
+
+    AvailabilityIndex(Function<T, String> keyOf, Predicate<T> isFree) {
+        this.keyOf = keyOf;
+        this.isFree = isFree;
+    }
+
+    // Replaces the whole index, e.g. after a manager finished loading its snapshot and journal.
+    // The empty index is published before it is filled, so a refresh racing the rebuild either
+    // re-reads its record into the new index or finds it there already re-read by put().
+    void rebuild(Collection<T> all) {
+        Slots fresh = new Slots(all.size());
+        slots = fresh;
+        for (T record : all) put(fresh, record);
+    }
+
+    // Adds a record, or re-points an existing key at a new record object.
+    void put(T record) {
+        put(slots, record);
+    }
+
+    private void put(Slots s, T record) {
+        s.slotByKey.compute(Keys.normalize(keyOf.apply(record)), (key, slot) -> {
+            if (slot == null) slot = s.allocate();
+            s.setRecord(slot, record);
+            s.setFree(slot, isFree.test(record));
+            return slot;
+        });
+    }
+
+    // Re-reads a record's state after it changed. Records no longer indexed (deleted) are ignored.
+    void refresh(T record) {
+        String key = Keys.normalize(keyOf.apply(record));
+        Slots s = slots;
+        while (true) {
+            refresh(s, key, record);
+            Slots latest = slots;
+            if (latest == s) return;
+            s = latest; // rebuilt meanwhile
+        }
+    }
+
+    private void refresh(Slots s, String key, T record) {
+        s.slotByKey.computeIfPresent(key, (k, slot) -> {
+            if (s.record(slot) == record) s.setFree(slot, isFree.test(record));
+            return slot;
+        });
+    }
+
+    void remove(String key) {
+        if (key == null) return;
+        Slots s = slots;
+        s.slotByKey.computeIfPresent(Keys.normalize(key), (k, slot) -> {
+            s.setFree(slot, false);
+            s.setRecord(slot, null);
+            s.freedSlots.push(slot);
+            return null;
+        });
+    }
+
+    int countFree() {
+        return slots.freeCount.intValue();
+    }
+
+    // First free record at or after the given slot, scanning word by word; null if there is none.
+    @SuppressWarnings("unchecked")
+    T nextFree(int fromSlot) {
+        Slots s = slots;
+        for (int slot = s.nextSetBit(fromSlot); slot >= 0; slot = s.nextSetBit(slot + 1)) {
+            Object record = s.record(slot);
+            if (record != null) return (T) record; // null: removed after its bit was read
+        }
+        return null;
+    }
+
+    // Every free record, in slot order.
+    List<T> listFree() {
+        return listFree(0, Integer.MAX_VALUE);
+    }
+
+    // One page of listFree(): skips offset free records, then collects up to limit.
+    @SuppressWarnings("unchecked")
+    List<T> listFree(int offset, int limit) {
+        Slots s = slots;
+        List<T> free = new ArrayList<>(Math.min(limit, Math.max(0, s.freeCount.intValue() - offset)));
+        int skipped = 0;
+        for (int slot = s.nextSetBit(0); slot >= 0 && free.size() < limit; slot = s.nextSetBit(slot + 1)) {
+            Object record = s.record(slot);
+            if (record != null && skipped++ >= offset) free.add((T) record);
+        }
+        return free;
+    }
+
+    // The slots and bits of one generation of the index; rebuild() starts a new one.
+    private static final class Slots {
+        final ConcurrentHashMap<String, Integer> slotByKey = new ConcurrentHashMap<>();
+        final Deque<Integer> freedSlots = new ConcurrentLinkedDeque<>(); // slots of removed records, reused first
+        final AtomicInteger slotCount = new AtomicInteger();
+        final LongAdder freeCount = new LongAdder();
+        volatile Chunk[] chunks; // only grows, under this object's lock
+
+        Slots(int expected) {
+            chunks = new Chunk[Math.max(1, (expected + CHUNK_SLOTS - 1) >>> CHUNK_BITS)];
+            for (int i = 0; i < chunks.length; i++) chunks[i] = new Chunk();
+        }
+
+        int allocate() {
+            Integer reused = freedSlots.poll();
+            int slot = reused != null ? reused : slotCount.getAndIncrement();
+            ensureCapacity(slot);
+            return slot;
+        }
+
+        Object record(int slot) {
+            return chunks[slot >>> CHUNK_BITS].records.get(slot & (CHUNK_SLOTS - 1));
+        }
+
+        void setRecord(int slot, Object record) {
+            chunks[slot >>> CHUNK_BITS].records.set(slot & (CHUNK_SLOTS - 1), record);
+        }
+
+        void setFree(int slot, boolean free) {
+            AtomicLongArray words = chunks[slot >>> CHUNK_BITS].words;
+            int w = (slot & (CHUNK_SLOTS - 1)) >>> 6;
+            long mask = 1L << (slot & 63);
+            while (true) {
+                long before = words.get(w);
+                long after = free ? before | mask : before & ~mask;
+                if (before == after) return;
+                if (words.compareAndSet(w, before, after)) break;
+            }
+            if (free) freeCount.increment();
+            else freeCount.decrement();
+        }
+
+        int nextSetBit(int fromSlot) {
+            if (fromSlot < 0) fromSlot = 0;
+            Chunk[] chunks = this.chunks;
+            int wordCount = chunks.length * CHUNK_WORDS;
+            int w = fromSlot >>> 6;
+            if (w >= wordCount) return -1;
+            long word = word(chunks, w) & (-1L << (fromSlot & 63));
+            while (true) {
+                if (word != 0) return (w << 6) + Long.numberOfTrailingZeros(word);
+                if (++w == wordCount) return -1;
+                word = word(chunks, w);
+            }
+        }
+
+        private static long word(Chunk[] chunks, int w) {
+            return chunks[w / CHUNK_WORDS].words.get(w % CHUNK_WORDS);
+        }
+
+        private void ensureCapacity(int slot) {
+            int needed = (slot >>> CHUNK_BITS) + 1;
+            if (needed <= chunks.length) return;
+            synchronized (this) {
+                Chunk[] current = chunks;
+                if (needed <= current.length) return;
+                Chunk[] grown = Arrays.copyOf(current, Math.max(needed, current.length * 2));
+                for (int i = current.length; i < grown.length; i++) grown[i] = new Chunk();
+                chunks = grown;
+            }
+        }
+    }
+
+    private static final class Chunk {
+        final AtomicLongArray words = new AtomicLongArray(CHUNK_WORDS);
+        final AtomicReferenceArray<Object> records = new AtomicReferenceArray<>(CHUNK_SLOTS);
+    }
+}
@@ -0,0 +1,34 @@
+package boardinghouse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Outcome of committing a manager batch. Either every staged change was applied, or none was
+// and failedAt/error name the first change that could not be.
+final class BatchResult {
+    final boolean committed;
+    final List<String> changedKeys; // record numbers touched, in the order first staged
+    final int failedAt;             // index of the rejected change, or -1
+    final String error;
+
+    private BatchResult(boolean committed, List<String> changedKeys, int failedAt, String error) {
+        this.committed = committed;
+        this.changedKeys = changedKeys;
+        this.failedAt = failedAt;
+        this.error = error;
+    }
+
+    static BatchResult committed(List<String> changedKeys) {
+        return new BatchResult(true, Collections.unmodifiableList(new ArrayList<>(changedKeys)), -1, null);
+    }
+
+    static BatchResult rejected(int failedAt, String error) {
+        return new BatchResult(false, Collections.emptyList(), failedAt, error);
+    }
+
+    @Override
+    public String toString() {
+        return committed ? "committed " + changedKeys.size() + " record(s)" : "change " + (failedAt + 1) + " rejected: " + error;
+    }
+}
@@ -0,0 +1,116 @@
+package boardinghouse;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+// Versioned binary snapshot format shared by the managers.
+// Layout: magic, format version, record count, then the records back to back.
+// Strings are an int byte length (-1 for null) followed by UTF-8 bytes; numbers are raw primitives.
+class BinarySnapshot {
+    static final int MAGIC = 0x42485331; // "BHS1"
+    // 2: parking spots store a reservation calendar instead of a single flag/tenant/date.
+    // 3: apartments store a document blob handle (see BlobStore) instead of the document text.
+    static final int VERSION = 3;
+
+    interface RecordWriter<T> {
+        void write(DataOutputStream out, T record) throws IOException;
+    }
+
+    interface RecordReader<T> {
+        T read(Cursor in);
+    }
+
+    // True when the file starts with the binary magic; anything else is treated as legacy CSV.
+    static boolean isBinary(File file) {
+        if (file.length() < 4) return false;
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return in.readInt() == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    static <T> void write(File file, Collection<T> records, RecordWriter<T> writer) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(records.size());
+            for (T record : records) {
+                writer.write(out, record);
+            }
+        }
+    }
+
+    // Maps the file read-only and decodes every record straight out of the mapping.
+    static <T> void read(File file, RecordReader<T> reader, Consumer<T> sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) throw new IOException("Snapshot too large to map: " + file);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC) throw new IOException("Not a binary snapshot: " + file);
+            int version = buffer.getInt();
+            if (version < 1 || version > VERSION) throw new IOException("Unsupported snapshot version " + version + " in " + file);
+            int count = buffer.getInt();
+            Cursor cursor = new Cursor(buffer, version);
+            for (int i = 0; i < count; i++) {
+                T record = reader.read(cursor);
+                if (record != null) sink.accept(record);
+            }
+        }
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    // Sequential reader over a mapped snapshot. Reuses one scratch array for string decoding.
+    static final class Cursor {
+        private final ByteBuffer buffer;
+        private final int version;
+        private byte[] scratch = new byte[256];
+
+        Cursor(ByteBuffer buffer, int version) {
+            this.buffer = buffer;
+            this.version = version;
+        }
+
+        // Format version of the snapshot being read, so readers can decode older layouts.
+        int getVersion() { return version; }
+
+        String readString() {
+            int length = buffer.getInt();
+            if (length < 0) return null;
+            if (length == 0) return "";
+            if (scratch.length < length) scratch = new byte[Math.max(length, scratch.length * 2)];
+            buffer.get(scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        double readDouble() { return buffer.getDouble(); }
+
+        boolean readBoolean() { return buffer.get() != 0; }
+
+        byte readByte() { return buffer.get(); }
+
+        int readInt() { return buffer.getInt(); }
+
+        long readLong() { return buffer.getLong(); }
+    }
+}
@@ -0,0 +1,343 @@
+package boardinghouse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Content-addressed, append-only store for large text bodies (apartment documents), kept in a
+// file next to the entity's snapshot. A body is addressed by the first 128 bits of its SHA-256,
+// so storing the same text twice costs nothing and records only hold a 16-byte Handle.
+// Bodies are read back through a read-only memory mapping, so they live in the page cache
+// rather than on the heap; bodies above a small threshold are Deflate-compressed when it helps.
+// Record layout: magic, hash (16 bytes), flags, raw length, stored length, stored bytes.
+// Bodies are only appended; compact() later copies the ones still referenced into a fresh file
+// once most of the file is bodies nothing refers to any more.
+final class BlobStore {
+    private static final int RECORD_MAGIC = 0x424C4F42; // "BLOB"
+    private static final int HEADER_BYTES = 4 + 16 + 1 + 4 + 4;
+    private static final byte FLAG_DEFLATED = 1;
+    private static final int COMPRESS_MIN_BYTES = 256;
+    static final boolean COMPRESS = Boolean.parseBoolean(System.getProperty("boarding.blobs.compress", "true"));
+
+    private final Path path;
+    private final Map<Handle, Long> offsets = new HashMap<>();
+    // Handles given out by put() that the caller has not adopted (or dropped) yet, with counts.
+    private final Map<Handle, Integer> pinned = new HashMap<>();
+    // Between mark() and compact(): handles pinned at the mark or given out since. A record may
+    // adopt one of them after the owner listed its live handles, so compact() keeps them too.
+    private Set<Handle> marked;
+    private final MessageDigest sha256;
+    private FileChannel channel;
+    private MappedByteBuffer mapped; // covers [0, mapped.capacity()) of the file
+    private long end;
+    private boolean unsynced; // appended since the last force()
+
+    // 128-bit content address of a stored body.
+    static final class Handle implements Serializable {
+        private static final long serialVersionUID = 1L;
+        final long high;
+        final long low;
+
+        Handle(long high, long low) {
+            this.high = high;
+            this.low = low;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Handle)) return false;
+            Handle other = (Handle) o;
+            return high == other.high && low == other.low;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(high * 31 + low);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%016x%016x", high, low);
+        }
+    }
+
+    BlobStore(String snapshotFileName) {
+        String base = snapshotFileName.endsWith(".dat")
+                ? snapshotFileName.substring(0, snapshotFileName.length() - 4)
+                : snapshotFileName;
+        this.path = Paths.get(base + ".blobs");
+        try {
+            this.sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    // Stores a body and returns its handle, pinned until the caller calls unpin() once it has
+    // stored the handle in its record; an identical body already on file is reused.
+    // Returns null if the body could not be written, in which case the caller keeps it in memory.
+    synchronized Handle put(String text) {
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        byte[] digest = sha256.digest(raw);
+        Handle handle = new Handle(ByteBuffer.wrap(digest, 0, 8).getLong(), ByteBuffer.wrap(digest, 8, 8).getLong());
+        if (offsets.containsKey(handle)) return pin(handle);
+
+        byte[] stored = raw;
+        byte flags = 0;
+        if (COMPRESS && raw.length >= COMPRESS_MIN_BYTES) {
+            byte[] deflated = deflate(raw);
+            if (deflated.length < raw.length) {
+                stored = deflated;
+                flags = FLAG_DEFLATED;
+            }
+        }
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + stored.length);
+        record.putInt(RECORD_MAGIC).putLong(handle.high).putLong(handle.low)
+                .put(flags).putInt(raw.length).putInt(stored.length).put(stored).flip();
+        try {
+            FileChannel out = channel();
+            long offset = end;
+            while (record.hasRemaining()) end += out.write(record, end);
+            offsets.put(handle, offset);
+            unsynced = true;
+        } catch (IOException e) {
+            System.err.println("Error writing blob to " + path + ": " + e.getMessage());
+            return null;
+        }
+        return pin(handle);
+    }
+
+    private Handle pin(Handle handle) {
+        pinned.merge(handle, 1, Integer::sum);
+        if (marked != null) marked.add(handle);
+        return handle;
+    }
+
+    synchronized void unpin(Handle handle) {
+        if (handle != null) pinned.computeIfPresent(handle, (h, n) -> n == 1 ? null : n - 1);
+    }
+
+    // The body for a handle, or null if this store does not hold it.
+    synchronized String get(Handle handle) {
+        Long offset = offsets.get(handle);
+        if (offset == null) return null;
+        try {
+            ByteBuffer view = view(offset, HEADER_BYTES);
+            byte flags = view.get(view.position() + 20);
+            int rawLength = view.getInt(view.position() + 21);
+            int storedLength = view.getInt(view.position() + 25);
+            byte[] stored = new byte[storedLength];
+            view(offset + HEADER_BYTES, storedLength).get(stored);
+            byte[] raw = (flags & FLAG_DEFLATED) != 0 ? inflate(stored, rawLength) : stored;
+            return new String(raw, StandardCharsets.UTF_8);
+        } catch (IOException | DataFormatException e) {
+            System.err.println("Error reading blob " + handle + " from " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    synchronized int size() {
+        return offsets.size();
+    }
+
+    // Makes every stored body durable; called before a snapshot or journal entry that references
+    // them is written. Costs nothing when no body was appended since the last call.
+    synchronized void force() {
+        if (channel == null || !unsynced) return;
+        try {
+            channel.force(false);
+            unsynced = false;
+        } catch (IOException e) {
+            System.err.println("Error syncing " + path + ": " + e.getMessage());
+        }
+    }
+
+    // Starts a compaction; the owner then lists the handles its records hold and calls compact().
+    synchronized void mark() {
+        marked = new HashSet<>(pinned.keySet());
+    }
+
+    // Mark and copy: keeps the live bodies plus those pinned or handed out since mark(), and once
+    // at least half of the file is other bodies, copies the kept records as stored into a new
+    // file that atomically replaces this one. Handles stay valid; only offsets change.
+    synchronized void compact(Collection<Handle> live) {
+        if (marked == null) throw new IllegalStateException("compact() without mark()");
+        Set<Handle> keep = marked;
+        marked = null;
+        for (Handle handle : live) {
+            if (handle != null) keep.add(handle);
+        }
+        keep.retainAll(offsets.keySet());
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            long keptBytes = 0;
+            for (Handle handle : keep) keptBytes += recordLength(offsets.get(handle));
+            if (end - keptBytes < end / 2 || end == 0) return;
+
+            List<Handle> ordered = new ArrayList<>(keep);
+            ordered.sort(Comparator.comparingLong(offsets::get)); // read the old file front to back
+            Map<Handle, Long> moved = new HashMap<>();
+            long position = 0;
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (Handle handle : ordered) {
+                    long offset = offsets.get(handle);
+                    ByteBuffer record = view(offset, recordLength(offset));
+                    moved.put(handle, position);
+                    while (record.hasRemaining()) position += out.write(record, position);
+                }
+                out.force(true);
+            }
+            try {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (channel != null) channel.close();
+            channel = null;
+            mapped = null;
+            offsets.clear();
+            offsets.putAll(moved);
+            end = position;
+            unsynced = false;
+        } catch (IOException e) {
+            System.err.println("Error compacting " + path + ": " + e.getMessage());
+            try {
+                Files.deleteIfExists(tmp);
+            } catch (IOException ignored) {
+                // the next compaction opens it with TRUNCATE_EXISTING
+            }
+        }
+    }
+
+    private int recordLength(long offset) throws IOException {
+        ByteBuffer header = view(offset, HEADER_BYTES);
+        return HEADER_BYTES + header.getInt(header.position() + 25);
+    }
+
+    // Opens the file and indexes every complete record. A torn record at the tail (crash during
+    // an append) is cut off; its body is still in the journal and gets stored again on replay.
+    // Opening again (the owner reloading after its files were replaced) forgets what was indexed.
+    synchronized void open() {
+        offsets.clear();
+        marked = null;
+        mapped = null;
+        end = 0;
+        unsynced = false;
+        try {
+            if (channel != null) channel.close();
+        } catch (IOException e) {
+            System.err.println("Error closing " + path + ": " + e.getMessage());
+        }
+        channel = null;
+        if (!path.toFile().exists()) return;
+        try {
+            FileChannel ch = channel();
+            long size = ch.size();
+            long position = 0;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (position + HEADER_BYTES <= size) {
+                ByteBuffer view = header;
+                if (size <= Integer.MAX_VALUE) {
+                    if (mapped == null) mapped = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                    view = mapped.slice((int) position, HEADER_BYTES);
+                } else {
+                    header.clear();
+                    while (header.hasRemaining() && ch.read(header, position + header.position()) > 0) { }
+                    header.flip();
+                }
+                if (view.getInt(0) != RECORD_MAGIC) break;
+                int storedLength = view.getInt(25);
+                if (storedLength < 0 || position + HEADER_BYTES + storedLength > size) break;
+                offsets.put(new Handle(view.getLong(4), view.getLong(12)), position);
+                position += HEADER_BYTES + storedLength;
+            }
+            if (position < size) {
+                System.err.println("Truncating " + (size - position) + " unreadable bytes at the end of " + path);
+                mapped = null;
+                ch.truncate(position);
+            }
+            end = position;
+        } catch (IOException e) {
+            System.err.println("Error opening " + path + ": " + e.getMessage());
+        }
+    }
+
+    // A read-only window over [offset, offset + length); remaps when the file has grown past the
+    // mapping, and falls back to a plain read for files too large to map in one piece.
+    private ByteBuffer view(long offset, int length) throws IOException {
+        long limit = offset + length;
+        if (mapped == null || limit > mapped.capacity()) {
+            if (end > Integer.MAX_VALUE) {
+                ByteBuffer buffer = ByteBuffer.allocate(length);
+                while (buffer.hasRemaining() && channel().read(buffer, offset + buffer.position()) > 0) { }
+                return buffer.flip();
+            }
+            mapped = channel().map(FileChannel.MapMode.READ_ONLY, 0, end);
+        }
+        return mapped.slice((int) offset, length);
+    }
+
+    private FileChannel channel() throws IOException {
+        if (channel == null || !channel.isOpen()) {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        return channel;
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2);
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) out.write(chunk, 0, deflater.deflate(chunk));
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] stored, int rawLength) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored);
+            byte[] raw = new byte[rawLength];
+            int read = 0;
+            while (read < rawLength && !inflater.finished()) {
+                int n = inflater.inflate(raw, read, rawLength - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                read += n;
+            }
+            if (read != rawLength) throw new DataFormatException("expected " + rawLength + " bytes, got " + read);
+            return raw;
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package boardinghouse;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+// Streaming bulk import and export of apartments and parking spots, for onboarding whole buildings.
+// Files are CSV, with the same columns as the snapshot rows and an optional header line, or JSON
+// Lines, one flat object per line; the extension picks the format (.jsonl/.ndjson, else CSV).
+//
+//   apartments  CSV  number,tenant,rent,occupied,document    (document newlines written as \n)
+//               JSON {"number", "tenant", "rent", "occupied", "document"}
+//   parking     CSV  spot,reserved,tenants,dates              (';'-separated, one per reservation)
+//               JSON {"spot", "tenants", "dates"}
+//
+// Import streams the file: the caller's thread reads batches of lines and hands them to a pool that
+// parses and validates them in parallel, then takes the parsed batches back in file order and
+// commits each through the manager's batch add. At most a few batches are in flight, so memory
+// does not grow with the file. A bad row is skipped and reported with its line number; the rest
+// of the file still goes in.
+// Export walks the manager's live record view and writes each record as it goes.
+final class BulkTransfer {
+    static final int BATCH_SIZE = Integer.getInteger("boarding.import.batchSize", 1_000);
+    static final int MAX_REPORTED_ERRORS = 1_000;
+    private static final int PARSERS = Math.max(1, Runtime.getRuntime().availableProcessors());
+    private static final int MAX_BATCHES_IN_FLIGHT = 2 * PARSERS;
+
+    static final String APARTMENT_CSV_HEADER = "number,tenant,rent,occupied,document";
+    static final String PARKING_CSV_HEADER = "spot,reserved,tenants,dates";
+
+    private BulkTransfer() {
+    }
+
+    // Outcome of an import. errors holds "line N: reason" for the first MAX_REPORTED_ERRORS bad rows.
+    static final class Report {
+        int imported;
+        int rejected;
+        final List<String> errors = new ArrayList<>();
+
+        void reject(long line, String reason) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) errors.add("line " + line + ": " + reason);
+        }
+    }
+
+    static boolean isJsonLines(File file) {
+        String name = file.getName().toLowerCase(Locale.ROOT);
+        return name.endsWith(".jsonl") || name.endsWith(".ndjson");
+    }
+
+    // progress, if given, is called with the number of rows committed so far after each batch.
+    static Report importApartments(File file, ApartmentManager manager, IntConsumer progress) throws IOException {
+        boolean json = isJsonLines(file);
+        return importRows(file, json ? BulkTransfer::apartmentFromJson : BulkTransfer::apartmentFromCsv,
+                json ? null : APARTMENT_CSV_HEADER, manager::addApartments, Apartment::getApartmentNumber, progress);
+    }
+
+    static Report importParkingLots(File file, ParkingLotManager manager, IntConsumer progress) throws IOException {
+        boolean json = isJsonLines(file);
+        return importRows(file, json ? BulkTransfer::spotFromJson : BulkTransfer::spotFromCsv,
+                json ? null : PARKING_CSV_HEADER, manager::addSpots, ParkingLot::getSpotNumber, progress);
+    }
+
+    // Returns the number of apartments written.
+    static int exportApartments(File file, ApartmentManager manager) throws IOException {
+        boolean json = isJsonLines(file);
+        return exportRows(file, manager.apartmentsView(), json ? null : APARTMENT_CSV_HEADER,
+                json ? BulkTransfer::apartmentToJson : Apartment::toExportCsv);
+    }
+
+    static int exportParkingLots(File file, ParkingLotManager manager) throws IOException {
+        boolean json = isJsonLines(file);
+        return exportRows(file, manager.parkingLotsView(), json ? null : PARKING_CSV_HEADER,
+                json ? BulkTransfer::spotToJson : ParkingLot::toJournalEntry);
+    }
+
+    // One parsed line: the record, or why it was rejected.
+    private static final class Row<T> {
+        final long line;
+        final T record;
+        final String error;
+
+        Row(long line, T record, String error) {
+            this.line = line;
+            this.record = record;
+            this.error = error;
+        }
+    }
+
+    // commit adds a batch and returns the records it refused because their key already exists.
+    private static <T> Report importRows(File file, Function<String, T> parse, String header,
+                                         Function<List<T>, List<T>> commit, Function<T, String> keyOf,
+                                         IntConsumer progress) throws IOException {
+        Report report = new Report();
+        ExecutorService parsers = Executors.newFixedThreadPool(PARSERS, r -> {
+            Thread t = new Thread(r, "import-parser");
+            t.setDaemon(true);
+            return t;
+        });
+        ArrayDeque<Future<List<Row<T>>>> inFlight = new ArrayDeque<>();
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            List<String> lines = new ArrayList<>(BATCH_SIZE);
+            long firstLine = 1;
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1 && header != null && line.trim().equalsIgnoreCase(header)) {
+                    firstLine = 2;
+                    continue;
+                }
+                lines.add(line);
+                if (lines.size() == BATCH_SIZE) {
+                    inFlight.add(parsers.submit(parseTask(lines, firstLine, parse)));
+                    lines = new ArrayList<>(BATCH_SIZE);
+                    firstLine = lineNumber + 1;
+                    if (inFlight.size() >= MAX_BATCHES_IN_FLIGHT) commitNext(inFlight, commit, keyOf, report, progress);
+                }
+            }
+            if (!lines.isEmpty()) inFlight.add(parsers.submit(parseTask(lines, firstLine, parse)));
+            while (!inFlight.isEmpty()) commitNext(inFlight, commit, keyOf, report, progress);
+        } finally {
+            parsers.shutdownNow();
+        }
+        return report;
+    }
+
+    private static <T> Callable<List<Row<T>>> parseTask(List<String> lines, long firstLine, Function<String, T> parse) {
+        return () -> {
+            List<Row<T>> rows = new ArrayList<>(lines.size());
+            for (int i = 0; i < lines.size(); i++) {
+                String text = lines.get(i);
+                if (text.trim().isEmpty()) continue;
+                try {
+                    rows.add(new Row<>(firstLine + i, parse.apply(text), null));
+                } catch (IllegalArgumentException e) { // includes NumberFormatException
+                    rows.add(new Row<>(firstLine + i, null, e.getMessage()));
+                }
+            }
+            return rows;
+        };
+    }
+
+    private static <T> void commitNext(ArrayDeque<Future<List<Row<T>>>> inFlight, Function<List<T>, List<T>> commit,
+                                       Function<T, String> keyOf, Report report, IntConsumer progress) throws IOException {
+        List<Row<T>> rows;
+        try {
+            rows = inFlight.poll().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Import failed: " + e.getCause(), e.getCause());
+        }
+        List<T> batch = new ArrayList<>(rows.size());
+        List<Long> batchLines = new ArrayList<>(rows.size());
+        for (Row<T> row : rows) {
+            if (row.error != null) {
+                report.reject(row.line, row.error);
+            } else {
+                batch.add(row.record);
+                batchLines.add(row.line);
+            }
+        }
+        List<T> refused = commit.apply(batch);
+        report.imported += batch.size() - refused.size();
+        if (!refused.isEmpty()) {
+            // Refused records keep their identity, so their lines can be found again.
+            for (int i = 0, r = 0; i < batch.size() && r < refused.size(); i++) {
+                if (batch.get(i) == refused.get(r)) {
+                    report.reject(batchLines.get(i), "\"" + keyOf.apply(refused.get(r)) + "\" already exists");
+                    r++;
+                }
+            }
+        }
+        if (progress != null) progress.accept(report.imported);
+    }
+
+    private static <T> int exportRows(File file, Collection<T> records, String header, Function<T, String> format) throws IOException {
+        int written = 0;
+        File tmp = new File(file.getPath() + ".tmp");
+        try (Writer out = new BufferedWriter(Files.newBufferedWriter(tmp.toPath(), StandardCharsets.UTF_8), 1 << 16)) {
+            if (header != null) out.write(header + "\n");
+            for (T record : records) {
+                String line = format.apply(record);
+                if (line == null) continue; // removed while exporting
+                out.write(line);
+                out.write('\n');
+                written++;
+            }
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        return written;
+    }
+
+    static Apartment apartmentFromCsv(String line) {
+        String[] parts = line.split(",", 5);
+        if (parts.length < 4) throw new IllegalArgumentException("expected " + APARTMENT_CSV_HEADER);
+        return newApartment(parts[0], parts[1], parseRent(parts[2]), parseBoolean("occupied", parts[3]),
+                parts.length == 5 ? parts[4].replace("\\n", "\n") : "");
+    }
+
+    static Apartment apartmentFromJson(String line) {
+        Map<String, Object> object = Json.parseObject(line);
+        String tenant = Optional.ofNullable(Json.getString(object, "tenant")).orElse("");
+        Object rent = object.get("rent");
+        return newApartment(Json.getString(object, "number"), tenant,
+                rent == null ? 0 : parseRent(rent.toString()),
+                Json.getBoolean(object, "occupied", !tenant.trim().isEmpty()),
+                Optional.ofNullable(Json.getString(object, "document")).orElse(""));
+    }
+
+    static ParkingLot spotFromCsv(String line) {
+        String[] parts = line.split(",", 4);
+        if (parts.length != 4) throw new IllegalArgumentException("expected " + PARKING_CSV_HEADER);
+        boolean reserved = parseBoolean("reserved", parts[1]);
+        if (!reserved) return newSpot(parts[0], "", "");
+        if (parts[2].trim().isEmpty() || parts[3].trim().isEmpty()) throw new IllegalArgumentException("reserved spot needs tenants and dates");
+        return newSpot(parts[0], parts[2], parts[3]);
+    }
+
+    static ParkingLot spotFromJson(String line) {
+        Map<String, Object> object = Json.parseObject(line);
+        return newSpot(Json.getString(object, "spot"),
+                Optional.ofNullable(Json.getString(object, "tenants")).orElse(""),
+                Optional.ofNullable(Json.getString(object, "dates")).orElse(""));
+    }
+
+    static String apartmentToJson(Apartment apt) {
+        if (apt.isRemoved()) return null;
+        return "{\"number\":" + Json.quote(apt.getApartmentNumber())
+                + ",\"tenant\":" + Json.quote(apt.getTenantName())
+                + ",\"rent\":" + apt.getRent()
+                + ",\"occupied\":" + apt.isOccupied()
+                + ",\"document\":" + Json.quote(apt.getDocumentContent()) + "}";
+    }
+
+    static String spotToJson(ParkingLot spot) {
+        if (spot.isRemoved()) return null;
+        StringBuilder tenants = new StringBuilder();
+        StringBuilder dates = new StringBuilder();
+        for (Reservation r : spot.getCalendar()) {
+            if (dates.length() > 0) {
+                tenants.append(';');
+                dates.append(';');
+            }
+            tenants.append(r.tenantName != null ? r.tenantName : "");
+            dates.append(r.formatDates());
+        }
+        return "{\"spot\":" + Json.quote(spot.getSpotNumber())
+                + ",\"tenants\":" + Json.quote(tenants.toString())
+                + ",\"dates\":" + Json.quote(dates.toString()) + "}";
+    }
+
+    // The checks the add forms make, plus what the snapshot and journal rows cannot hold.
+    // ApiServer validates request bodies with these too.
+    static Apartment newApartment(String number, String tenant, double rent, boolean occupied, String document) {
+        String key = requireKey("number", number);
+        if (tenant.contains(",")) throw new IllegalArgumentException("tenant must not contain ','");
+        return new Apartment(key, tenant.trim(), rent, occupied, document);
+    }
+
+    private static ParkingLot newSpot(String spotNumber, String tenantList, String dateList) {
+        String key = requireKey("spot", spotNumber);
+        if (dateList.trim().isEmpty()) return new ParkingLot(key, new Reservation[0]);
+        String[] tenants = tenantList.split(";", -1);
+        String[] dates = dateList.split(";", -1);
+        if (tenants.length != dates.length) throw new IllegalArgumentException("tenants and dates differ in count");
+        Reservation[] calendar = new Reservation[0];
+        for (int i = 0; i < dates.length; i++) {
+            String tenant = tenants[i].trim();
+            if (tenant.isEmpty()) throw new IllegalArgumentException("reservation " + (i + 1) + " has no tenant");
+            if (tenant.contains(",")) throw new IllegalArgumentException("tenant must not contain ','");
+            long[] range = Reservation.parseRange(dates[i]);
+            if (range == null) throw new IllegalArgumentException("invalid dates \"" + dates[i].trim() + "\"; use YYYY-MM-DD or YYYY-MM-DD..YYYY-MM-DD");
+            if (!Reservation.isFree(calendar, range[0], range[1])) throw new IllegalArgumentException("reservation " + (i + 1) + " overlaps another");
+            calendar = Reservation.insert(calendar, new Reservation(tenant, range[0], range[1]));
+        }
+        return new ParkingLot(key, calendar);
+    }
+
+    private static String requireKey(String field, String value) {
+        if (value == null || value.trim().isEmpty()) throw new IllegalArgumentException("missing " + field);
+        if (value.contains(",")) throw new IllegalArgumentException(field + " must not contain ','");
+        return value.trim();
+    }
+
+    static double parseRent(String text) {
+        double rent;
+        try {
+            rent = Double.parseDouble(text.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid rent \"" + text.trim() + "\"");
+        }
+        if (rent < 0 || Double.isNaN(rent) || Double.isInfinite(rent)) throw new IllegalArgumentException("invalid rent \"" + text.trim() + "\"");
+        return rent;
+    }
+
+    private static boolean parseBoolean(String field, String text) {
+        String value = text.trim();
+        if (value.equalsIgnoreCase("true")) return true;
+        if (value.equalsIgnoreCase("false")) return false;
+        throw new IllegalArgumentException(field + " must be true or false");
+    }
+}
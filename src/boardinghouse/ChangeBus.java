@@ -0,0 +1,162 @@
+package boardinghouse;
+
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+// Change notifications for one manager's records. Every mutation publishes what it changed as
+// one list, after the change is applied and its locks are released; a batch commit publishes all
+// of its changes as a single list.
+// Synchronous subscribers run on the writing thread and should be quick. Asynchronous subscribers
+// get the changes on their executor: whatever is published while a delivery is still queued is
+// merged into that delivery, with changes to the same record folded into one. subscribeOnEdt()
+// uses the event dispatch thread as the executor, so a burst of writes costs one table update per
+// EDT frame, not one per write.
+final class ChangeBus<T> {
+    enum Kind { ADDED, UPDATED, REMOVED }
+
+    // One record's change. before is a detached copy of the record as it was (null when added, and
+    // for an update that began while nobody was subscribed); after is the live record (null when
+    // removed), so it always reads as the latest state.
+    static final class Change<T> {
+        final Kind kind;
+        final String key;
+        final T before;
+        final T after;
+
+        Change(Kind kind, String key, T before, T after) {
+            this.kind = kind;
+            this.key = key;
+            this.before = before;
+            this.after = after;
+        }
+
+        @Override
+        public String toString() {
+            return kind + " " + key;
+        }
+    }
+
+    interface Subscription {
+        void cancel();
+    }
+
+    private final CopyOnWriteArrayList<Consumer<List<Change<T>>>> listeners = new CopyOnWriteArrayList<>();
+
+    static <T> Change<T> added(String key, T after) {
+        return new Change<>(Kind.ADDED, key, null, after);
+    }
+
+    static <T> Change<T> updated(String key, T before, T after) {
+        return new Change<>(Kind.UPDATED, key, before, after);
+    }
+
+    static <T> Change<T> removed(String key, T before) {
+        return new Change<>(Kind.REMOVED, key, before, null);
+    }
+
+    // Lets writers skip taking "before" copies nobody will read; see Change.
+    boolean hasSubscribers() {
+        return !listeners.isEmpty();
+    }
+
+    Subscription subscribe(Consumer<List<Change<T>>> listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    Subscription subscribeAsync(Consumer<List<Change<T>>> listener, Executor executor) {
+        Coalescing<T> coalescing = new Coalescing<>(listener, executor);
+        listeners.add(coalescing);
+        return () -> {
+            coalescing.cancelled = true;
+            listeners.remove(coalescing);
+        };
+    }
+
+    Subscription subscribeOnEdt(Consumer<List<Change<T>>> listener) {
+        return subscribeAsync(listener, SwingUtilities::invokeLater);
+    }
+
+    void publish(Change<T> change) {
+        publish(Collections.singletonList(change));
+    }
+
+    void publish(List<Change<T>> changes) {
+        if (changes.isEmpty() || listeners.isEmpty()) return;
+        List<Change<T>> published = Collections.unmodifiableList(changes);
+        for (Consumer<List<Change<T>>> listener : listeners) deliver(listener, published);
+    }
+
+    // Folds changes to the same record into one, from its first before to its last after, in the
+    // order the records first changed. A record added and removed again drops out.
+    static <T> List<Change<T>> coalesce(List<Change<T>> changes) {
+        Map<String, Change<T>> byKey = new LinkedHashMap<>();
+        for (Change<T> change : changes) {
+            String key = Keys.normalize(change.key);
+            Change<T> earlier = byKey.get(key);
+            if (earlier == null) {
+                byKey.put(key, change);
+                continue;
+            }
+            boolean existedBefore = earlier.kind != Kind.ADDED;
+            boolean existsAfter = change.kind != Kind.REMOVED;
+            if (!existedBefore && !existsAfter) {
+                byKey.remove(key);
+            } else {
+                Kind kind = !existedBefore ? Kind.ADDED : !existsAfter ? Kind.REMOVED : Kind.UPDATED;
+                byKey.put(key, new Change<>(kind, change.key, earlier.before, change.after));
+            }
+        }
+        return new ArrayList<>(byKey.values());
+    }
+
+    // A failing subscriber must not fail the write that published, or starve the other subscribers.
+    private static <T> void deliver(Consumer<List<Change<T>>> listener, List<Change<T>> changes) {
+        try {
+            listener.accept(changes);
+        } catch (RuntimeException e) {
+            System.err.println("Error in change listener: " + e);
+        }
+    }
+
+    // Queues changes for one asynchronous subscriber; at most one delivery is pending at a time.
+    private static final class Coalescing<T> implements Consumer<List<Change<T>>> {
+        private final Consumer<List<Change<T>>> listener;
+        private final Executor executor;
+        private List<Change<T>> pending = new ArrayList<>(); // guarded by this
+        private boolean scheduled;                          // guarded by this
+        volatile boolean cancelled;
+
+        Coalescing(Consumer<List<Change<T>>> listener, Executor executor) {
+            this.listener = listener;
+            this.executor = executor;
+        }
+
+        @Override
+        public void accept(List<Change<T>> changes) {
+            synchronized (this) {
+                pending.addAll(changes);
+                if (scheduled) return;
+                scheduled = true;
+            }
+            executor.execute(this::drain);
+        }
+
+        private void drain() {
+            List<Change<T>> changes;
+            synchronized (this) {
+                changes = pending;
+                pending = new ArrayList<>();
+                scheduled = false;
+            }
+            if (!cancelled) deliver(listener, Collections.unmodifiableList(coalesce(changes)));
+        }
+    }
+}
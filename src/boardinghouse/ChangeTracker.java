@@ -0,0 +1,53 @@
+package boardinghouse;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// What a manager changed since its last save and its last snapshot.
+// A change counter moves on every mutation; each touched record key is kept as dirty, stamped with
+// the change that last touched it, until a snapshot taken after that change is installed.
+// Managers use it to skip saves that have nothing to write, and to choose between flushing the
+// journal (cost grows with the edits) and rewriting the snapshot (cost grows with the dataset).
+final class ChangeTracker {
+    // A save rewrites the snapshot once at least 1/REWRITE_DIVISOR of the records are dirty.
+    static final int REWRITE_DIVISOR = Integer.getInteger("boarding.save.rewriteDivisor", 4);
+
+    private final AtomicLong changes = new AtomicLong();
+    private final ConcurrentHashMap<String, Long> dirty = new ConcurrentHashMap<>();
+    private volatile long saved;
+    private volatile Runnable listener; // told about every change, e.g. Autosave
+
+    // Call after the change has been journaled.
+    void markDirty(String key) {
+        dirty.put(Keys.normalize(key), changes.incrementAndGet());
+        Runnable l = listener;
+        if (l != null) l.run();
+    }
+
+    void setListener(Runnable listener) {
+        this.listener = listener;
+    }
+
+    long changeCount() {
+        return changes.get();
+    }
+
+    boolean hasUnsavedChanges() {
+        return changes.get() != saved;
+    }
+
+    boolean shouldRewrite(int records, int journalEntries) {
+        return journalEntries >= Journal.COMPACT_THRESHOLD || (long) dirty.size() * REWRITE_DIVISOR >= records;
+    }
+
+    // Everything up to mark (a changeCount() value) is durable.
+    synchronized void markSaved(long mark) {
+        if (mark > saved) saved = mark;
+    }
+
+    // Everything up to mark is in the installed snapshot; records changed later stay dirty.
+    synchronized void markSnapshotted(long mark) {
+        dirty.entrySet().removeIf(e -> e.getValue() <= mark);
+        markSaved(mark);
+    }
+}
@@ -0,0 +1,8 @@
+package boardinghouse;
+
+// Outcome of an atomic claim on a spot or apartment.
+enum ClaimResult {
+    WON,            // this caller now holds the resource
+    ALREADY_TAKEN,  // another caller got there first
+    NOT_FOUND       // no such record (or it was deleted)
+}
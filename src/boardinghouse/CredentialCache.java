@@ -0,0 +1,114 @@
+package boardinghouse;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+// Bounded, expiring memory of recent successful password checks, so repeat logins and API
+// requests skip the PBKDF2 work. Entries are keyed by an HMAC-SHA256 (with a key that never
+// leaves this process) of username, password and the stored hash, truncated to 128 bits: the
+// cache holds no password material, and changing a password changes the stored hash, so entries
+// for the old password can never match again. Least recently used entries go first when full.
+final class CredentialCache {
+    static final int MAX_ENTRIES = Integer.getInteger("boarding.auth.cacheSize", 10_000);
+    static final long TTL_MILLIS = Long.getLong("boarding.auth.cacheTtlMillis", TimeUnit.MINUTES.toMillis(5));
+
+    private final byte[] key = new byte[32];
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::newMac);
+    private final LinkedHashMap<Digest, Long> expiries = new LinkedHashMap<Digest, Long>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Digest, Long> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    CredentialCache() {
+        new SecureRandom().nextBytes(key);
+    }
+
+    // True if this exact (username, password, stored hash) was verified within the TTL.
+    boolean contains(String username, String password, String stored) {
+        if (MAX_ENTRIES <= 0) return false;
+        Digest digest = digest(username, password, stored);
+        long now = System.nanoTime();
+        synchronized (expiries) {
+            Long expiry = expiries.get(digest);
+            if (expiry == null) return false;
+            if (expiry - now > 0) return true;
+            expiries.remove(digest);
+            return false;
+        }
+    }
+
+    void add(String username, String password, String stored) {
+        if (MAX_ENTRIES <= 0) return;
+        Digest digest = digest(username, password, stored);
+        long expiry = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TTL_MILLIS);
+        synchronized (expiries) {
+            expiries.put(digest, expiry);
+        }
+    }
+
+    void clear() {
+        synchronized (expiries) {
+            expiries.clear();
+        }
+    }
+
+    private Digest digest(String username, String password, String stored) {
+        Mac mac = macs.get();
+        // Length-prefixed fields, so ("ab", "c") and ("a", "bc") cannot collide.
+        for (String field : new String[]{Keys.normalize(username), password, stored}) {
+            byte[] bytes = field.getBytes(StandardCharsets.UTF_8);
+            mac.update((byte) (bytes.length >>> 24));
+            mac.update((byte) (bytes.length >>> 16));
+            mac.update((byte) (bytes.length >>> 8));
+            mac.update((byte) bytes.length);
+            mac.update(bytes);
+        }
+        byte[] out = mac.doFinal();
+        long high = 0, low = 0;
+        for (int i = 0; i < 8; i++) {
+            high = (high << 8) | (out[i] & 0xFF);
+            low = (low << 8) | (out[8 + i] & 0xFF);
+        }
+        return new Digest(high, low);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+
+    private static final class Digest {
+        final long high;
+        final long low;
+
+        Digest(long high, long low) {
+            this.high = high;
+            this.low = low;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Digest)) return false;
+            Digest other = (Digest) o;
+            return high == other.high && low == other.low;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(high ^ low);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package boardinghouse;
+
+// Process-wide owner of the apartment, parking and user datasets.
+// Each manager is loaded once and shared by every login session for the life of the JVM,
+// so logging out and back in neither re-reads the .dat files nor drops in-memory changes.
+// When a snapshot file was changed on disk by someone else, the manager re-reads its files in
+// place rather than being replaced, so sessions and the API server that already hold it keep
+// writing to a live manager and journal.
+// Every manager handed out here is saved in the background by an Autosave.
+final class DataRepository {
+    private static final DataRepository INSTANCE = new DataRepository();
+
+    private ApartmentManager apartmentManager;
+    private ParkingLotManager parkingLotManager;
+    private UserManager userManager;
+
+    private DataRepository() {}
+
+    static DataRepository get() {
+        return INSTANCE;
+    }
+
+    synchronized ApartmentManager apartments() {
+        if (apartmentManager == null) {
+            apartmentManager = new ApartmentManager();
+            Autosave.start("apartments", apartmentManager.getChangeTracker(), apartmentManager::saveApartments);
+        } else if (apartmentManager.isSnapshotStale()) {
+            apartmentManager.reloadApartments();
+        }
+        return apartmentManager;
+    }
+
+    synchronized ParkingLotManager parkingLots() {
+        if (parkingLotManager == null) {
+            parkingLotManager = new ParkingLotManager();
+            Autosave.start("parking lots", parkingLotManager.getChangeTracker(), parkingLotManager::saveParkingLots);
+        } else if (parkingLotManager.isSnapshotStale()) {
+            parkingLotManager.reloadParkingLots();
+        }
+        return parkingLotManager;
+    }
+
+    synchronized UserManager users() {
+        if (userManager == null) {
+            userManager = new UserManager();
+            Autosave.start("users", userManager.getChangeTracker(), userManager::saveUsers);
+        } else if (userManager.isSnapshotStale()) {
+            userManager.reloadUsers();
+        }
+        return userManager;
+    }
+}
@@ -0,0 +1,254 @@
+package boardinghouse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+// Inverted index over free-form text, keyed by record key (e.g. apartment number).
+// Text is split on anything that is not a letter or digit and lowercased; each term maps to a
+// postings list of (document id, term frequency). Queries are ranked with BM25, so rare terms
+// and short documents that repeat a term score higher.
+// Documents get dense int ids and postings are primitive hash maps, so scoring a common term
+// is a walk over two int arrays into a double[] of scores, with no boxing.
+// The index is built on the first search and kept current after that; until then updates are
+// ignored, so loading a dataset never pays for tokenizing documents nobody searches.
+final class DocumentIndex {
+    private static final int MIN_TERM_LENGTH = 2;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<String, Integer> idByKey = new HashMap<>();
+    private final List<Integer> freedIds = new ArrayList<>();
+    private String[] keyById = new String[64];
+    private String[][] termsById = new String[64][]; // distinct terms, for removal
+    private int[] lengthById = new int[64];
+    private int idCount;
+    private int documents;
+    private long totalLength;
+    private boolean built;
+
+    static final class Hit {
+        final String key;
+        final double score;
+
+        Hit(String key, double score) {
+            this.key = key;
+            this.score = score;
+        }
+    }
+
+    boolean isBuilt() {
+        lock.readLock().lock();
+        try {
+            return built;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Indexes every record; later put/remove calls keep it current.
+    <T> void build(Collection<T> records, Function<T, String> keyOf, Function<T, String> textOf) {
+        lock.writeLock().lock();
+        try {
+            if (built) return;
+            for (T record : records) add(Keys.normalize(keyOf.apply(record)), textOf.apply(record));
+            built = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // (Re)indexes one record's text. A no-op until the index has been built.
+    void put(String key, String text) {
+        lock.writeLock().lock();
+        try {
+            if (!built) return;
+            String normalized = Keys.normalize(key);
+            removeKey(normalized);
+            add(normalized, text);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(String key) {
+        lock.writeLock().lock();
+        try {
+            if (built) removeKey(Keys.normalize(key));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Best matches first; a record matches if it contains any query term.
+    List<Hit> search(String query, int limit) {
+        List<String> terms = new ArrayList<>(tokenize(query).keySet());
+        if (terms.isEmpty() || limit <= 0) return Collections.emptyList();
+        lock.readLock().lock();
+        try {
+            if (documents == 0) return Collections.emptyList();
+            double averageLength = (double) totalLength / documents;
+            double[] scores = new double[idCount];
+            int[] touched = new int[0];
+            int touchedCount = 0;
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list == null) continue;
+                double idf = Math.log(1 + (documents - list.size + 0.5) / (list.size + 0.5));
+                if (touched.length < touchedCount + list.size) touched = Arrays.copyOf(touched, touchedCount + list.size);
+                for (int slot = 0; slot < list.docs.length; slot++) {
+                    int id = list.docs[slot];
+                    if (id < 0) continue;
+                    int tf = list.tfs[slot];
+                    double norm = K1 * (1 - B + B * lengthById[id] / averageLength);
+                    if (scores[id] == 0) touched[touchedCount++] = id;
+                    scores[id] += idf * tf * (K1 + 1) / (tf + norm);
+                }
+            }
+            // Keep only the top `limit` in a min-heap instead of sorting every match.
+            PriorityQueue<Hit> top = new PriorityQueue<>((x, y) -> Double.compare(x.score, y.score));
+            for (int i = 0; i < touchedCount; i++) {
+                int id = touched[i];
+                if (top.size() < limit) {
+                    top.add(new Hit(keyById[id], scores[id]));
+                } else if (scores[id] > top.peek().score) {
+                    top.poll();
+                    top.add(new Hit(keyById[id], scores[id]));
+                }
+            }
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort((x, y) -> Double.compare(y.score, x.score));
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Term -> frequency, in first-seen order.
+    static Map<String, Integer> tokenize(String text) {
+        Map<String, Integer> terms = new LinkedHashMap<>();
+        if (text == null) return terms;
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                if (i - start >= MIN_TERM_LENGTH) terms.merge(text.substring(start, i).toLowerCase(Locale.ROOT), 1, Integer::sum);
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    // Caller holds the write lock.
+    private void add(String key, String text) {
+        Map<String, Integer> terms = tokenize(text);
+        if (terms.isEmpty()) return;
+        int id = freedIds.isEmpty() ? idCount++ : freedIds.remove(freedIds.size() - 1);
+        if (id == keyById.length) {
+            keyById = Arrays.copyOf(keyById, id * 2);
+            termsById = Arrays.copyOf(termsById, id * 2);
+            lengthById = Arrays.copyOf(lengthById, id * 2);
+        }
+        int length = 0;
+        for (Map.Entry<String, Integer> term : terms.entrySet()) {
+            postings.computeIfAbsent(term.getKey(), t -> new Postings()).put(id, term.getValue());
+            length += term.getValue();
+        }
+        idByKey.put(key, id);
+        keyById[id] = key;
+        termsById[id] = terms.keySet().toArray(new String[0]);
+        lengthById[id] = length;
+        documents++;
+        totalLength += length;
+    }
+
+    // Caller holds the write lock.
+    private void removeKey(String key) {
+        Integer id = idByKey.remove(key);
+        if (id == null) return;
+        for (String term : termsById[id]) {
+            Postings list = postings.get(term);
+            list.remove(id);
+            if (list.size == 0) postings.remove(term);
+        }
+        totalLength -= lengthById[id];
+        documents--;
+        keyById[id] = null;
+        termsById[id] = null;
+        lengthById[id] = 0;
+        freedIds.add(id);
+    }
+
+    // Open-addressing map from document id to term frequency; -1 marks an empty slot.
+    // Deletion shifts later entries back instead of leaving tombstones, so lists never rot.
+    private static final class Postings {
+        int[] docs = emptySlots(4);
+        int[] tfs = new int[4];
+        int size;
+
+        void put(int doc, int tf) {
+            if ((size + 1) * 4 > docs.length * 3) resize(docs.length * 2);
+            int mask = docs.length - 1;
+            int slot = mix(doc) & mask;
+            while (docs[slot] >= 0 && docs[slot] != doc) slot = (slot + 1) & mask;
+            if (docs[slot] < 0) size++;
+            docs[slot] = doc;
+            tfs[slot] = tf;
+        }
+
+        void remove(int doc) {
+            int mask = docs.length - 1;
+            int slot = mix(doc) & mask;
+            while (docs[slot] != doc) {
+                if (docs[slot] < 0) return;
+                slot = (slot + 1) & mask;
+            }
+            size--;
+            // Backward-shift: pull later entries of the probe chain into the hole.
+            int hole = slot;
+            for (int next = (hole + 1) & mask; docs[next] >= 0; next = (next + 1) & mask) {
+                int home = mix(docs[next]) & mask;
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    docs[hole] = docs[next];
+                    tfs[hole] = tfs[next];
+                    hole = next;
+                }
+            }
+            docs[hole] = -1;
+        }
+
+        private void resize(int capacity) {
+            int[] oldDocs = docs, oldTfs = tfs;
+            docs = emptySlots(capacity);
+            tfs = new int[capacity];
+            size = 0;
+            for (int i = 0; i < oldDocs.length; i++) {
+                if (oldDocs[i] >= 0) put(oldDocs[i], oldTfs[i]);
+            }
+        }
+
+        private static int[] emptySlots(int capacity) {
+            int[] slots = new int[capacity];
+            Arrays.fill(slots, -1);
+            return slots;
+        }
+
+        private static int mix(int doc) {
+            return doc * 0x9E3779B9 >>> 7;
+        }
+    }
+}
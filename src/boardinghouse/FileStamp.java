@@ -0,0 +1,33 @@
+package boardinghouse;
+
+import java.io.File;
+
+// Modification time and size of a file, used to notice changes made outside this process.
+final class FileStamp {
+    private static final FileStamp MISSING = new FileStamp(-1L, -1L);
+
+    private final long lastModified;
+    private final long length;
+
+    private FileStamp(long lastModified, long length) {
+        this.lastModified = lastModified;
+        this.length = length;
+    }
+
+    static FileStamp of(File file) {
+        return file.exists() ? new FileStamp(file.lastModified(), file.length()) : MISSING;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof FileStamp)) return false;
+        FileStamp other = (FileStamp) o;
+        return lastModified == other.lastModified && length == other.length;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(lastModified) * 31 + Long.hashCode(length);
+    }
+}
@@ -0,0 +1,336 @@
+package boardinghouse;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+// Append-only write-ahead log that sits next to an entity's snapshot file.
+// Each mutation is one line: "P,<csv>" for an insert/replace, "D,<key>" for a delete.
+// "R,<csv>" is an insert/replace whose large fields are BlobStore handles; see Apartment.
+// A batch of mutations is framed by a "B,<count>" line and replays all-or-nothing.
+// Appends only touch an in-memory buffer; a daemon thread group-commits everything
+// buffered within the fsync window with a single write + force.
+class Journal {
+    static final char PUT = 'P';
+    static final char PUT_REF = 'R';
+    static final char DELETE = 'D';
+    static final char BATCH = 'B';
+
+    // How long appends may sit in memory before being fsynced. 0 means fsync on every append.
+    static final long FSYNC_WINDOW_MILLIS = Long.getLong("boarding.journal.fsyncWindowMillis", 50L);
+    // Number of journal entries after which the owner should fold the log back into its snapshot.
+    static final int COMPACT_THRESHOLD = Integer.getInteger("boarding.journal.compactThreshold", 10_000);
+
+    private static final ScheduledExecutorService FLUSHER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "journal-flusher");
+        t.setDaemon(true);
+        return t;
+    });
+    private static final List<Journal> OPEN_JOURNALS = new CopyOnWriteArrayList<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            for (Journal journal : OPEN_JOURNALS) journal.flush();
+        }, "journal-shutdown"));
+    }
+
+    private final Path path;
+    private final Runnable beforeSync;
+    private final Object writeLock = new Object();
+    private StringBuilder pending = new StringBuilder();
+    private boolean flushScheduled;
+    private boolean registered;
+    private int entries;
+    private FileChannel channel;
+
+    Journal(String snapshotFileName) {
+        this(snapshotFileName, () -> { });
+    }
+
+    // beforeSync runs before each write of buffered entries, e.g. to make durable the blobs that
+    // those entries refer to.
+    Journal(String snapshotFileName, Runnable beforeSync) {
+        this.beforeSync = beforeSync;
+        String base = snapshotFileName.endsWith(".dat")
+                ? snapshotFileName.substring(0, snapshotFileName.length() - 4)
+                : snapshotFileName;
+        this.path = Paths.get(base + ".journal");
+    }
+
+    // Entries appended since the last reset; used by the owner to decide when to compact.
+    synchronized int size() { return entries; }
+
+    void append(char op, String payload) {
+        append(op, () -> payload);
+    }
+
+    // The payload is rendered while holding the journal lock, so entries land in the log in the
+    // same order the record states were read. A null payload means "nothing to log" and is skipped.
+    void append(char op, Supplier<String> payload) {
+        boolean flushNow;
+        synchronized (this) {
+            String rendered = payload.get();
+            if (rendered == null) return;
+            pending.append(op).append(',').append(rendered).append('\n');
+            entries++;
+            flushNow = scheduleFlush();
+        }
+        if (flushNow) flush();
+    }
+
+    // Arranges for newly buffered entries to be written. Caller holds this journal's lock;
+    // returns true when the entries must be flushed right away instead.
+    private boolean scheduleFlush() {
+        if (!registered) {
+            registered = true;
+            OPEN_JOURNALS.add(this);
+        }
+        if (FSYNC_WINDOW_MILLIS <= 0) return true;
+        if (!flushScheduled) {
+            flushScheduled = true;
+            FLUSHER.schedule(this::flush, FSYNC_WINDOW_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        return false;
+    }
+
+    // One entry of a batch; see appendAll.
+    static final class Entry {
+        final char op;
+        final Supplier<String> payload;
+
+        Entry(char op, Supplier<String> payload) {
+            this.op = op;
+            this.payload = payload;
+        }
+    }
+
+    // Appends the entries as one unit behind a BATCH header. They are buffered together, so they
+    // reach the disk in the same write, and replay skips a batch whose tail was torn by a crash.
+    void appendAll(List<Entry> batch) {
+        List<String> lines = new ArrayList<>(batch.size());
+        boolean flushNow;
+        synchronized (this) {
+            for (Entry entry : batch) {
+                String rendered = entry.payload.get();
+                if (rendered != null) lines.add(entry.op + "," + rendered);
+            }
+            if (lines.isEmpty()) return;
+            if (lines.size() > 1) pending.append(BATCH).append(',').append(lines.size()).append('\n');
+            for (String line : lines) pending.append(line).append('\n');
+            entries += lines.size();
+            flushNow = scheduleFlush();
+        }
+        if (flushNow) flush();
+    }
+
+    // Writes and fsyncs everything buffered so far. Safe to call from any thread.
+    void flush() {
+        synchronized (writeLock) {
+            String batch;
+            synchronized (this) {
+                flushScheduled = false;
+                if (pending.length() == 0) return;
+                batch = pending.toString();
+                pending = new StringBuilder();
+            }
+            beforeSync.run();
+            try {
+                FileChannel out = channel();
+                ByteBuffer bytes = ByteBuffer.wrap(batch.getBytes(StandardCharsets.UTF_8));
+                while (bytes.hasRemaining()) out.write(bytes);
+                out.force(false);
+            } catch (IOException e) {
+                System.err.println("Error writing journal " + path + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // Feeds every complete entry on disk, in order. Whatever follows the last complete entry (a
+    // line cut short by a crash, or a batch missing entries) is cut off the file, so entries
+    // appended from now on can't be mistaken for the rest of it. Positions are counted on the raw
+    // bytes, and a line may end in CRLF (a log copied through a Windows editor), so the cut never
+    // lands inside a valid entry.
+    // Replaying again (an owner reloading after its files were replaced) restarts the entry count
+    // and reopens the file, so later appends go to the log that was just read.
+    void replay(BiConsumer<Character, String> consumer) {
+        synchronized (writeLock) {
+            try {
+                if (channel != null) channel.close();
+            } catch (IOException e) {
+                System.err.println("Error closing journal " + path + ": " + e.getMessage());
+            } finally {
+                channel = null;
+            }
+        }
+        synchronized (this) {
+            entries = 0;
+        }
+        if (!Files.exists(path)) return;
+        int replayed = 0;
+        long size = -1;
+        long applied = 0; // end of the last entry or batch handed to the consumer
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+            size = Files.size(path);
+            long position = 0;
+            List<String> batch = new ArrayList<>();
+            int batchSize = 0;
+            ByteArrayOutputStream raw = new ByteArrayOutputStream(256);
+            int b;
+            while ((b = in.read()) != -1) {
+                position++;
+                if (b != '\n') {
+                    raw.write(b);
+                    continue;
+                }
+                String line = raw.toString(StandardCharsets.UTF_8);
+                raw.reset();
+                if (line.endsWith("\r")) line = line.substring(0, line.length() - 1);
+                if (line.length() < 2 || line.charAt(1) != ',') continue; // torn line from an earlier crash
+                if (line.charAt(0) == BATCH) {
+                    batch.clear();
+                    batchSize = parseBatchSize(line);
+                    continue;
+                }
+                if (batchSize > 0) {
+                    // Held back until the whole batch is read; a torn batch is never applied.
+                    batch.add(line);
+                    if (batch.size() < batchSize) continue;
+                    for (String entry : batch) consumer.accept(entry.charAt(0), entry.substring(2));
+                    replayed += batch.size();
+                    batch.clear();
+                    batchSize = 0;
+                } else {
+                    consumer.accept(line.charAt(0), line.substring(2));
+                    replayed++;
+                }
+                applied = position;
+            }
+            // Bytes after the last newline are a line the crash cut short: never applied.
+        } catch (IOException e) {
+            System.err.println("Error replaying journal " + path + ": " + e.getMessage());
+            size = -1; // don't cut a log we couldn't read to the end
+        }
+        if (applied < size) {
+            try (FileChannel out = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                out.truncate(applied);
+            } catch (IOException e) {
+                System.err.println("Error trimming journal " + path + ": " + e.getMessage());
+            }
+        }
+        synchronized (this) {
+            entries += replayed;
+        }
+    }
+
+    private static int parseBatchSize(String header) {
+        try {
+            return Math.max(0, Integer.parseInt(header.substring(2).trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    // Marks the end of the log as it stands right before a snapshot is taken. Everything up to
+    // the mark is guaranteed to be reflected in a snapshot that is started afterwards.
+    Checkpoint checkpoint() {
+        synchronized (writeLock) {
+            flush();
+            int entriesAtMark;
+            synchronized (this) {
+                entriesAtMark = entries;
+            }
+            try {
+                return new Checkpoint(channel().size(), entriesAtMark);
+            } catch (IOException e) {
+                System.err.println("Error reading journal " + path + ": " + e.getMessage());
+                return new Checkpoint(0L, 0);
+            }
+        }
+    }
+
+    // Drops the entries covered by the checkpoint once the snapshot is safely installed.
+    // Entries appended after the checkpoint are copied into a fresh log that atomically
+    // replaces the old one, so a crash at any point leaves a replayable journal.
+    void truncate(Checkpoint checkpoint) {
+        synchronized (writeLock) {
+            flush();
+            Path tmp = Paths.get(path + ".tmp");
+            try {
+                if (channel != null) channel.close();
+                try (FileChannel in = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                     FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    long position = checkpoint.position;
+                    long size = in.size();
+                    while (position < size) position += in.transferTo(position, size - position, out);
+                    out.force(true);
+                }
+                try {
+                    Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+                }
+                synchronized (this) {
+                    entries -= checkpoint.entries;
+                }
+            } catch (IOException e) {
+                System.err.println("Error truncating journal " + path + ": " + e.getMessage());
+            } finally {
+                channel = null; // reopened lazily on the next flush
+            }
+        }
+    }
+
+    static final class Checkpoint {
+        final long position;
+        final int entries;
+
+        Checkpoint(long position, int entries) {
+            this.position = position;
+            this.entries = entries;
+        }
+    }
+
+    // Fsyncs a freshly written snapshot and atomically moves it over the live file.
+    static boolean installSnapshot(File tmp, File target) {
+        try {
+            try (FileChannel written = FileChannel.open(tmp.toPath(), StandardOpenOption.WRITE)) {
+                written.force(true);
+            }
+            try {
+                Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error replacing snapshot " + target + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private FileChannel channel() throws IOException {
+        if (channel == null || !channel.isOpen()) {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        return channel;
+    }
+}
@@ -0,0 +1,12 @@
+package boardinghouse;
+
+import java.util.Locale;
+
+// Normalizes record keys so hash lookups match the old equalsIgnoreCase comparisons.
+final class Keys {
+    private Keys() {}
+
+    static String normalize(String key) {
+        return key == null ? null : key.toLowerCase(Locale.ROOT);
+    }
+}
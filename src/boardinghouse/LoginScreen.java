@@ -0,0 +1,86 @@
+package boardinghouse;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+
+// Login screen for the Apartment Management System.
+class LoginScreen extends JFrame {
+    private JTextField usernameField;
+    private JPasswordField passwordField;
+    private JButton loginButton;
+    private UserManager userManager;
+
+    public LoginScreen() {
+        userManager = DataRepository.get().users();
+        setTitle("Login - Apartment Management System");
+        setSize(350, 200);
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setLocationRelativeTo(null);
+        setLayout(new BorderLayout(10, 10));
+
+        JPanel loginPanel = new JPanel(new GridLayout(3, 2, 5, 5));
+        loginPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 10, 20));
+        usernameField = new JTextField(15);
+        passwordField = new JPasswordField(15);
+        loginButton = new JButton("Login");
+        loginPanel.add(new JLabel("Username:"));
+        loginPanel.add(usernameField);
+        loginPanel.add(new JLabel("Password:"));
+        loginPanel.add(passwordField);
+        loginPanel.add(new JLabel(""));
+        loginPanel.add(loginButton);
+        add(loginPanel, BorderLayout.CENTER);
+
+        loginButton.addActionListener(e -> attemptLogin());
+        passwordField.addActionListener(e -> attemptLogin());
+    }
+
+    // The password check is a deliberately slow hash, so it runs on a worker thread; the form is
+    // disabled until it answers.
+    private void attemptLogin() {
+        String username = usernameField.getText();
+        char[] password = passwordField.getPassword();
+        setFormEnabled(false);
+        new SwingWorker<Session, Void>() {
+            @Override
+            protected Session doInBackground() {
+                try {
+                    return SessionManager.get().login(userManager, username, new String(password));
+                } finally {
+                    Arrays.fill(password, '\0');
+                }
+            }
+
+            @Override
+            protected void done() {
+                Session session;
+                try {
+                    session = get();
+                } catch (InterruptedException | ExecutionException ex) {
+                    setFormEnabled(true);
+                    JOptionPane.showMessageDialog(LoginScreen.this, "Login failed: " + ex.getMessage(), "Login Failed", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                if (session != null) {
+                    JOptionPane.showMessageDialog(LoginScreen.this, "Login Successful! Role: " + session.role, "Success", JOptionPane.INFORMATION_MESSAGE);
+                    dispose();
+                    // Pass the session and the manager instance to the main GUI
+                    SwingUtilities.invokeLater(() -> new ApartmentManagementGUI(session, userManager).setVisible(true));
+                } else {
+                    setFormEnabled(true);
+                    JOptionPane.showMessageDialog(LoginScreen.this, "Invalid Username or Password.", "Login Failed", JOptionPane.ERROR_MESSAGE);
+                    passwordField.setText("");
+                }
+            }
+        }.execute();
+    }
+
+    private void setFormEnabled(boolean enabled) {
+        usernameField.setEnabled(enabled);
+        passwordField.setEnabled(enabled);
+        loginButton.setEnabled(enabled);
+        setCursor(enabled ? Cursor.getDefaultCursor() : Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+    }
+}
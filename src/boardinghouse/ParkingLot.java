@@ -0,0 +1,255 @@
+package boardinghouse;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+// NEW: Represents a ParkingLot object
+// A spot holds a calendar of date-ranged reservations (see Reservation) instead of a single date.
+// The calendar lives in an immutable State swapped with compare-and-set (see Apartment), so
+// reservations never need a lock and two tenants can never book overlapping days.
+class ParkingLot implements Serializable {
+    private static final Reservation[] NO_RESERVATIONS = new Reservation[0];
+
+    private String spotNumber;
+    private final AtomicReference<State> state;
+
+    // Legacy single-reservation form: a reserved spot gets one reservation on reservationDate.
+    public ParkingLot(String spotNumber, boolean isReserved, String reservedByTenantName, String reservationDate) {
+        this(spotNumber, isReserved ? legacyReservation(spotNumber, reservedByTenantName, reservationDate) : NO_RESERVATIONS);
+    }
+
+    ParkingLot(String spotNumber, Reservation[] calendar) {
+        this.spotNumber = spotNumber;
+        this.state = new AtomicReference<>(new State(calendar, 0L, false));
+    }
+
+    // Detached copy of the spot as it is now, for change events; never sealed.
+    ParkingLot snapshot() {
+        State s = state.get();
+        ParkingLot copy = new ParkingLot(spotNumber, s.calendar);
+        copy.state.set(new State(s.calendar, s.version, s.removed));
+        return copy;
+    }
+
+    // A reserved flag without a readable date is reported and the spot is left free, rather than
+    // booked for a made-up day.
+    private static Reservation[] legacyReservation(String spotNumber, String tenantName, String reservationDate) {
+        long[] range = Reservation.parseRange(reservationDate);
+        if (range == null) {
+            System.err.println("Error loading parking spot " + spotNumber + ": invalid reservation date \""
+                    + reservationDate + "\"; leaving it unreserved");
+            return NO_RESERVATIONS;
+        }
+        return new Reservation[]{new Reservation(tenantName, range[0], range[1])};
+    }
+
+    // Getters
+    public String getSpotNumber() { return spotNumber; }
+    public boolean isReserved() { return state.get().calendar.length > 0; }
+    public long getVersion() { return state.get().version; }
+    public boolean isRemoved() { return state.get().removed; }
+    public List<Reservation> getReservations() { return Arrays.asList(state.get().calendar.clone()); }
+    // The calendar array itself; it is never modified, so callers must not modify it either.
+    Reservation[] getCalendar() { return state.get().calendar; }
+
+    // Earliest reservation's tenant, or null when the spot has no bookings.
+    public String getReservedByTenantName() {
+        Reservation[] calendar = state.get().calendar;
+        return calendar.length == 0 ? null : calendar[0].tenantName;
+    }
+
+    // Earliest reservation's dates, or null when the spot has no bookings.
+    public String getReservationDate() {
+        Reservation[] calendar = state.get().calendar;
+        return calendar.length == 0 ? null : calendar[0].formatDates();
+    }
+
+    // Tenants of the spot's reservations, in calendar order; may repeat.
+    List<String> getTenantNames() {
+        Reservation[] calendar = state.get().calendar;
+        List<String> names = new ArrayList<>(calendar.length);
+        for (Reservation r : calendar) names.add(r.tenantName);
+        return names;
+    }
+
+    boolean hasReservationFor(String tenantName) {
+        for (Reservation r : state.get().calendar) {
+            if (r.tenantName != null && r.tenantName.equalsIgnoreCase(tenantName)) return true;
+        }
+        return false;
+    }
+
+    // Atomically books [fromDay, toDay] for a tenant. Of any racing callers whose ranges overlap,
+    // exactly one wins; the rest see the days taken and get false.
+    boolean claim(String tenantName, long fromDay, long toDay) {
+        Reservation reservation = new Reservation(tenantName, fromDay, toDay);
+        while (true) {
+            State current = awaitUnsealed();
+            if (current.removed || !Reservation.isFree(current.calendar, fromDay, toDay)) return false;
+            State next = new State(Reservation.insert(current.calendar, reservation), current.version + 1, false);
+            if (state.compareAndSet(current, next)) return true;
+        }
+    }
+
+    // Atomically drops the reservations of one tenant (or all of them when tenantName is null).
+    // Returns false if nothing was cancelled.
+    boolean release(String tenantName) {
+        while (true) {
+            State current = awaitUnsealed();
+            if (current.removed || current.calendar.length == 0) return false;
+            List<Reservation> kept = new ArrayList<>();
+            if (tenantName != null) {
+                for (Reservation r : current.calendar) {
+                    if (r.tenantName == null || !r.tenantName.equalsIgnoreCase(tenantName)) kept.add(r);
+                }
+            }
+            if (kept.size() == current.calendar.length) return false;
+            State next = new State(kept.toArray(NO_RESERVATIONS), current.version + 1, false);
+            if (state.compareAndSet(current, next)) return true;
+        }
+    }
+
+    // Also ends a seal: a batch that deletes a spot it sealed just removes it.
+    void markRemoved() {
+        while (true) {
+            State current = state.get();
+            if (current.removed) return;
+            State next = new State(current.calendar, current.version + 1, true);
+            if (state.compareAndSet(current, next)) break;
+        }
+        signalUnsealed();
+    }
+
+    // Freezes the spot for a batch commit: claims and releases wait until unseal(), so the calendar
+    // the batch validated is still the one it replaces. Only called under the spot's stripe lock.
+    // Returns the calendar at the moment of sealing, or null if the spot was removed.
+    Reservation[] seal() {
+        while (true) {
+            State current = state.get();
+            if (current.removed) return null;
+            if (state.compareAndSet(current, new State(current.calendar, current.version, false, true))) return current.calendar;
+        }
+    }
+
+    // Ends a seal by installing calendar, or by keeping the sealed one when calendar is null.
+    // Also sets the calendar of a spot a batch is about to add, before anyone else can see it.
+    void unseal(Reservation[] calendar) {
+        State current = state.get();
+        state.set(calendar == null
+                ? new State(current.calendar, current.version, current.removed)
+                : new State(calendar, current.version + 1, current.removed));
+        signalUnsealed();
+    }
+
+    // Current state once no batch holds the spot sealed. A seal lasts one batch commit, so waiters
+    // park on the spot's monitor until unseal() or markRemoved() wakes them instead of spinning.
+    // An interrupt does not cut the wait short; it is kept for the caller to see.
+    private State awaitUnsealed() {
+        State current = state.get();
+        if (!current.sealed) return current;
+        boolean interrupted = false;
+        synchronized (this) {
+            while ((current = state.get()).sealed) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        return current;
+    }
+
+    private synchronized void signalUnsealed() {
+        notifyAll();
+    }
+
+    // Legacy four-column layout. With several bookings the tenant and date columns hold
+    // ';'-separated lists in calendar order, so single-reservation rows are unchanged.
+    public String toCsvString() {
+        return toCsvString(state.get());
+    }
+
+    // Journal payload for the current state, or null once the spot has been removed.
+    String toJournalEntry() {
+        State s = state.get();
+        return s.removed ? null : toCsvString(s);
+    }
+
+    private String toCsvString(State s) {
+        StringBuilder tenants = new StringBuilder();
+        StringBuilder dates = new StringBuilder();
+        for (int i = 0; i < s.calendar.length; i++) {
+            if (i > 0) {
+                tenants.append(';');
+                dates.append(';');
+            }
+            tenants.append(s.calendar[i].tenantName != null ? s.calendar[i].tenantName : ""); // Handle null
+            dates.append(s.calendar[i].formatDates());
+        }
+        return String.join(",", spotNumber, String.valueOf(s.calendar.length > 0), tenants, dates);
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        Reservation[] calendar = state.get().calendar;
+        BinarySnapshot.writeString(out, spotNumber);
+        out.writeInt(calendar.length);
+        for (Reservation r : calendar) {
+            BinarySnapshot.writeString(out, r.tenantName);
+            out.writeLong(r.startDay);
+            out.writeLong(r.endDay);
+        }
+    }
+
+    public static ParkingLot readFrom(BinarySnapshot.Cursor in) {
+        String spotNumber = in.readString();
+        if (in.getVersion() < 2) { // single reservation: flag, tenant, date
+            return new ParkingLot(spotNumber, in.readBoolean(), in.readString(), in.readString());
+        }
+        Reservation[] calendar = new Reservation[in.readInt()];
+        for (int i = 0; i < calendar.length; i++) {
+            calendar[i] = new Reservation(in.readString(), in.readLong(), in.readLong());
+        }
+        return new ParkingLot(spotNumber, calendar);
+    }
+
+    public static ParkingLot fromCsvString(String csv) {
+        String[] parts = csv.split(",", 4);
+        if (parts.length != 4) return null;
+        if (!Boolean.parseBoolean(parts[1])) return new ParkingLot(parts[0], NO_RESERVATIONS);
+        String[] tenants = parts[2].split(";", -1);
+        String[] dates = parts[3].split(";", -1);
+        if (tenants.length != dates.length) {
+            return new ParkingLot(parts[0], true, parts[2].isEmpty() ? null : parts[2], parts[3]);
+        }
+        List<Reservation> calendar = new ArrayList<>(tenants.length);
+        for (int i = 0; i < tenants.length; i++) {
+            calendar.addAll(Arrays.asList(legacyReservation(parts[0], tenants[i].isEmpty() ? null : tenants[i], dates[i])));
+        }
+        calendar.sort((x, y) -> Long.compare(x.startDay, y.startDay));
+        return new ParkingLot(parts[0], calendar.toArray(NO_RESERVATIONS));
+    }
+
+    private static final class State implements Serializable {
+        private static final long serialVersionUID = 1L;
+        final Reservation[] calendar;
+        final long version;
+        final boolean removed;
+        final boolean sealed; // held by a batch commit; see seal()
+
+        State(Reservation[] calendar, long version, boolean removed) {
+            this(calendar, version, removed, false);
+        }
+
+        State(Reservation[] calendar, long version, boolean removed, boolean sealed) {
+            this.calendar = calendar;
+            this.version = version;
+            this.removed = removed;
+            this.sealed = sealed;
+        }
+    }
+}
@@ -0,0 +1,625 @@
+package boardinghouse;
+
+import java.io.*;
+import java.time.LocalDate; // For date handling, though we'll start with String for simplicity
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+
+// NEW: Manages a collection of ParkingLot objects
+// Safe to share between threads: reads are lock-free and each write locks only its key's stripe.
+class ParkingLotManager {
+    // Keyed by normalized spot number; insertion order is kept for listing.
+    private final RecordStore<ParkingLot> parkingLots = new RecordStore<>();
+    // Bitmap of spots with no reservations at all; backs the "available only" queries.
+    private final AvailabilityIndex<ParkingLot> unreserved = new AvailabilityIndex<>(ParkingLot::getSpotNumber, spot -> !spot.isReserved());
+    // Every spot's bookings by date, for "free on these days" queries across all spots.
+    private final ReservationIndex bookings = new ReservationIndex();
+    // Booking totals and per-day counts, maintained alongside the bitmap.
+    private final ParkingStatistics statistics = new ParkingStatistics();
+    // Tenant name -> spots holding any of their reservations.
+    private final TenantIndex<ParkingLot> tenants = new TenantIndex<>(ParkingLot::getSpotNumber, ParkingLot::getTenantNames);
+    // Trigram index over spot number and tenants for find-as-you-type, built on the first search.
+    private final TrigramIndex<ParkingLot> finder = new TrigramIndex<>(ParkingLot::getSpotNumber, spot -> {
+        List<String> texts = spot.getTenantNames();
+        texts.add(spot.getSpotNumber());
+        return texts;
+    });
+    private static final String FILE_NAME = "parking_lots.dat";
+    private final String fileName;
+    private final Journal journal;
+    private final ChangeTracker changes = new ChangeTracker();
+    private final ChangeBus<ParkingLot> events = new ChangeBus<>();
+    private volatile FileStamp snapshotStamp;
+    // Held while this manager renames its own snapshot into place and records its stamp, so the
+    // staleness check never mistakes our own install for someone else's.
+    private final Object stampLock = new Object();
+    private final Object saveLock = new Object();
+
+    public ParkingLotManager() {
+        this(FILE_NAME);
+    }
+
+    ParkingLotManager(String fileName) {
+        this.fileName = fileName;
+        this.journal = new Journal(fileName);
+        boolean legacyFormat = loadParkingLots();
+        journal.replay(this::applyJournalEntry);
+        if (legacyFormat) compactParkingLots(); // one-time migration of a CSV snapshot to the binary format
+        if (parkingLots.isEmpty()) {
+            // Add some dummy data if file is empty
+            for (ParkingLot seed : new ParkingLot[]{
+                    new ParkingLot("P01", false, null, null),
+                    new ParkingLot("P02", true, "Alice Smith", LocalDate.now().toString()),
+                    new ParkingLot("P03", false, null, null),
+                    new ParkingLot("P04", true, "Bob Johnson", LocalDate.now().plusDays(2).toString()),
+                    new ParkingLot("P05", false, null, null)}) {
+                parkingLots.putIfAbsent(seed.getSpotNumber(), seed);
+                changes.markDirty(seed.getSpotNumber()); // not journaled; the first save writes it
+            }
+        }
+        unreserved.rebuild(parkingLots.values());
+        bookings.rebuild(parkingLots.values());
+        statistics.rebuild(parkingLots.values());
+        tenants.rebuild(parkingLots.values());
+    }
+
+    public boolean addSpot(ParkingLot spot) {
+        if (!insert(spot)) return false;
+        events.publish(ChangeBus.added(spot.getSpotNumber(), spot));
+        compactIfNeeded();
+        return true;
+    }
+
+    // Adds a batch, compacting at most once at the end. Returns the spots whose number was taken.
+    public List<ParkingLot> addSpots(List<ParkingLot> batch) {
+        List<ParkingLot> refused = new ArrayList<>();
+        List<ChangeBus.Change<ParkingLot>> added = new ArrayList<>(batch.size());
+        for (ParkingLot spot : batch) {
+            if (insert(spot)) added.add(ChangeBus.added(spot.getSpotNumber(), spot));
+            else refused.add(spot);
+        }
+        events.publish(added);
+        compactIfNeeded();
+        return refused;
+    }
+
+    private boolean insert(ParkingLot spot) {
+        Lock lock = parkingLots.lockFor(spot.getSpotNumber());
+        lock.lock();
+        try {
+            if (!insertLocked(spot)) return false;
+            journal.append(Journal.PUT, spot::toJournalEntry);
+        } finally {
+            lock.unlock();
+        }
+        return true;
+    }
+
+    // The *Locked helpers expect the caller to hold the spot's stripe lock and to journal the change.
+    private boolean insertLocked(ParkingLot spot) {
+        if (!parkingLots.putIfAbsent(spot.getSpotNumber(), spot)) return false;
+        unreserved.put(spot);
+        bookings.put(spot);
+        statistics.put(spot);
+        tenants.put(spot);
+        finder.put(spot);
+        changes.markDirty(spot.getSpotNumber());
+        return true;
+    }
+
+    private ParkingLot deleteLocked(String spotNumber) {
+        ParkingLot removed = parkingLots.remove(spotNumber);
+        if (removed == null) return null;
+        removed.markRemoved();
+        unreserved.remove(spotNumber);
+        bookings.remove(spotNumber);
+        statistics.remove(spotNumber);
+        tenants.remove(spotNumber);
+        finder.remove(spotNumber);
+        changes.markDirty(removed.getSpotNumber());
+        return removed;
+    }
+
+    public Optional<ParkingLot> findSpotByNumber(String spotNumber) {
+        return Optional.ofNullable(parkingLots.get(spotNumber));
+    }
+
+    public boolean reserveSpot(String spotNumber, String tenantName, String reservationDate) {
+        return claimSpot(spotNumber, tenantName, reservationDate) == ClaimResult.WON;
+    }
+
+    // Accepts a single day ("YYYY-MM-DD") or a range ("YYYY-MM-DD..YYYY-MM-DD").
+    public ClaimResult claimSpot(String spotNumber, String tenantName, String reservationDates) {
+        long[] range = Reservation.parseRange(reservationDates);
+        if (range == null) throw new IllegalArgumentException("Invalid reservation date: " + reservationDates);
+        return claimSpot(spotNumber, tenantName, range[0], range[1]);
+    }
+
+    // Lock-free reservation: the spot's calendar is swapped with compare-and-set, so when several
+    // tenants race for overlapping days exactly one gets WON and the rest get ALREADY_TAKEN.
+    public ClaimResult claimSpot(String spotNumber, String tenantName, long fromDay, long toDay) {
+        ParkingLot spot = parkingLots.get(spotNumber);
+        if (spot == null) return ClaimResult.NOT_FOUND;
+        ParkingLot before = events.hasSubscribers() ? spot.snapshot() : null;
+        if (!spot.claim(tenantName, fromDay, toDay)) return spot.isRemoved() ? ClaimResult.NOT_FOUND : ClaimResult.ALREADY_TAKEN;
+        unreserved.refresh(spot);
+        bookings.refresh(spot);
+        statistics.refresh(spot);
+        tenants.refresh(spot);
+        finder.refresh(spot);
+        journal.append(Journal.PUT, spot::toJournalEntry);
+        changes.markDirty(spot.getSpotNumber());
+        events.publish(ChangeBus.updated(spot.getSpotNumber(), before, spot));
+        compactIfNeeded();
+        return ClaimResult.WON;
+    }
+
+    // Cancels every reservation on the spot.
+    public boolean cancelReservation(String spotNumber) {
+        return cancelReservation(spotNumber, null);
+    }
+
+    // Cancels only the given tenant's reservations on the spot (all of them when tenantName is null).
+    public boolean cancelReservation(String spotNumber, String tenantName) {
+        ParkingLot spot = parkingLots.get(spotNumber);
+        if (spot == null) return false;
+        ParkingLot before = events.hasSubscribers() ? spot.snapshot() : null;
+        if (!spot.release(tenantName)) return false;
+        unreserved.refresh(spot);
+        bookings.refresh(spot);
+        statistics.refresh(spot);
+        tenants.refresh(spot);
+        finder.refresh(spot);
+        journal.append(Journal.PUT, spot::toJournalEntry);
+        changes.markDirty(spot.getSpotNumber());
+        events.publish(ChangeBus.updated(spot.getSpotNumber(), before, spot));
+        compactIfNeeded();
+        return true;
+    }
+
+    // Spots with no booking on any day in [fromDay, toDay], in listing order.
+    public List<ParkingLot> findFreeSpots(long fromDay, long toDay) {
+        return findFreeSpots(fromDay, toDay, 0, Integer.MAX_VALUE);
+    }
+
+    // One page of findFreeSpots. The booked spots come from the reservation index, in O(log n + m)
+    // for the m bookings touching the range; the page is then read off the listing, skipping them,
+    // so no spot past the page is visited and the full list is never built.
+    public List<ParkingLot> findFreeSpots(long fromDay, long toDay, int offset, int limit) {
+        Set<String> busy = bookings.busySpots(fromDay, toDay);
+        List<ParkingLot> page = new ArrayList<>(Math.min(limit, 1024));
+        int skipped = 0;
+        for (ParkingLot spot : parkingLots.values()) {
+            if (page.size() == limit) break;
+            if (busy.contains(Keys.normalize(spot.getSpotNumber()))) continue;
+            if (skipped++ >= offset) page.add(spot);
+        }
+        return page;
+    }
+
+    public boolean deleteSpot(String spotNumber) {
+        if (spotNumber == null) return false;
+        Lock lock = parkingLots.lockFor(spotNumber);
+        ParkingLot removed;
+        lock.lock();
+        try {
+            removed = deleteLocked(spotNumber);
+            if (removed == null) return false;
+            journal.append(Journal.DELETE, removed.getSpotNumber());
+        } finally {
+            lock.unlock();
+        }
+        events.publish(ChangeBus.removed(removed.getSpotNumber(), removed));
+        compactIfNeeded();
+        return true;
+    }
+
+    // Starts a batch: stage any number of changes, then commit() applies all of them or none.
+    public Batch batch() {
+        return new Batch();
+    }
+
+    // Drops every reservation that ended before the given epoch day, across all spots, as one batch.
+    // A spot deleted while the batch is staged is skipped rather than failing the whole release.
+    public BatchResult releaseExpiredReservations(long today) {
+        Batch batch = batch();
+        for (ParkingLot spot : parkingLots.values()) {
+            Reservation[] calendar = spot.getCalendar();
+            if (calendar.length > 0 && calendar[0].endDay < today) batch.releaseEndedBefore(spot.getSpotNumber(), today);
+        }
+        return batch.commit();
+    }
+
+    // Changes staged against this manager and applied together; see ApartmentManager.Batch.
+    // Reservations are lock-free, so on top of the stripe locks commit() seals every spot it
+    // touches: claims and cancellations on those spots wait until the batch has installed its
+    // calendars or given up, and the calendars it validated are the ones it replaces.
+    final class Batch {
+        private final List<Staged> staged = new ArrayList<>();
+        private boolean done;
+
+        public Batch add(ParkingLot spot) {
+            return stage(new Staged(Staged.ADD, spot.getSpotNumber(), spot, null, 0, 0));
+        }
+
+        public Batch delete(String spotNumber) {
+            return stage(new Staged(Staged.DELETE, spotNumber, null, null, 0, 0));
+        }
+
+        public Batch reserve(String spotNumber, String tenantName, long fromDay, long toDay) {
+            return stage(new Staged(Staged.RESERVE, spotNumber, null, tenantName, fromDay, toDay));
+        }
+
+        // Cancels the tenant's reservations on the spot, or all of them when tenantName is null.
+        public Batch cancel(String spotNumber, String tenantName) {
+            return stage(new Staged(Staged.CANCEL, spotNumber, null, tenantName, 0, 0));
+        }
+
+        // Drops the spot's reservations that ended before day; a spot with none is left as is, and
+        // so is a spot deleted since it was staged, whose reservations went with it.
+        public Batch releaseEndedBefore(String spotNumber, long day) {
+            return stage(new Staged(Staged.RELEASE_ENDED, spotNumber, null, null, day, day));
+        }
+
+        public int size() {
+            return staged.size();
+        }
+
+        public void rollback() {
+            staged.clear();
+            done = true;
+        }
+
+        public BatchResult commit() {
+            if (done) throw new IllegalStateException("Batch already committed or rolled back");
+            done = true;
+            if (staged.isEmpty()) return BatchResult.committed(new ArrayList<>());
+            List<String> keys = new ArrayList<>(staged.size());
+            for (Staged change : staged) keys.add(change.key);
+            Map<String, Working> working = new LinkedHashMap<>();
+            List<ChangeBus.Change<ParkingLot>> published = new ArrayList<>();
+            List<Lock> locks = parkingLots.lockAll(keys);
+            boolean installed = false;
+            try {
+                for (String key : keys) {
+                    if (key == null || working.containsKey(Keys.normalize(key))) continue;
+                    ParkingLot spot = parkingLots.get(key);
+                    working.put(Keys.normalize(key), new Working(spot, spot == null ? null : spot.seal()));
+                }
+                BatchResult rejected = validate(working);
+                if (rejected != null) return rejected;
+                List<Journal.Entry> log = new ArrayList<>(working.size());
+                List<String> changed = new ArrayList<>();
+                for (Working w : working.values()) {
+                    if (!w.changed) continue;
+                    if (w.original != null && w.spot == w.original) {
+                        published.add(ChangeBus.updated(w.original.getSpotNumber(),
+                                events.hasSubscribers() ? w.original.snapshot() : null, w.original));
+                        w.original.unseal(w.calendar);
+                        unreserved.refresh(w.original);
+                        bookings.refresh(w.original);
+                        statistics.refresh(w.original);
+                        tenants.refresh(w.original);
+                        finder.refresh(w.original);
+                        changes.markDirty(w.original.getSpotNumber());
+                        log.add(new Journal.Entry(Journal.PUT, w.original::toJournalEntry));
+                        changed.add(w.original.getSpotNumber());
+                        continue;
+                    }
+                    if (w.original != null) { // deleted, perhaps added again
+                        ParkingLot removed = deleteLocked(w.original.getSpotNumber());
+                        log.add(new Journal.Entry(Journal.DELETE, removed::getSpotNumber));
+                        changed.add(removed.getSpotNumber());
+                        published.add(ChangeBus.removed(removed.getSpotNumber(), removed));
+                    }
+                    if (w.spot != null) {
+                        w.spot.unseal(w.calendar);
+                        insertLocked(w.spot);
+                        log.add(new Journal.Entry(Journal.PUT, w.spot::toJournalEntry));
+                        if (w.original == null) changed.add(w.spot.getSpotNumber());
+                        published.add(ChangeBus.added(w.spot.getSpotNumber(), w.spot));
+                    }
+                }
+                installed = true;
+                journal.appendAll(log);
+                return BatchResult.committed(changed);
+            } finally {
+                if (!installed) {
+                    for (Working w : working.values()) {
+                        if (w.original != null) w.original.unseal(null);
+                    }
+                } else {
+                    for (Working w : working.values()) {
+                        if (w.original != null && !w.changed) w.original.unseal(null);
+                    }
+                }
+                for (Lock lock : locks) lock.unlock();
+                if (installed) {
+                    events.publish(published);
+                    compactIfNeeded();
+                }
+            }
+        }
+
+        // Applies the batch to the working calendars only. Returns the first rejection, or null.
+        private BatchResult validate(Map<String, Working> working) {
+            for (int i = 0; i < staged.size(); i++) {
+                Staged change = staged.get(i);
+                if (change.key == null || change.key.trim().isEmpty()) return BatchResult.rejected(i, "Spot number is required.");
+                Working w = working.get(Keys.normalize(change.key));
+                if (change.kind == Staged.ADD) {
+                    if (w.spot != null) return BatchResult.rejected(i, "Spot " + change.key + " already exists.");
+                    w.spot = change.spot;
+                    w.calendar = change.spot.getCalendar();
+                    w.changed = true;
+                    continue;
+                }
+                if (w.spot == null) {
+                    if (change.kind == Staged.RELEASE_ENDED) continue;
+                    return BatchResult.rejected(i, "Spot " + change.key + " not found.");
+                }
+                if (change.kind == Staged.DELETE) {
+                    w.spot = null;
+                    w.calendar = null;
+                    w.changed = true;
+                } else if (change.kind == Staged.RESERVE) {
+                    if (change.tenantName == null || change.tenantName.trim().isEmpty()) return BatchResult.rejected(i, "Tenant name is required.");
+                    if (change.toDay < change.fromDay) return BatchResult.rejected(i, "Reservation ends before it starts.");
+                    if (!Reservation.isFree(w.calendar, change.fromDay, change.toDay)) {
+                        return BatchResult.rejected(i, "Spot " + change.key + " is already reserved on some of those days.");
+                    }
+                    w.calendar = Reservation.insert(w.calendar, new Reservation(change.tenantName.trim(), change.fromDay, change.toDay));
+                    w.changed = true;
+                } else {
+                    List<Reservation> kept = new ArrayList<>();
+                    for (Reservation r : w.calendar) {
+                        boolean drop = change.kind == Staged.CANCEL
+                                ? change.tenantName == null || (r.tenantName != null && r.tenantName.equalsIgnoreCase(change.tenantName))
+                                : r.endDay < change.fromDay;
+                        if (!drop) kept.add(r);
+                    }
+                    if (kept.size() == w.calendar.length) {
+                        if (change.kind == Staged.CANCEL) return BatchResult.rejected(i, "No reservations to cancel on spot " + change.key + ".");
+                        continue;
+                    }
+                    w.calendar = kept.toArray(new Reservation[0]);
+                    w.changed = true;
+                }
+            }
+            return null;
+        }
+
+        private Batch stage(Staged change) {
+            if (done) throw new IllegalStateException("Batch already committed or rolled back");
+            staged.add(change);
+            return this;
+        }
+    }
+
+    private static final class Staged {
+        static final char ADD = 'A', DELETE = 'D', RESERVE = 'R', CANCEL = 'C', RELEASE_ENDED = 'E';
+
+        final char kind;
+        final String key;
+        final ParkingLot spot;   // ADD
+        final String tenantName; // RESERVE, CANCEL
+        final long fromDay;      // RESERVE; the cutoff day for RELEASE_ENDED
+        final long toDay;
+
+        Staged(char kind, String key, ParkingLot spot, String tenantName, long fromDay, long toDay) {
+            this.kind = kind;
+            this.key = key;
+            this.spot = spot;
+            this.tenantName = tenantName;
+            this.fromDay = fromDay;
+            this.toDay = toDay;
+        }
+    }
+
+    // One spot number's state as the batch goes: the stored spot, sealed, and what it becomes.
+    private static final class Working {
+        final ParkingLot original; // stored spot when the commit began, or null
+        ParkingLot spot;           // spot the number ends up with, or null when deleted
+        Reservation[] calendar;
+        boolean changed;
+
+        Working(ParkingLot original, Reservation[] calendar) {
+            this.original = original;
+            this.spot = original;
+            this.calendar = calendar;
+        }
+    }
+
+    public List<ParkingLot> getAllParkingLots() {
+        return parkingLots.snapshot();
+    }
+
+    // Live, read-only view in listing order, for walking every spot without copying the list.
+    Collection<ParkingLot> parkingLotsView() {
+        return parkingLots.values();
+    }
+
+    // Listing order, starting after the first offset spots.
+    public List<ParkingLot> getParkingLots(int offset, int limit) {
+        return parkingLots.page(offset, limit);
+    }
+
+    // Spots without any reservation, straight from the bitmap.
+    public List<ParkingLot> getUnreservedSpots() {
+        return unreserved.listFree();
+    }
+
+    public List<ParkingLot> getUnreservedSpots(int offset, int limit) {
+        return unreserved.listFree(offset, limit);
+    }
+
+    // Spots whose number or a tenant starts with the query's words, tolerating typos; see TrigramIndex.
+    public TrigramIndex.Result<ParkingLot> findSpots(String query, int limit) {
+        buildFinder();
+        return finder.search(query, limit);
+    }
+
+    // Builds the find-as-you-type index now instead of on the first search.
+    void buildFinder() {
+        if (!finder.isBuilt()) finder.build(parkingLots.values());
+    }
+
+    // Spots where tenantName holds at least one reservation, ignoring case; O(results).
+    public List<ParkingLot> findSpotsByTenant(String tenantName) {
+        return tenants.find(tenantName);
+    }
+
+    public ParkingStatistics.Summary getStatistics() {
+        return statistics.summary();
+    }
+
+    // Spots booked on the given epoch day, from the running per-day counts.
+    public int countSpotsBookedOn(long day) {
+        return statistics.spotsBookedOn(day);
+    }
+
+    public int countUnreservedSpots() {
+        return unreserved.countFree();
+    }
+
+    public Optional<ParkingLot> findFirstUnreservedSpot() {
+        return Optional.ofNullable(unreserved.nextFree(0));
+    }
+
+    // Saves only what changed since the last save: nothing when parkingLots are untouched, otherwise
+    // the journaled edits, so the cost follows the number of edits. The snapshot is rewritten only
+    // once enough records are dirty (or the journal is long) that replay would cost more.
+    public void saveParkingLots() {
+        if (!changes.hasUnsavedChanges()) return;
+        long mark = changes.changeCount();
+        if (changes.shouldRewrite(parkingLots.size(), journal.size())) {
+            compactParkingLots();
+        } else {
+            journal.flush();
+            changes.markSaved(mark);
+        }
+    }
+
+    // Writes a full snapshot and folds the journal into it. Writers are never blocked: every
+    // change that might be missing from the snapshot was journaled after the checkpoint, so it
+    // survives the truncation, and replaying it over the snapshot is idempotent.
+    void compactParkingLots() {
+        synchronized (saveLock) {
+            long mark = changes.changeCount();
+            Journal.Checkpoint checkpoint = journal.checkpoint();
+            File tmp = new File(fileName + ".tmp");
+            try {
+                BinarySnapshot.write(tmp, parkingLots.values(), (out, spot) -> spot.writeTo(out));
+            } catch (IOException e) {
+                System.err.println("Error saving parking lots: " + e.getMessage());
+                return;
+            }
+            File target = new File(fileName);
+            boolean installed;
+            synchronized (stampLock) {
+                installed = Journal.installSnapshot(tmp, target);
+                if (installed) snapshotStamp = FileStamp.of(target);
+            }
+            if (installed) {
+                journal.truncate(checkpoint);
+                changes.markSnapshotted(mark);
+            }
+        }
+    }
+
+    // True when the snapshot file was changed on disk since this manager last read or wrote it.
+    boolean isSnapshotStale() {
+        synchronized (stampLock) {
+            return !FileStamp.of(new File(fileName)).equals(snapshotStamp);
+        }
+    }
+
+    // Re-reads the snapshot and journal into this same manager after someone else replaced the
+    // snapshot on disk; see ApartmentManager.reloadApartments.
+    void reloadParkingLots() {
+        List<ChangeBus.Change<ParkingLot>> published = new ArrayList<>();
+        boolean legacyFormat;
+        synchronized (saveLock) {
+            List<Lock> locks = parkingLots.lockAll();
+            try {
+                for (ParkingLot spot : parkingLots.values()) {
+                    spot.markRemoved();
+                    finder.remove(spot.getSpotNumber());
+                    published.add(ChangeBus.removed(spot.getSpotNumber(), spot));
+                }
+                parkingLots.clear();
+                journal.flush();
+                legacyFormat = loadParkingLots();
+                journal.replay(this::applyJournalEntry);
+                unreserved.rebuild(parkingLots.values());
+                bookings.rebuild(parkingLots.values());
+                statistics.rebuild(parkingLots.values());
+                tenants.rebuild(parkingLots.values());
+                for (ParkingLot spot : parkingLots.values()) {
+                    finder.put(spot);
+                    published.add(ChangeBus.added(spot.getSpotNumber(), spot));
+                }
+            } finally {
+                for (Lock lock : locks) lock.unlock();
+            }
+        }
+        if (legacyFormat) compactParkingLots();
+        events.publish(published);
+    }
+
+    // Mutation counter and dirty records since the last save/snapshot; see Autosave.
+    ChangeTracker getChangeTracker() {
+        return changes;
+    }
+
+    // Added, updated and removed spots, as they happen; see ChangeBus.
+    ChangeBus<ParkingLot> events() {
+        return events;
+    }
+
+    // Called after releasing the key lock; compaction takes every stripe.
+    private void compactIfNeeded() {
+        if (journal.size() >= Journal.COMPACT_THRESHOLD) compactParkingLots();
+    }
+
+    private void applyJournalEntry(char op, String payload) {
+        if (op == Journal.PUT) {
+            ParkingLot spot = ParkingLot.fromCsvString(payload);
+            if (spot != null) parkingLots.put(spot.getSpotNumber(), spot);
+        } else if (op == Journal.DELETE) {
+            parkingLots.remove(payload);
+        }
+    }
+
+    // Returns true when the snapshot was still in the legacy CSV format.
+    private boolean loadParkingLots() {
+        File file = new File(fileName);
+        snapshotStamp = FileStamp.of(file);
+        if (!file.exists()) return false;
+        if (BinarySnapshot.isBinary(file)) {
+            try {
+                BinarySnapshot.read(file, ParkingLot::readFrom, spot -> parkingLots.putIfAbsent(spot.getSpotNumber(), spot));
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Error loading parking lots: " + e.getMessage());
+            }
+            return false;
+        }
+        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                ParkingLot spot = ParkingLot.fromCsvString(line);
+                if (spot != null) parkingLots.putIfAbsent(spot.getSpotNumber(), spot);
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading parking lots: " + e.getMessage());
+            return false;
+        }
+        return true;
+    }
+}
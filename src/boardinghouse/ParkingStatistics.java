@@ -0,0 +1,172 @@
+package boardinghouse;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Running reservation figures for ParkingLotManager: spots, spots with any booking, bookings,
+// and how many spots are booked on each day. Same remember-and-swap scheme as
+// ApartmentStatistics, without an index-wide lock; a spot's calendar is immutable, so the
+// remembered array is its snapshot.
+// The per-day counts are a difference map: +1 on each booking's first day and -1 on the day after
+// its last (a spot's bookings never overlap), so a change costs two map updates per booking however
+// long it runs. Queries binary-search prefix sums that are rebuilt on the first query after a change.
+final class ParkingStatistics {
+    private volatile Totals totals = new Totals();
+
+    static final class Summary {
+        final int spots;
+        final int reservedSpots;
+        final int reservations;
+
+        Summary(int spots, int reservedSpots, int reservations) {
+            this.spots = spots;
+            this.reservedSpots = reservedSpots;
+            this.reservations = reservations;
+        }
+    }
+
+    // Publishes empty totals before filling them; see AvailabilityIndex.rebuild.
+    void rebuild(Collection<ParkingLot> all) {
+        Totals fresh = new Totals();
+        totals = fresh;
+        for (ParkingLot spot : all) put(fresh, spot);
+    }
+
+    void put(ParkingLot spot) {
+        put(totals, spot);
+    }
+
+    private static void put(Totals t, ParkingLot spot) {
+        t.counted.compute(Keys.normalize(spot.getSpotNumber()), (key, before) -> {
+            t.uncount(before);
+            return t.count(new Counted(spot));
+        });
+    }
+
+    void refresh(ParkingLot spot) {
+        String key = Keys.normalize(spot.getSpotNumber());
+        Totals t = totals;
+        while (true) {
+            refresh(t, key, spot);
+            Totals latest = totals;
+            if (latest == t) return;
+            t = latest; // rebuilt meanwhile
+        }
+    }
+
+    private static void refresh(Totals t, String key, ParkingLot spot) {
+        t.counted.computeIfPresent(key, (k, before) -> {
+            if (before.spot != spot) return before;
+            t.uncount(before);
+            return t.count(new Counted(spot));
+        });
+    }
+
+    void remove(String spotNumber) {
+        Totals t = totals;
+        t.counted.computeIfPresent(Keys.normalize(spotNumber), (key, before) -> {
+            t.uncount(before);
+            return null;
+        });
+    }
+
+    Summary summary() {
+        Totals t = totals;
+        return new Summary(t.counted.size(), t.reservedSpots.intValue(), t.reservations.intValue());
+    }
+
+    // Number of spots with a booking covering the given epoch day.
+    int spotsBookedOn(long day) {
+        Totals t = totals;
+        // Read the change count before the edges: a change that lands during the walk bumps it
+        // afterwards, so the sums are not reused once it is done.
+        long version = t.edgeChanges.sum();
+        BookedDays sums = t.sums;
+        if (sums == null || sums.version != version) {
+            sums = new BookedDays(version, t.bookingEdges);
+            t.sums = sums;
+        }
+        return sums.bookedOn(day);
+    }
+
+    // The figures of one generation; rebuild() starts a new one.
+    private static final class Totals {
+        final ConcurrentHashMap<String, Counted> counted = new ConcurrentHashMap<>();
+        final ConcurrentSkipListMap<Long, Integer> bookingEdges = new ConcurrentSkipListMap<>(); // epoch day -> change in spots booked
+        final LongAdder edgeChanges = new LongAdder(); // bumped after every edge update
+        final LongAdder reservedSpots = new LongAdder();
+        final LongAdder reservations = new LongAdder();
+        volatile BookedDays sums; // prefix sums as of some edgeChanges count, or null
+
+        Counted count(Counted c) {
+            if (c.calendar.length > 0) reservedSpots.increment();
+            reservations.add(c.calendar.length);
+            for (Reservation r : c.calendar) {
+                addEdge(r.startDay, 1);
+                addEdge(r.endDay + 1, -1);
+            }
+            return c;
+        }
+
+        void uncount(Counted c) {
+            if (c == null) return;
+            if (c.calendar.length > 0) reservedSpots.decrement();
+            reservations.add(-c.calendar.length);
+            for (Reservation r : c.calendar) {
+                addEdge(r.startDay, -1);
+                addEdge(r.endDay + 1, 1);
+            }
+        }
+
+        private void addEdge(long day, int delta) {
+            bookingEdges.merge(day, delta, (n, d) -> n + d == 0 ? null : n + d);
+            edgeChanges.increment();
+        }
+    }
+
+    // bookingEdges folded into prefix sums: spots booked from days[i] until the next edge.
+    private static final class BookedDays {
+        final long version;
+        final long[] days;
+        final int[] bookedFrom;
+
+        BookedDays(long version, Map<Long, Integer> edges) {
+            this.version = version;
+            long[] days = new long[edges.size()];
+            int[] bookedFrom = new int[days.length];
+            int i = 0;
+            int booked = 0;
+            for (Map.Entry<Long, Integer> edge : edges.entrySet()) {
+                if (i == days.length) { // grew since size() was read
+                    days = Arrays.copyOf(days, i * 2 + 1);
+                    bookedFrom = Arrays.copyOf(bookedFrom, days.length);
+                }
+                booked += edge.getValue();
+                days[i] = edge.getKey();
+                bookedFrom[i++] = booked;
+            }
+            this.days = Arrays.copyOf(days, i);
+            this.bookedFrom = Arrays.copyOf(bookedFrom, i);
+        }
+
+        int bookedOn(long day) {
+            int i = Arrays.binarySearch(days, day);
+            if (i < 0) i = -i - 2; // the last edge before day
+            return i < 0 ? 0 : bookedFrom[i];
+        }
+    }
+
+    private static final class Counted {
+        final ParkingLot spot;
+        final Reservation[] calendar;
+
+        Counted(ParkingLot spot) {
+            this.spot = spot;
+            this.calendar = spot.getCalendar();
+        }
+    }
+}
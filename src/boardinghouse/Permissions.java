@@ -0,0 +1,22 @@
+package boardinghouse;
+
+// Permission bits per role; a check is a single AND against Session.permissions.
+final class Permissions {
+    static final int BOOK_APARTMENT = 1;
+    static final int MANAGE_APARTMENTS = 1 << 1;
+    static final int RESERVE_PARKING = 1 << 2;
+    static final int MANAGE_PARKING = 1 << 3;
+    static final int CANCEL_ANY_RESERVATION = 1 << 4;
+    static final int MANAGE_USERS = 1 << 5;
+
+    private Permissions() {
+    }
+
+    static int forRole(String role) {
+        if ("admin".equalsIgnoreCase(role)) {
+            return MANAGE_APARTMENTS | RESERVE_PARKING | MANAGE_PARKING | CANCEL_ANY_RESERVATION | MANAGE_USERS;
+        }
+        if ("regular".equalsIgnoreCase(role)) return BOOK_APARTMENT | RESERVE_PARKING;
+        return 0;
+    }
+}
@@ -0,0 +1,148 @@
+package boardinghouse;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Concurrent keyed storage shared by the managers.
+// Reads never lock: a ConcurrentHashMap gives O(1) lookup by case-insensitive key and a
+// ConcurrentSkipListMap keyed by insertion sequence gives a weakly consistent, insertion-ordered view.
+// Writers hold the stripe lock for their key (see lockFor) so mutations of different keys run in
+// parallel without a global lock.
+final class RecordStore<T> {
+    private static final int STRIPES = 64; // power of two
+
+    private final ConcurrentHashMap<String, Entry<T>> byKey = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, T> inOrder = new ConcurrentSkipListMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    RecordStore() {
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new ReentrantLock();
+    }
+
+    T get(String key) {
+        if (key == null) return null;
+        Entry<T> entry = byKey.get(Keys.normalize(key));
+        return entry == null ? null : entry.record;
+    }
+
+    boolean containsKey(String key) {
+        return key != null && byKey.containsKey(Keys.normalize(key));
+    }
+
+    // Caller must hold lockFor(key).
+    boolean putIfAbsent(String key, T record) {
+        Entry<T> fresh = new Entry<>(sequence.incrementAndGet(), record);
+        if (byKey.putIfAbsent(Keys.normalize(key), fresh) != null) return false;
+        inOrder.put(fresh.seq, record);
+        return true;
+    }
+
+    // Inserts or replaces; a replaced record keeps its listing position. Caller must hold lockFor(key).
+    T put(String key, T record) {
+        String normalized = Keys.normalize(key);
+        Entry<T> existing = byKey.get(normalized);
+        if (existing == null) {
+            putIfAbsent(key, record);
+            return null;
+        }
+        T previous = existing.record;
+        existing.record = record;
+        inOrder.put(existing.seq, record);
+        return previous;
+    }
+
+    // Caller must hold lockFor(key).
+    T remove(String key) {
+        if (key == null) return null;
+        Entry<T> removed = byKey.remove(Keys.normalize(key));
+        if (removed == null) return null;
+        inOrder.remove(removed.seq);
+        return removed.record;
+    }
+
+    int size() {
+        return byKey.size();
+    }
+
+    boolean isEmpty() {
+        return byKey.isEmpty();
+    }
+
+    // Live, read-only, insertion-ordered view; iteration never blocks writers.
+    Collection<T> values() {
+        return Collections.unmodifiableCollection(inOrder.values());
+    }
+
+    List<T> snapshot() {
+        return new ArrayList<>(inOrder.values());
+    }
+
+    // One page of the insertion-ordered view, without copying the records before offset.
+    List<T> page(int offset, int limit) {
+        List<T> page = new ArrayList<>(Math.min(limit, 1024));
+        int index = 0;
+        for (T record : inOrder.values()) {
+            if (page.size() == limit) break;
+            if (index++ >= offset) page.add(record);
+        }
+        return page;
+    }
+
+    Lock lockFor(String key) {
+        return stripes[stripeOf(key)];
+    }
+
+    // Locks the stripes of every key, always in stripe order so two batches can't deadlock.
+    // Returns the locks taken; the caller unlocks each of them.
+    List<Lock> lockAll(Collection<String> keys) {
+        boolean[] needed = new boolean[STRIPES];
+        for (String key : keys) needed[stripeOf(key)] = true;
+        List<Lock> held = new ArrayList<>();
+        for (int i = 0; i < STRIPES; i++) {
+            if (!needed[i]) continue;
+            stripes[i].lock();
+            held.add(stripes[i]);
+        }
+        return held;
+    }
+
+    // Locks every stripe, in stripe order, e.g. to swap in a reloaded dataset.
+    List<Lock> lockAll() {
+        List<Lock> held = new ArrayList<>(STRIPES);
+        for (ReentrantLock stripe : stripes) {
+            stripe.lock();
+            held.add(stripe);
+        }
+        return held;
+    }
+
+    // Caller must hold lockAll().
+    void clear() {
+        byKey.clear();
+        inOrder.clear();
+    }
+
+    private static int stripeOf(String key) {
+        int h = key == null ? 0 : Keys.normalize(key).hashCode();
+        h ^= (h >>> 16);
+        return h & (STRIPES - 1);
+    }
+
+    private static final class Entry<T> {
+        final long seq;
+        volatile T record;
+
+        Entry(long seq, T record) {
+            this.seq = seq;
+            this.record = record;
+        }
+    }
+}
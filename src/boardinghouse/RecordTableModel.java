@@ -0,0 +1,120 @@
+package boardinghouse;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+// Table model that renders cells on demand from manager records instead of copying
+// every row into a Vector. Single-record changes fire a single row event, so an edit
+// costs O(1) UI work; only the refresh buttons reload the whole snapshot.
+// The GUI feeds it the managers' change events (see ChangeBus) through applyChanges().
+abstract class RecordTableModel<T> extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+    private final String[] columnNames;
+    // Transient: a table model only lives as long as its table and is never serialized.
+    private final transient List<T> rows = new ArrayList<>();
+    private final transient Map<String, Integer> rowByKey = new HashMap<>();
+    // Row positions at or after this index may be stale in rowByKey (shifted by a delete).
+    private int indexedUpTo;
+    // True while the rows are a full listing, not a search or filter result; only then do records
+    // that weren't shown before join the table when they are added or change elsewhere.
+    private boolean listing = true;
+
+    RecordTableModel(String... columnNames) {
+        this.columnNames = columnNames;
+    }
+
+    // Primary key of a record, as used by the owning manager.
+    protected abstract String keyOf(T record);
+
+    // Display value for one cell; called lazily by the table for visible rows only.
+    protected abstract Object valueAt(T record, int column);
+
+    @Override public int getRowCount() { return rows.size(); }
+    @Override public int getColumnCount() { return columnNames.length; }
+    @Override public String getColumnName(int column) { return columnNames[column]; }
+    @Override public boolean isCellEditable(int row, int column) { return false; }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        return valueAt(rows.get(row), column);
+    }
+
+    T getRecordAt(int row) {
+        return rows.get(row);
+    }
+
+    // Replaces the rows with a search or filter result.
+    void setRecords(Collection<T> records) {
+        setRecords(records, false);
+    }
+
+    // Replaces the whole snapshot, e.g. for the "Refresh List" buttons; listing says whether the
+    // records are the full list (see the listing field).
+    void setRecords(Collection<T> records, boolean listing) {
+        this.listing = listing;
+        rows.clear();
+        rowByKey.clear();
+        rows.addAll(records);
+        indexedUpTo = 0;
+        reindex();
+        fireTableDataChanged();
+    }
+
+    // Appends a chunk of records, e.g. while a background load fills the table progressively.
+    void recordsAppended(List<T> records) {
+        if (records.isEmpty()) return;
+        int first = rows.size();
+        rows.addAll(records);
+        reindex();
+        fireTableRowsInserted(first, rows.size() - 1);
+    }
+
+    void recordRemoved(String key) {
+        int row = indexOf(key);
+        if (row < 0) return;
+        rows.remove(row);
+        rowByKey.remove(Keys.normalize(key));
+        indexedUpTo = Math.min(indexedUpTo, row);
+        fireTableRowsDeleted(row, row);
+    }
+
+    // Applies a batch of change events. shown decides whether a record belongs in the current
+    // view at all (e.g. "available only"): a shown record is updated in place, one that is no
+    // longer shown drops out, and new ones are appended with a single insert event, so an import
+    // of thousands of records costs one table event rather than one per record.
+    void applyChanges(List<ChangeBus.Change<T>> changes, Predicate<T> shown) {
+        List<T> appended = new ArrayList<>();
+        for (ChangeBus.Change<T> change : ChangeBus.coalesce(changes)) {
+            boolean keep = change.after != null && shown.test(change.after);
+            int row = indexOf(change.key);
+            if (row >= 0 && keep) {
+                rows.set(row, change.after);
+                fireTableRowsUpdated(row, row);
+            } else if (row >= 0) {
+                recordRemoved(change.key);
+            } else if (keep && listing) {
+                appended.add(change.after);
+            }
+        }
+        recordsAppended(appended);
+    }
+
+    int indexOf(String key) {
+        if (key == null) return -1;
+        if (indexedUpTo < rows.size()) reindex();
+        Integer row = rowByKey.get(Keys.normalize(key));
+        return row == null ? -1 : row;
+    }
+
+    private void reindex() {
+        for (int i = indexedUpTo; i < rows.size(); i++) {
+            rowByKey.put(Keys.normalize(keyOf(rows.get(i))), i);
+        }
+        indexedUpTo = rows.size();
+    }
+}
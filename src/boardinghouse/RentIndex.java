@@ -0,0 +1,161 @@
+package boardinghouse;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Apartments ordered by rent, then by apartment number, for range queries and paging.
+// Rents are keyed in cents, so equal rents compare exactly. A second map holds only vacant
+// units, so "cheapest available" walks vacant entries instead of skipping occupied ones.
+// Both maps are skip lists: queries never lock and cost O(log n) plus the rows returned.
+// Updates follow the AvailabilityIndex scheme: refresh() re-reads the apartment inside its key's
+// ConcurrentHashMap.compute and moves its entry, so the last refresh after a lock-free booking
+// wins, and moves of different apartments run in parallel.
+final class RentIndex {
+    private volatile Entries entries = new Entries();
+
+    // One page of a query. nextCursor continues after the last row, or is null at the end.
+    static final class Page {
+        final List<Apartment> records;
+        final String nextCursor;
+
+        Page(List<Apartment> records, String nextCursor) {
+            this.records = records;
+            this.nextCursor = nextCursor;
+        }
+    }
+
+    // Publishes an empty index before filling it; see AvailabilityIndex.rebuild.
+    void rebuild(Collection<Apartment> apartments) {
+        Entries fresh = new Entries();
+        entries = fresh;
+        for (Apartment apt : apartments) fresh.put(apt);
+    }
+
+    void put(Apartment apt) {
+        entries.put(apt);
+    }
+
+    // Re-reads an apartment's rent and occupancy after it changed. Unindexed apartments are ignored.
+    void refresh(Apartment apt) {
+        String key = Keys.normalize(apt.getApartmentNumber());
+        Entries e = entries;
+        while (true) {
+            e.refresh(key, apt);
+            Entries latest = entries;
+            if (latest == e) return;
+            e = latest; // rebuilt meanwhile
+        }
+    }
+
+    void remove(String apartmentNumber) {
+        entries.remove(Keys.normalize(apartmentNumber));
+    }
+
+    // Apartments with minRent <= rent <= maxRent, cheapest first, at most limit of them, starting
+    // after cursor (a Page.nextCursor, or null for the first page).
+    Page query(double minRent, double maxRent, boolean vacantOnly, String cursor, int limit) {
+        Entry low = new Entry(cents(minRent), "", null, false); // "" sorts before every number
+        Entry after = cursor == null ? null : Entry.decode(cursor);
+        if (after != null && after.compareTo(low) > 0) low = after;
+        long highCents = cents(maxRent);
+        List<Apartment> records = new ArrayList<>(Math.min(limit, 1024));
+        Entry last = null;
+        Entries e = entries;
+        ConcurrentSkipListMap<Entry, Apartment> source = vacantOnly ? e.vacant : e.all;
+        for (Map.Entry<Entry, Apartment> row : source.tailMap(low, after == null).entrySet()) {
+            if (row.getKey().rentCents > highCents) return new Page(records, null);
+            if (records.size() == limit) return new Page(records, last.encode());
+            records.add(row.getValue());
+            last = row.getKey();
+        }
+        return new Page(records, null);
+    }
+
+    private static long cents(double rent) {
+        return Math.round(rent * 100);
+    }
+
+    // The maps of one generation; rebuild() starts a new one.
+    private static final class Entries {
+        final ConcurrentSkipListMap<Entry, Apartment> all = new ConcurrentSkipListMap<>();
+        final ConcurrentSkipListMap<Entry, Apartment> vacant = new ConcurrentSkipListMap<>();
+        final ConcurrentHashMap<String, Entry> entryByKey = new ConcurrentHashMap<>();
+
+        void put(Apartment apt) {
+            entryByKey.compute(Keys.normalize(apt.getApartmentNumber()), (key, previous) -> move(previous, key, apt));
+        }
+
+        void refresh(String key, Apartment apt) {
+            entryByKey.computeIfPresent(key, (k, previous) -> previous.apartment != apt ? previous : move(previous, key, apt));
+        }
+
+        void remove(String key) {
+            entryByKey.computeIfPresent(key, (k, previous) -> {
+                unindex(previous);
+                return null;
+            });
+        }
+
+        private Entry move(Entry previous, String key, Apartment apt) {
+            if (previous != null) unindex(previous);
+            Entry entry = new Entry(cents(apt.getRent()), key, apt, !apt.isOccupied());
+            all.put(entry, apt);
+            if (entry.vacant) vacant.put(entry, apt);
+            return entry;
+        }
+
+        private void unindex(Entry entry) {
+            all.remove(entry);
+            vacant.remove(entry);
+        }
+    }
+
+    private static final class Entry implements Comparable<Entry> {
+        final long rentCents;
+        final String key;
+        final Apartment apartment; // not part of the ordering
+        final boolean vacant;
+
+        Entry(long rentCents, String key, Apartment apartment, boolean vacant) {
+            this.rentCents = rentCents;
+            this.key = key;
+            this.apartment = apartment;
+            this.vacant = vacant;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int byRent = Long.compare(rentCents, other.rentCents);
+            return byRent != 0 ? byRent : key.compareTo(other.key);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Entry && compareTo((Entry) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(rentCents) * 31 + key.hashCode();
+        }
+
+        // "<rent in cents>:<normalized apartment number>"
+        String encode() {
+            return rentCents + ":" + key;
+        }
+
+        static Entry decode(String cursor) {
+            int colon = cursor.indexOf(':');
+            try {
+                if (colon > 0) return new Entry(Long.parseLong(cursor.substring(0, colon)), cursor.substring(colon + 1), null, false);
+            } catch (NumberFormatException e) {
+                // fall through
+            }
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package boardinghouse;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+// One booking of a parking spot for an inclusive range of days, kept as epoch days.
+// A spot's calendar is an immutable array of these, sorted by start day and never overlapping,
+// so both starts and ends are ascending and every lookup is a binary search.
+final class Reservation implements Serializable {
+    private static final long serialVersionUID = 1L;
+    static final String RANGE_SEPARATOR = "..";
+
+    final String tenantName;
+    final long startDay;
+    final long endDay;
+
+    Reservation(String tenantName, long startDay, long endDay) {
+        this.tenantName = tenantName;
+        this.startDay = startDay;
+        this.endDay = endDay;
+    }
+
+    String getTenantName() { return tenantName; }
+    LocalDate getStartDate() { return LocalDate.ofEpochDay(startDay); }
+    LocalDate getEndDate() { return LocalDate.ofEpochDay(endDay); }
+
+    // "2025-06-18" for a single day, "2025-06-18..2025-06-20" for a range.
+    String formatDates() {
+        return startDay == endDay
+                ? getStartDate().toString()
+                : getStartDate() + RANGE_SEPARATOR + getEndDate();
+    }
+
+    @Override
+    public String toString() {
+        return tenantName + " " + formatDates();
+    }
+
+    // Parses "YYYY-MM-DD" or "YYYY-MM-DD..YYYY-MM-DD" into {startDay, endDay}.
+    // Returns null when the text is malformed or the range ends before it starts.
+    static long[] parseRange(String text) {
+        if (text == null) return null;
+        text = text.trim();
+        int separator = text.indexOf(RANGE_SEPARATOR);
+        try {
+            long start = LocalDate.parse(separator < 0 ? text : text.substring(0, separator).trim()).toEpochDay();
+            long end = separator < 0 ? start : LocalDate.parse(text.substring(separator + RANGE_SEPARATOR.length()).trim()).toEpochDay();
+            return end < start ? null : new long[]{start, end};
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    // Index of the first reservation ending on or after day, or calendar.length if none.
+    static int firstEndingOnOrAfter(Reservation[] calendar, long day) {
+        int low = 0, high = calendar.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (calendar[mid].endDay < day) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    // O(log n): the only candidate for an overlap is the first reservation ending on or after from.
+    static boolean isFree(Reservation[] calendar, long from, long to) {
+        int i = firstEndingOnOrAfter(calendar, from);
+        return i == calendar.length || calendar[i].startDay > to;
+    }
+
+    // Copy of the calendar with the reservation inserted in order; the caller checked isFree.
+    static Reservation[] insert(Reservation[] calendar, Reservation reservation) {
+        int i = firstEndingOnOrAfter(calendar, reservation.startDay);
+        Reservation[] next = new Reservation[calendar.length + 1];
+        System.arraycopy(calendar, 0, next, 0, i);
+        next[i] = reservation;
+        System.arraycopy(calendar, i, next, i + 1, calendar.length - i);
+        return next;
+    }
+}
@@ -0,0 +1,193 @@
+package boardinghouse;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Every spot's reservations in one interval index, so "which spots are free on these days" is
+// answered from the bookings that touch the range instead of a visit to every spot.
+// Bookings sit in a treap ordered by (start day, spot) in which each node also keeps the latest end
+// day of its subtree, so a query skips every subtree that ends before the range starts and stops
+// at nodes that start after it ends: O(log n + m) for the m bookings overlapping the range.
+// The index is split into stripes by spot number, each with its own lock and treap, so writers on
+// different spots don't contend (as in RecordStore); a query collects the busy spots of each stripe.
+// Same remember-and-swap scheme as AvailabilityIndex: a spot's last indexed calendar is kept, and
+// refresh() re-reads the spot under its stripe's lock, so the last refresh after a claim wins.
+final class ReservationIndex {
+    private static final int STRIPES = 64; // power of two
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    ReservationIndex() {
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new Stripe();
+    }
+
+    void rebuild(Collection<ParkingLot> spots) {
+        for (Stripe stripe : stripes) stripe.clear();
+        for (ParkingLot spot : spots) put(spot);
+    }
+
+    // Adds a spot's bookings, or replaces those an existing spot number had.
+    void put(ParkingLot spot) {
+        String key = Keys.normalize(spot.getSpotNumber());
+        stripeOf(key).put(key, spot, false);
+    }
+
+    // Re-reads a spot's calendar after it changed. Spots no longer indexed (deleted) are ignored.
+    void refresh(ParkingLot spot) {
+        String key = Keys.normalize(spot.getSpotNumber());
+        stripeOf(key).put(key, spot, true);
+    }
+
+    void remove(String spotNumber) {
+        if (spotNumber == null) return;
+        String key = Keys.normalize(spotNumber);
+        stripeOf(key).remove(key);
+    }
+
+    // Normalized numbers of the spots with a booking on any day in [fromDay, toDay].
+    Set<String> busySpots(long fromDay, long toDay) {
+        Set<String> busy = new HashSet<>();
+        for (Stripe stripe : stripes) stripe.collect(fromDay, toDay, busy);
+        return busy;
+    }
+
+    private Stripe stripeOf(String key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return stripes[h & (STRIPES - 1)];
+    }
+
+    private static final class Stripe {
+        private final Map<String, Indexed> indexed = new HashMap<>();
+        private Node root;
+
+        synchronized void clear() {
+            indexed.clear();
+            root = null;
+        }
+
+        synchronized void put(String key, ParkingLot spot, boolean onlyIfIndexed) {
+            Indexed before = indexed.get(key);
+            if (onlyIfIndexed && (before == null || before.spot != spot)) return;
+            if (before != null) {
+                for (Reservation r : before.calendar) root = delete(root, r.startDay, key);
+            }
+            Reservation[] calendar = spot.getCalendar();
+            indexed.put(key, new Indexed(spot, calendar));
+            for (Reservation r : calendar) root = insert(root, new Node(r.startDay, r.endDay, key));
+        }
+
+        synchronized void remove(String key) {
+            Indexed before = indexed.remove(key);
+            if (before == null) return;
+            for (Reservation r : before.calendar) root = delete(root, r.startDay, key);
+        }
+
+        synchronized void collect(long fromDay, long toDay, Set<String> busy) {
+            collect(root, fromDay, toDay, busy);
+        }
+
+        private static void collect(Node node, long fromDay, long toDay, Set<String> busy) {
+            while (node != null && node.maxEnd >= fromDay) {
+                collect(node.left, fromDay, toDay, busy);
+                if (node.start > toDay) return; // so does everything to the right
+                if (node.end >= fromDay) busy.add(node.key);
+                node = node.right;
+            }
+        }
+
+        private static Node insert(Node root, Node node) {
+            if (root == null) return node;
+            if (node.priority > root.priority) {
+                Node[] parts = split(root, node.start, node.key);
+                node.left = parts[0];
+                node.right = parts[1];
+                return node.update();
+            }
+            if (compare(node.start, node.key, root) < 0) root.left = insert(root.left, node);
+            else root.right = insert(root.right, node);
+            return root.update();
+        }
+
+        private static Node delete(Node root, long start, String key) {
+            if (root == null) return null;
+            int c = compare(start, key, root);
+            if (c == 0) return merge(root.left, root.right);
+            if (c < 0) root.left = delete(root.left, start, key);
+            else root.right = delete(root.right, start, key);
+            return root.update();
+        }
+
+        // {nodes before (start, key), nodes at or after it}
+        private static Node[] split(Node root, long start, String key) {
+            if (root == null) return new Node[2];
+            if (compare(start, key, root) <= 0) {
+                Node[] parts = split(root.left, start, key);
+                root.left = parts[1];
+                parts[1] = root.update();
+                return parts;
+            }
+            Node[] parts = split(root.right, start, key);
+            root.right = parts[0];
+            parts[0] = root.update();
+            return parts;
+        }
+
+        // Every node of a sorts before every node of b.
+        private static Node merge(Node a, Node b) {
+            if (a == null) return b;
+            if (b == null) return a;
+            if (a.priority > b.priority) {
+                a.right = merge(a.right, b);
+                return a.update();
+            }
+            b.left = merge(a, b.left);
+            return b.update();
+        }
+
+        private static int compare(long start, String key, Node node) {
+            int byStart = Long.compare(start, node.start);
+            return byStart != 0 ? byStart : key.compareTo(node.key);
+        }
+    }
+
+    // A spot never has two bookings starting on the same day, so (start, key) is unique.
+    private static final class Node {
+        final long start;
+        final long end;
+        final String key;
+        final int priority = ThreadLocalRandom.current().nextInt();
+        long maxEnd;
+        Node left;
+        Node right;
+
+        Node(long start, long end, String key) {
+            this.start = start;
+            this.end = end;
+            this.key = key;
+            this.maxEnd = end;
+        }
+
+        Node update() {
+            long max = end;
+            if (left != null && left.maxEnd > max) max = left.maxEnd;
+            if (right != null && right.maxEnd > max) max = right.maxEnd;
+            maxEnd = max;
+            return this;
+        }
+    }
+
+    private static final class Indexed {
+        final ParkingLot spot;
+        final Reservation[] calendar;
+
+        Indexed(ParkingLot spot, Reservation[] calendar) {
+            this.spot = spot;
+            this.calendar = calendar;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package boardinghouse;
+
+import java.util.concurrent.TimeUnit;
+
+// One logged-in user. The role's permissions are resolved once, at login.
+final class Session {
+    final String token;
+    final String username;
+    final String role;
+    final int permissions;
+    private volatile long expiresAtNanos;
+
+    Session(String token, String username, String role) {
+        this.token = token;
+        this.username = username;
+        this.role = role;
+        this.permissions = Permissions.forRole(role);
+        this.expiresAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SessionManager.TTL_MILLIS);
+    }
+
+    boolean can(int permission) {
+        return (permissions & permission) == permission;
+    }
+
+    boolean isExpired(long nowNanos) {
+        return nowNanos - expiresAtNanos > 0;
+    }
+
+    // Only writes once the session has used up a tenth of its lifetime, so hot sessions don't
+    // bounce the field between cores on every request.
+    void touch(long nowNanos) {
+        long renewed = nowNanos + TimeUnit.MILLISECONDS.toNanos(SessionManager.TTL_MILLIS);
+        if (renewed - expiresAtNanos > TimeUnit.MILLISECONDS.toNanos(SessionManager.TTL_MILLIS) / 10) expiresAtNanos = renewed;
+    }
+}
@@ -0,0 +1,85 @@
+package boardinghouse;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Process-wide login sessions, shared by the Swing GUI and the REST API.
+// A successful login issues an opaque random token; later requests present the token instead of
+// a password, so the slow password check runs once per session. Sessions expire after a period
+// without use (sliding), and a daemon reaper drops expired ones from the map.
+final class SessionManager {
+    static final long TTL_MILLIS = Long.getLong("boarding.session.ttlMillis", TimeUnit.MINUTES.toMillis(30));
+    private static final long REAP_INTERVAL_MILLIS = Math.max(1_000L, Math.min(TTL_MILLIS, TimeUnit.MINUTES.toMillis(1)));
+    private static final int TOKEN_BYTES = 32;
+
+    private static final SessionManager INSTANCE = new SessionManager();
+
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+
+    private SessionManager() {
+        ScheduledExecutorService reaper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "session-reaper");
+            t.setDaemon(true);
+            return t;
+        });
+        reaper.scheduleWithFixedDelay(this::reap, REAP_INTERVAL_MILLIS, REAP_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    static SessionManager get() {
+        return INSTANCE;
+    }
+
+    // Checks the password and opens a session, or returns null if the login is wrong.
+    Session login(UserManager users, String username, String password) {
+        String role = users.authenticate(username, password);
+        if (role == null) return null;
+        // The stored spelling of the name, whatever case was typed.
+        String canonical = users.findUserByUsername(username).map(User::getUsername).orElse(username);
+        return open(canonical, role);
+    }
+
+    Session open(String username, String role) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        Session session = new Session(Base64.getUrlEncoder().withoutPadding().encodeToString(bytes), username, role);
+        sessions.put(session.token, session);
+        return session;
+    }
+
+    // The live session for a token, renewing its expiry; null if unknown or expired.
+    Session find(String token) {
+        if (token == null) return null;
+        Session session = sessions.get(token);
+        if (session == null) return null;
+        long now = System.nanoTime();
+        if (session.isExpired(now)) {
+            sessions.remove(token, session);
+            return null;
+        }
+        session.touch(now);
+        return session;
+    }
+
+    void close(String token) {
+        if (token != null) sessions.remove(token);
+    }
+
+    // Ends every session of a user, e.g. after the account was deleted or its role changed.
+    void closeAll(String username) {
+        sessions.values().removeIf(s -> s.username.equalsIgnoreCase(username));
+    }
+
+    int size() {
+        return sessions.size();
+    }
+
+    private void reap() {
+        long now = System.nanoTime();
+        sessions.values().removeIf(s -> s.isExpired(now));
+    }
+}
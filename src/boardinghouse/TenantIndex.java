@@ -0,0 +1,132 @@
+package boardinghouse;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Case-insensitive multi-index from tenant name to the records that name them: apartments by
+// tenantName, parking spots by the tenants in their calendar. Tenant names are the usernames of
+// the accounts that booked, so this is also the join from a user to their units and spots.
+// Same remember-and-swap scheme as AvailabilityIndex: each record's last indexed tenants are kept,
+// and refresh() re-reads the record inside its key's ConcurrentHashMap.compute and moves it
+// between tenants as needed. Each tenant's records change and are copied out inside that tenant's
+// compute, so only writers touching the same record or the same tenant wait for each other.
+// Lookups copy out just the tenant's records, so they cost O(results), not O(records).
+final class TenantIndex<T> {
+    private static final String[] NONE = new String[0];
+
+    private final Function<T, String> keyOf;
+    private final Function<T, Collection<String>> tenantsOf;
+    private volatile Links<T> links = new Links<>();
+
+    TenantIndex(Function<T, String> keyOf, Function<T, Collection<String>> tenantsOf) {
+        this.keyOf = keyOf;
+        this.tenantsOf = tenantsOf;
+    }
+
+    // Publishes an empty index before filling it; see AvailabilityIndex.rebuild.
+    void rebuild(Collection<T> records) {
+        Links<T> fresh = new Links<>();
+        links = fresh;
+        for (T record : records) put(fresh, record);
+    }
+
+    void put(T record) {
+        put(links, record);
+    }
+
+    private void put(Links<T> l, T record) {
+        l.indexed.compute(Keys.normalize(keyOf.apply(record)), (key, before) -> l.move(key, before, record, tenantKeys(record)));
+    }
+
+    // Re-reads a record's tenants after it changed. Records no longer indexed are ignored.
+    void refresh(T record) {
+        String key = Keys.normalize(keyOf.apply(record));
+        Links<T> l = links;
+        while (true) {
+            refresh(l, key, record);
+            Links<T> latest = links;
+            if (latest == l) return;
+            l = latest; // rebuilt meanwhile
+        }
+    }
+
+    private void refresh(Links<T> l, String key, T record) {
+        l.indexed.computeIfPresent(key, (k, before) -> before.record != record ? before : l.move(key, before, record, tenantKeys(record)));
+    }
+
+    void remove(String key) {
+        Links<T> l = links;
+        l.indexed.computeIfPresent(Keys.normalize(key), (k, before) -> {
+            l.unlink(k, before);
+            return null;
+        });
+    }
+
+    // The tenant's records, in the order they were first linked to the tenant.
+    List<T> find(String tenantName) {
+        List<T> found = new ArrayList<>();
+        if (tenantName == null) return found;
+        links.byTenant.computeIfPresent(Keys.normalize(tenantName.trim()), (tenant, records) -> {
+            found.addAll(records.values());
+            return records;
+        });
+        return found;
+    }
+
+    // Distinct normalized, non-blank tenant names of a record.
+    private String[] tenantKeys(T record) {
+        Collection<String> names = tenantsOf.apply(record);
+        if (names.isEmpty()) return NONE;
+        Set<String> keys = new LinkedHashSet<>();
+        for (String name : names) {
+            if (name != null && !name.trim().isEmpty()) keys.add(Keys.normalize(name.trim()));
+        }
+        return keys.toArray(NONE);
+    }
+
+    // The links of one generation; rebuild() starts a new one. A tenant's LinkedHashMap is only
+    // touched inside byTenant's compute for that tenant.
+    private static final class Links<T> {
+        final ConcurrentHashMap<String, Indexed<T>> indexed = new ConcurrentHashMap<>();         // record key -> entry
+        final ConcurrentHashMap<String, Map<String, T>> byTenant = new ConcurrentHashMap<>();    // tenant -> key -> record
+
+        Indexed<T> move(String key, Indexed<T> before, T record, String[] tenants) {
+            unlink(key, before);
+            for (String tenant : tenants) {
+                byTenant.compute(tenant, (t, records) -> {
+                    if (records == null) records = new LinkedHashMap<>();
+                    records.put(key, record);
+                    return records;
+                });
+            }
+            return new Indexed<>(record, tenants);
+        }
+
+        void unlink(String key, Indexed<T> entry) {
+            if (entry == null) return;
+            for (String tenant : entry.tenants) {
+                byTenant.computeIfPresent(tenant, (t, records) -> {
+                    records.remove(key);
+                    return records.isEmpty() ? null : records;
+                });
+            }
+        }
+    }
+
+    private static final class Indexed<T> {
+        final T record;
+        final String[] tenants;
+
+        Indexed(T record, String[] tenants) {
+            this.record = record;
+            this.tenants = tenants;
+        }
+    }
+}
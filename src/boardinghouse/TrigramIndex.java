@@ -0,0 +1,412 @@
+package boardinghouse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+
+// Trigram index over short identifying fields (apartment numbers, tenant names, usernames) for
+// find-as-you-type. Each word is padded at the front with two '$' and split into overlapping
+// three-character grams, so "ann" yields "$$a", "$an", "ann" and any prefix of a word shares its
+// leading grams. A query word matches a record word it is a prefix of, allowing one typo from
+// four characters on and two from eight (edit distance to the best-matching prefix, with a swap
+// of neighbouring letters counting as one typo).
+// Candidates come from probing postings lists, rarest first, and only candidates are checked
+// against the words themselves: an exact prefix must hold every query gram, and a word within k
+// edits keeps all but 3k of them. The search stops at the limit, so a broad query such as "a"
+// costs a walk of one list plus limit checks, not a check of every record.
+// Like DocumentIndex: dense ids, open-addressing postings, built on the first search and kept
+// current after that. put() reads the record under the write lock, so the last put wins.
+final class TrigramIndex<T> {
+    private static final char PAD = '$';
+
+    private final Function<T, String> keyOf;
+    private final Function<T, Collection<String>> textsOf;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Map<String, Integer> idByKey = new HashMap<>();
+    private final List<Integer> freedIds = new ArrayList<>();
+    private Object[] recordById = new Object[64];
+    private String[][] wordsById = new String[64][];
+    private int idCount;
+    private boolean built;
+
+    TrigramIndex(Function<T, String> keyOf, Function<T, Collection<String>> textsOf) {
+        this.keyOf = keyOf;
+        this.textsOf = textsOf;
+    }
+
+    // Best matches first, at most limit of them; more is set when the limit cut the search short.
+    static final class Result<T> {
+        final List<T> records;
+        final boolean more;
+
+        Result(List<T> records, boolean more) {
+            this.records = records;
+            this.more = more;
+        }
+    }
+
+    boolean isBuilt() {
+        lock.readLock().lock();
+        try {
+            return built;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Indexes every record; later put/refresh/remove calls keep it current.
+    void build(Collection<T> records) {
+        lock.writeLock().lock();
+        try {
+            if (built) return;
+            for (T record : records) add(Keys.normalize(keyOf.apply(record)), record);
+            built = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // (Re)indexes a record from its current fields. A no-op until the index has been built.
+    void put(T record) {
+        lock.writeLock().lock();
+        try {
+            if (!built) return;
+            String key = Keys.normalize(keyOf.apply(record));
+            removeKey(key);
+            add(key, record);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Like put(), but ignores a record that has since been replaced or removed.
+    void refresh(T record) {
+        lock.writeLock().lock();
+        try {
+            if (!built) return;
+            String key = Keys.normalize(keyOf.apply(record));
+            Integer id = idByKey.get(key);
+            if (id == null || recordById[id] != record) return;
+            removeKey(key);
+            add(key, record);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(String key) {
+        lock.writeLock().lock();
+        try {
+            if (built) removeKey(Keys.normalize(key));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Records with a word matching every query word: exact prefix matches first, in index order,
+    // then typo matches, also sorted by index. Stops once limit records are found.
+    @SuppressWarnings("unchecked")
+    Result<T> search(String query, int limit) {
+        List<String> words = words(Collections.singletonList(query));
+        if (words.isEmpty() || limit <= 0) return new Result<>(Collections.emptyList(), false);
+        // The longest word is usually the most selective, so it picks the typo candidates.
+        String lead = words.get(0);
+        for (String word : words) if (word.length() > lead.length()) lead = word;
+        lock.readLock().lock();
+        try {
+            List<Integer> ids = new ArrayList<>();
+            BitSet seen = new BitSet(idCount);
+            boolean more = collectExact(words, seen, ids, limit);
+            if (!more && maxTypos(lead) > 0) {
+                int exact = ids.size();
+                more = collectTypos(lead, words, seen, ids, limit);
+                Collections.sort(ids.subList(exact, ids.size()));
+            }
+            List<T> records = new ArrayList<>(ids.size());
+            for (int id : ids) records.add((T) recordById[id]);
+            return new Result<>(records, more);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Caller holds the read lock. Adds exact prefix matches in id order; true if it stopped at limit.
+    private boolean collectExact(List<String> words, BitSet seen, List<Integer> ids, int limit) {
+        BitSet candidates = null;
+        for (String word : words) {
+            BitSet holding = new BitSet(idCount);
+            scan(word, 0, id -> {
+                holding.set(id);
+                return true;
+            });
+            if (candidates == null) {
+                candidates = holding;
+            } else {
+                candidates.and(holding);
+            }
+        }
+        for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+            if (!matches(words, wordsById[id], false)) continue;
+            if (ids.size() == limit) return true;
+            seen.set(id);
+            ids.add(id);
+        }
+        return false;
+    }
+
+    // Caller holds the read lock. Adds typo matches as they are found; true if it stopped at limit.
+    // Candidates are near the lead word itself, or near a spelling of it with two neighbouring
+    // letters swapped, since a swap counts as one typo but costs up to four grams.
+    private boolean collectTypos(String lead, List<String> words, BitSet seen, List<Integer> ids, int limit) {
+        boolean[] full = {ids.size() == limit};
+        IntPredicate visit = id -> {
+            if (seen.get(id)) return true;
+            seen.set(id);
+            if (!matches(words, wordsById[id], true)) return true;
+            if (ids.size() == limit) {
+                full[0] = true;
+                return false;
+            }
+            ids.add(id);
+            return true;
+        };
+        int typos = maxTypos(lead);
+        if (!scan(lead, typos, visit)) return full[0];
+        char[] swapped = lead.toCharArray();
+        for (int i = 0; i + 1 < swapped.length; i++) {
+            if (swapped[i] == swapped[i + 1]) continue;
+            swap(swapped, i);
+            boolean finished = scan(new String(swapped), typos - 1, visit);
+            swap(swapped, i);
+            if (!finished) return full[0];
+        }
+        return false;
+    }
+
+    // Caller holds the read lock. Visits every id that keeps enough of the word's grams to be
+    // within the given number of inserted, deleted or replaced letters of one of its words'
+    // prefixes: each edit destroys at most three grams, so such an id holds one of the 3k+1
+    // rarest and at least all but 3k of them. Only the rarest lists are walked; the rest are
+    // probed. An id may be visited more than once. Returns false if visit asked to stop.
+    private boolean scan(String word, int edits, IntPredicate visit) {
+        List<Postings> lists = new ArrayList<>();
+        for (long gram : grams(word)) {
+            Postings list = postings.getOrDefault(gram, Postings.EMPTY);
+            if (list == Postings.EMPTY || !lists.contains(list)) lists.add(list);
+        }
+        lists.sort((x, y) -> Integer.compare(x.size, y.size));
+        int lost = 3 * edits;
+        int required = Math.max(1, lists.size() - lost);
+        for (int i = 0; i < Math.min(lists.size(), lost + 1); i++) {
+            for (int id : lists.get(i).ids) {
+                if (id < 0) continue;
+                int held = 0;
+                // Smaller lists first, and give up as soon as too few remain to reach required.
+                for (int j = 0; j < lists.size() && held < required && held + lists.size() - j >= required; j++) {
+                    if (j == i || lists.get(j).contains(id)) held++;
+                }
+                if (held >= required && !visit.test(id)) return false;
+            }
+        }
+        return true;
+    }
+
+    private static void swap(char[] chars, int i) {
+        char c = chars[i];
+        chars[i] = chars[i + 1];
+        chars[i + 1] = c;
+    }
+
+    // Lowercased runs of letters and digits, distinct, in order.
+    static List<String> words(Collection<String> texts) {
+        Set<String> words = new LinkedHashSet<>();
+        for (String text : texts) {
+            if (text == null) continue;
+            int start = -1;
+            for (int i = 0; i <= text.length(); i++) {
+                boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+                if (wordChar && start < 0) {
+                    start = i;
+                } else if (!wordChar && start >= 0) {
+                    words.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                    start = -1;
+                }
+            }
+        }
+        return new ArrayList<>(words);
+    }
+
+    static int maxTypos(String word) {
+        return word.length() >= 8 ? 2 : word.length() >= 4 ? 1 : 0;
+    }
+
+    // The grams of "$$" + word; one per character of the word.
+    private static long[] grams(String word) {
+        long[] grams = new long[word.length()];
+        char a = PAD, b = PAD;
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            grams[i] = ((long) a << 32) | ((long) b << 16) | c;
+            a = b;
+            b = c;
+        }
+        return grams;
+    }
+
+    // True if every query word is a prefix of one of the record's words, or with typos allowed,
+    // within its typo allowance of one.
+    private static boolean matches(List<String> queryWords, String[] recordWords, boolean typos) {
+        for (String query : queryWords) {
+            boolean found = false;
+            for (String word : recordWords) {
+                if (word.startsWith(query) || typos && prefixDistance(query, word, maxTypos(query)) <= maxTypos(query)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+
+    // Smallest number of typos (inserted, deleted or replaced letters, or two neighbouring letters
+    // swapped) between query and any prefix of word, or bound + 1 if that is above bound.
+    private static int prefixDistance(String query, String word, int bound) {
+        if (bound == 0) return 1;
+        int[] before = new int[word.length() + 1];
+        int[] previous = new int[word.length() + 1];
+        int[] current = new int[word.length() + 1];
+        // Row 0: the empty query against every prefix of word. Any prefix may be chosen, so the
+        // answer is the minimum of the last row; row minima never decrease, so a row above bound ends it.
+        for (int j = 0; j <= word.length(); j++) previous[j] = j;
+        for (int i = 1; i <= query.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            char q = query.charAt(i - 1);
+            for (int j = 1; j <= word.length(); j++) {
+                char w = word.charAt(j - 1);
+                int d = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + (q == w ? 0 : 1));
+                if (i > 1 && j > 1 && q == word.charAt(j - 2) && query.charAt(i - 2) == w) d = Math.min(d, before[j - 2] + 1);
+                current[j] = d;
+                if (d < rowMin) rowMin = d;
+            }
+            if (rowMin > bound) return bound + 1;
+            int[] recycled = before;
+            before = previous;
+            previous = current;
+            current = recycled;
+        }
+        int best = bound + 1;
+        for (int d : previous) if (d < best) best = d;
+        return best;
+    }
+
+    // Caller holds the write lock.
+    private void add(String key, T record) {
+        String[] words = words(textsOf.apply(record)).toArray(new String[0]);
+        int id = freedIds.isEmpty() ? idCount++ : freedIds.remove(freedIds.size() - 1);
+        if (id == recordById.length) {
+            recordById = Arrays.copyOf(recordById, id * 2);
+            wordsById = Arrays.copyOf(wordsById, id * 2);
+        }
+        for (String word : words) {
+            for (long gram : grams(word)) postings.computeIfAbsent(gram, g -> new Postings()).add(id);
+        }
+        idByKey.put(key, id);
+        recordById[id] = record;
+        wordsById[id] = words;
+    }
+
+    // Caller holds the write lock.
+    private void removeKey(String key) {
+        Integer id = idByKey.remove(key);
+        if (id == null) return;
+        for (String word : wordsById[id]) {
+            for (long gram : grams(word)) {
+                Postings list = postings.get(gram);
+                if (list == null) continue; // gram shared by two of the record's words, already gone
+                list.remove(id);
+                if (list.size == 0) postings.remove(gram);
+            }
+        }
+        recordById[id] = null;
+        wordsById[id] = null;
+        freedIds.add(id);
+    }
+
+    // Open-addressing set of ids; -1 marks an empty slot. Backward-shift deletion, as in DocumentIndex.
+    private static final class Postings {
+        static final Postings EMPTY = new Postings();
+
+        int[] ids = emptySlots(4);
+        int size;
+
+        void add(int id) {
+            if ((size + 1) * 4 > ids.length * 3) resize(ids.length * 2);
+            int mask = ids.length - 1;
+            int slot = mix(id) & mask;
+            while (ids[slot] >= 0 && ids[slot] != id) slot = (slot + 1) & mask;
+            if (ids[slot] < 0) size++;
+            ids[slot] = id;
+        }
+
+        boolean contains(int id) {
+            int mask = ids.length - 1;
+            for (int slot = mix(id) & mask; ids[slot] >= 0; slot = (slot + 1) & mask) {
+                if (ids[slot] == id) return true;
+            }
+            return false;
+        }
+
+        void remove(int id) {
+            int mask = ids.length - 1;
+            int slot = mix(id) & mask;
+            while (ids[slot] != id) {
+                if (ids[slot] < 0) return;
+                slot = (slot + 1) & mask;
+            }
+            size--;
+            int hole = slot;
+            for (int next = (hole + 1) & mask; ids[next] >= 0; next = (next + 1) & mask) {
+                int home = mix(ids[next]) & mask;
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    ids[hole] = ids[next];
+                    hole = next;
+                }
+            }
+            ids[hole] = -1;
+        }
+
+        private void resize(int capacity) {
+            int[] old = ids;
+            ids = emptySlots(capacity);
+            size = 0;
+            for (int id : old) {
+                if (id >= 0) add(id);
+            }
+        }
+
+        private static int[] emptySlots(int capacity) {
+            int[] slots = new int[capacity];
+            Arrays.fill(slots, -1);
+            return slots;
+        }
+
+        private static int mix(int id) {
+            return id * 0x9E3779B9 >>> 7;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package boardinghouse;
+
+import java.io.*;
+
+// Represents a User object.
+class User implements Serializable {
+    private String username;
+    private volatile String password;
+    private volatile String role;
+
+    public User(String username, String password, String role) {
+        this.username = username;
+        this.password = password;
+        this.role = role;
+    }
+
+    // Getters & Setters
+    public String getUsername() { return username; }
+    public String getPassword() { return password; }
+    public String getRole() { return role; }
+    public void setPassword(String password) { this.password = password; }
+    public void setRole(String role) { this.role = role; }
+
+    // Detached copy of the user as it is now, for change events.
+    User snapshot() {
+        return new User(username, password, role);
+    }
+
+    public String toCsvString() {
+        return String.join(",", username, password, role);
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        BinarySnapshot.writeString(out, username);
+        BinarySnapshot.writeString(out, password);
+        BinarySnapshot.writeString(out, role);
+    }
+
+    public static User readFrom(BinarySnapshot.Cursor in) {
+        return new User(in.readString(), in.readString(), in.readString());
+    }
+
+    public static User fromCsvString(String csv) {
+        String[] parts = csv.split(",");
+        if (parts.length != 3) return null;
+        return new User(parts[0], parts[1], parts[2]);
+    }
+}
@@ -0,0 +1,340 @@
+package boardinghouse;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Arrays;
+import java.util.concurrent.locks.Lock;
+
+// Manages a collection of User objects.
+// Safe to share between threads: reads are lock-free and each write locks only its key's stripe.
+// Passwords are kept as salted PBKDF2 hashes (see Passwords); add and update always hash the
+// password they are given, and plaintext rows from older files are hashed in the background after
+// loading.
+class UserManager {
+    // Keyed by normalized username; insertion order is kept for listing.
+    private final RecordStore<User> users = new RecordStore<>();
+    // Recent successful logins, so repeat authentication skips the slow hash.
+    private final CredentialCache verified = new CredentialCache();
+    // Trigram index over usernames for find-as-you-type, built on the first search.
+    private final TrigramIndex<User> finder = new TrigramIndex<>(User::getUsername, user -> Arrays.asList(user.getUsername()));
+    private static final String FILE_NAME = "users.dat";
+    private final String fileName;
+    private final Journal journal;
+    private final ChangeTracker changes = new ChangeTracker();
+    private final ChangeBus<User> events = new ChangeBus<>();
+    private volatile FileStamp snapshotStamp;
+    // Held while this manager renames its own snapshot into place and records its stamp, so the
+    // staleness check never mistakes our own install for someone else's.
+    private final Object stampLock = new Object();
+    private final Object saveLock = new Object();
+
+    public UserManager() {
+        this(FILE_NAME);
+    }
+
+    UserManager(String fileName) {
+        this.fileName = fileName;
+        this.journal = new Journal(fileName);
+        boolean legacyFormat = loadUsers();
+        journal.replay(this::applyJournalEntry);
+        // One-time migration: a CSV snapshot becomes binary.
+        if (legacyFormat) compactUsers();
+        if (users.isEmpty()) {
+            for (User seed : new User[]{
+                    new User("admin", "adminpass", "admin"),
+                    new User("user", "password", "regular"),
+                    new User("manager", "manage123", "regular")}) {
+                seed.setPassword(Passwords.hash(seed.getPassword()));
+                users.putIfAbsent(seed.getUsername(), seed);
+                changes.markDirty(seed.getUsername()); // not journaled; the first save writes it
+            }
+        }
+        hashPlaintextPasswordsInBackground();
+    }
+
+    // The user's password is plaintext and is replaced by its hash before the user is stored, even
+    // when it looks like a hash already: whatever a person typed is never stored as given.
+    public boolean addUser(User user) {
+        user.setPassword(Passwords.hash(user.getPassword()));
+        return insert(user);
+    }
+
+    // Stores a user whose password is already a Passwords hash, e.g. one carried over from another
+    // store. Anything else is refused, so plaintext cannot get in through here.
+    boolean addUserWithHash(User user) {
+        if (!Passwords.isHashed(user.getPassword())) throw new IllegalArgumentException("Not a password hash");
+        return insert(user);
+    }
+
+    private boolean insert(User user) {
+        Lock lock = users.lockFor(user.getUsername());
+        lock.lock();
+        try {
+            if (!users.putIfAbsent(user.getUsername(), user)) return false;
+            finder.put(user);
+            journal.append(Journal.PUT, user::toCsvString);
+            changes.markDirty(user.getUsername());
+        } finally {
+            lock.unlock();
+        }
+        events.publish(ChangeBus.added(user.getUsername(), user));
+        compactIfNeeded();
+        return true;
+    }
+
+    public Optional<User> findUserByUsername(String username) {
+        return Optional.ofNullable(users.get(username));
+    }
+
+    // Sets a new password and the role. The password is plaintext and always hashed; to change
+    // only the role and keep the stored password, use updateRole.
+    public boolean updateUser(User updatedUser) {
+        return update(updatedUser.getUsername(), Passwords.hash(updatedUser.getPassword()), updatedUser.getRole());
+    }
+
+    public boolean updateRole(String username, String role) {
+        return update(username, null, role);
+    }
+
+    // passwordHash null keeps the stored password.
+    private boolean update(String username, String passwordHash, String role) {
+        Lock lock = users.lockFor(username);
+        User before;
+        User existing;
+        lock.lock();
+        try {
+            existing = users.get(username);
+            if (existing == null) return false;
+            before = events.hasSubscribers() ? existing.snapshot() : null;
+            if (passwordHash != null) existing.setPassword(passwordHash);
+            existing.setRole(role);
+            journal.append(Journal.PUT, existing::toCsvString);
+            changes.markDirty(existing.getUsername());
+        } finally {
+            lock.unlock();
+        }
+        events.publish(ChangeBus.updated(existing.getUsername(), before, existing));
+        compactIfNeeded();
+        return true;
+    }
+
+    public boolean deleteUser(String username) {
+        if (username == null) return false;
+        Lock lock = users.lockFor(username);
+        User removed;
+        lock.lock();
+        try {
+            removed = users.remove(username);
+            if (removed == null) return false;
+            finder.remove(username);
+            journal.append(Journal.DELETE, removed.getUsername());
+            changes.markDirty(removed.getUsername());
+        } finally {
+            lock.unlock();
+        }
+        events.publish(ChangeBus.removed(removed.getUsername(), removed));
+        compactIfNeeded();
+        return true;
+    }
+
+    // Users whose name starts with the query, tolerating typos; see TrigramIndex.
+    public TrigramIndex.Result<User> findUsers(String query, int limit) {
+        buildFinder();
+        return finder.search(query, limit);
+    }
+
+    // Builds the find-as-you-type index now instead of on the first search.
+    void buildFinder() {
+        if (!finder.isBuilt()) finder.build(users.values());
+    }
+
+    public List<User> getAllUsers() {
+        return users.snapshot();
+    }
+
+    // Listing order, starting after the first offset users.
+    public List<User> getUsers(int offset, int limit) {
+        return users.page(offset, limit);
+    }
+
+    // Returns the user's role, or null if the username or password is wrong. A recent successful
+    // check of the same password against the same stored hash is answered from the cache.
+    public String authenticate(String username, String password) {
+        User user = users.get(username);
+        if (user == null || password == null) return null;
+        String stored = user.getPassword();
+        if (verified.contains(username, password, stored)) return user.getRole();
+        if (!Passwords.verify(password, stored)) return null;
+        verified.add(username, password, stored);
+        return user.getRole();
+    }
+
+    // Forgets every cached login, so the next authenticate of each user pays for the hash again.
+    void clearCredentialCache() {
+        verified.clear();
+    }
+
+    // Plaintext passwords from older files are hashed on a daemon thread, since each hash is
+    // deliberately slow and the users may have been loaded on the EDT (the login window). Until
+    // its row is hashed a plaintext password still authenticates.
+    private void hashPlaintextPasswordsInBackground() {
+        List<User> plaintext = new ArrayList<>();
+        for (User user : users.values()) {
+            if (!Passwords.isHashed(user.getPassword())) plaintext.add(user);
+        }
+        if (plaintext.isEmpty()) return;
+        Thread worker = new Thread(() -> hashPlaintextPasswords(plaintext), "password-migration");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // Hashes, journals and marks dirty each password, then rewrites the snapshot so no plaintext
+    // survives in it. A user deleted or given a new password meanwhile is left alone.
+    private void hashPlaintextPasswords(List<User> plaintext) {
+        plaintext.parallelStream().forEach(user -> {
+            String password = user.getPassword();
+            if (Passwords.isHashed(password)) return;
+            String hash = Passwords.hash(password);
+            Lock lock = users.lockFor(user.getUsername());
+            lock.lock();
+            try {
+                if (users.get(user.getUsername()) != user || !password.equals(user.getPassword())) return;
+                user.setPassword(hash);
+                journal.append(Journal.PUT, user::toCsvString);
+                changes.markDirty(user.getUsername());
+            } finally {
+                lock.unlock();
+            }
+        });
+        compactUsers();
+    }
+
+    // Saves only what changed since the last save: nothing when users are untouched, otherwise
+    // the journaled edits, so the cost follows the number of edits. The snapshot is rewritten only
+    // once enough records are dirty (or the journal is long) that replay would cost more.
+    public void saveUsers() {
+        if (!changes.hasUnsavedChanges()) return;
+        long mark = changes.changeCount();
+        if (changes.shouldRewrite(users.size(), journal.size())) {
+            compactUsers();
+        } else {
+            journal.flush();
+            changes.markSaved(mark);
+        }
+    }
+
+    // Writes a full snapshot and folds the journal into it. Writers are never blocked: every
+    // change that might be missing from the snapshot was journaled after the checkpoint, so it
+    // survives the truncation, and replaying it over the snapshot is idempotent.
+    void compactUsers() {
+        synchronized (saveLock) {
+            long mark = changes.changeCount();
+            Journal.Checkpoint checkpoint = journal.checkpoint();
+            File tmp = new File(fileName + ".tmp");
+            try {
+                BinarySnapshot.write(tmp, users.values(), (out, user) -> user.writeTo(out));
+            } catch (IOException e) {
+                System.err.println("Error saving users: " + e.getMessage());
+                return;
+            }
+            File target = new File(fileName);
+            boolean installed;
+            synchronized (stampLock) {
+                installed = Journal.installSnapshot(tmp, target);
+                if (installed) snapshotStamp = FileStamp.of(target);
+            }
+            if (installed) {
+                journal.truncate(checkpoint);
+                changes.markSnapshotted(mark);
+            }
+        }
+    }
+
+    // True when the snapshot file was changed on disk since this manager last read or wrote it.
+    boolean isSnapshotStale() {
+        synchronized (stampLock) {
+            return !FileStamp.of(new File(fileName)).equals(snapshotStamp);
+        }
+    }
+
+    // Re-reads the snapshot and journal into this same manager after someone else replaced the
+    // snapshot on disk; see ApartmentManager.reloadApartments.
+    void reloadUsers() {
+        List<ChangeBus.Change<User>> published = new ArrayList<>();
+        boolean legacyFormat;
+        synchronized (saveLock) {
+            List<Lock> locks = users.lockAll();
+            try {
+                for (User user : users.values()) {
+                    finder.remove(user.getUsername());
+                    published.add(ChangeBus.removed(user.getUsername(), user));
+                }
+                users.clear();
+                journal.flush();
+                legacyFormat = loadUsers();
+                journal.replay(this::applyJournalEntry);
+                for (User user : users.values()) {
+                    finder.put(user);
+                    published.add(ChangeBus.added(user.getUsername(), user));
+                }
+            } finally {
+                for (Lock lock : locks) lock.unlock();
+            }
+        }
+        if (legacyFormat) compactUsers();
+        hashPlaintextPasswordsInBackground();
+        events.publish(published);
+    }
+
+    // Mutation counter and dirty records since the last save/snapshot; see Autosave.
+    ChangeTracker getChangeTracker() {
+        return changes;
+    }
+
+    // Added, updated and removed users, as they happen; see ChangeBus.
+    ChangeBus<User> events() {
+        return events;
+    }
+
+    // Called after releasing the key lock; compaction takes every stripe.
+    private void compactIfNeeded() {
+        if (journal.size() >= Journal.COMPACT_THRESHOLD) compactUsers();
+    }
+
+    private void applyJournalEntry(char op, String payload) {
+        if (op == Journal.PUT) {
+            User user = User.fromCsvString(payload);
+            if (user != null) users.put(user.getUsername(), user);
+        } else if (op == Journal.DELETE) {
+            users.remove(payload);
+        }
+    }
+
+    // Returns true when the snapshot was still in the legacy CSV format.
+    private boolean loadUsers() {
+        File file = new File(fileName);
+        snapshotStamp = FileStamp.of(file);
+        if (!file.exists()) return false;
+        if (BinarySnapshot.isBinary(file)) {
+            try {
+                BinarySnapshot.read(file, User::readFrom, user -> users.putIfAbsent(user.getUsername(), user));
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Error loading users: " + e.getMessage());
+            }
+            return false;
+        }
+        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                User user = User.fromCsvString(line);
+                if (user != null) users.putIfAbsent(user.getUsername(), user);
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading users: " + e.getMessage());
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,70 @@
+package boardinghouse;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Hammers bookApartment and claimSpot from many threads at once and checks that every
+// apartment and spot ends up with exactly one winner whose name matches the stored tenant.
+class ClaimStressTest {
+    private static final int THREADS = 16;
+    private static final int RESOURCES = 500;
+
+    @TempDir
+    File dir;
+
+    @RepeatedTest(3)
+    void everyResourceHasExactlyOneWinner() throws InterruptedException {
+        ApartmentManager apartments = new ApartmentManager(new File(dir, "apartments.dat").getPath());
+        ParkingLotManager spots = new ParkingLotManager(new File(dir, "parking_lots.dat").getPath());
+        for (int i = 0; i < RESOURCES; i++) {
+            apartments.addApartment(new Apartment("A" + i, "", 1000, false, ""));
+            spots.addSpot(new ParkingLot("S" + i, false, null, null));
+        }
+        AtomicIntegerArray apartmentWins = new AtomicIntegerArray(RESOURCES);
+        AtomicIntegerArray spotWins = new AtomicIntegerArray(RESOURCES);
+        String[] apartmentWinner = new String[RESOURCES];
+        String[] spotWinner = new String[RESOURCES];
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            String tenant = "tenant-" + t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < RESOURCES; i++) {
+                    if (apartments.bookApartment("A" + i, tenant) == ClaimResult.WON) {
+                        apartmentWins.incrementAndGet(i);
+                        apartmentWinner[i] = tenant;
+                    }
+                    // Lower case on purpose: claims must find the spot whatever the case.
+                    if (spots.claimSpot("s" + i, tenant, "2025-01-01") == ClaimResult.WON) {
+                        spotWins.incrementAndGet(i);
+                        spotWinner[i] = tenant;
+                    }
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) worker.join();
+
+        for (int i = 0; i < RESOURCES; i++) {
+            assertEquals(1, apartmentWins.get(i), "winners of apartment A" + i);
+            assertEquals(apartmentWinner[i], apartments.findApartmentByNumber("A" + i).get().getTenantName(), "tenant of apartment A" + i);
+            assertEquals(1, spotWins.get(i), "winners of spot S" + i);
+            assertEquals(spotWinner[i], spots.findSpotByNumber("S" + i).get().getReservedByTenantName(), "tenant of spot S" + i);
+        }
+    }
+}